@@ -0,0 +1,62 @@
+package jchunk.benchmarks;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import jchunk.chunker.contentdefined.Config;
+import jchunk.chunker.contentdefined.ContentDefinedChunker;
+import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.ChunkSpan;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of {@link ContentDefinedChunker}.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentDefinedChunkerBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int documentSize;
+
+    @Param({"64:256:1024", "256:1024:4096"})
+    private String chunkSizes;
+
+    private String document;
+
+    private ContentDefinedChunker chunker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var sizes = chunkSizes.split(":");
+        var config = Config.builder()
+                .minChunkSize(Integer.parseInt(sizes[0]))
+                .avgChunkSize(Integer.parseInt(sizes[1]))
+                .maxChunkSize(Integer.parseInt(sizes[2]))
+                .build();
+
+        document = Documents.generate(documentSize);
+        chunker = new ContentDefinedChunker(config);
+    }
+
+    @Benchmark
+    public List<Chunk> split() {
+        return chunker.split(document);
+    }
+
+    @Benchmark
+    public List<ChunkSpan> splitSpans() {
+        return chunker.splitSpans(document);
+    }
+
+    @Benchmark
+    public long stream() {
+        return chunker.stream(new StringReader(document)).count();
+    }
+}
@@ -0,0 +1,82 @@
+package jchunk.benchmarks;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates deterministic synthetic documents for the benchmarks: sentences of random words ending
+ * with {@code .}, {@code ?} or {@code !}, grouped into lines and paragraphs.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public final class Documents {
+
+    private static final long SEED = 42L;
+
+    private static final String[] WORDS = {
+        "the",
+        "chunk",
+        "text",
+        "returns",
+        "performance",
+        "are",
+        "superlinear",
+        "world",
+        "of",
+        "a",
+        "model",
+        "embedding",
+        "sentence",
+        "retrieval",
+        "augmented",
+        "generation",
+        "split",
+        "into",
+        "pieces",
+        "with",
+        "overlap",
+        "context",
+        "window",
+        "token",
+        "vector",
+        "store",
+        "index",
+        "query",
+        "answer",
+        "document"
+    };
+
+    private static final char[] PUNCTUATION = {'.', '.', '.', '?', '!'};
+
+    private Documents() {}
+
+    /**
+     * Generates a document of (approximately) the given size. The same size always produces the same
+     * document.
+     *
+     * @param size the number of characters of the document
+     * @return the generated document
+     */
+    public static String generate(int size) {
+        var random = new SplittableRandom(SEED);
+        var builder = new StringBuilder(size + 64);
+
+        while (builder.length() < size) {
+            int words = 5 + random.nextInt(16);
+            for (int i = 0; i < words; i++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                if (i == 0) {
+                    builder.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+                } else {
+                    builder.append(' ').append(word);
+                }
+            }
+            builder.append(PUNCTUATION[random.nextInt(PUNCTUATION.length)]);
+
+            int separator = random.nextInt(20);
+            builder.append(separator == 0 ? "\n\n" : separator < 4 ? "\n" : " ");
+        }
+
+        builder.setLength(size);
+        return builder.toString();
+    }
+}
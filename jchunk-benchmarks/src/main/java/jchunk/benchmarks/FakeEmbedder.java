@@ -0,0 +1,41 @@
+package jchunk.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import jchunk.chunker.semantic.embedder.Embedder;
+
+/**
+ * Deterministic {@link Embedder} for the benchmarks, so that no model inference is measured. Every
+ * text is mapped to a pseudo-random vector seeded by the text hash, the same text always gets the
+ * same embedding.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public class FakeEmbedder implements Embedder {
+
+    private final int dimension;
+
+    public FakeEmbedder(int dimension) {
+        this.dimension = dimension;
+    }
+
+    @Override
+    public List<float[]> embed(List<String> texts) {
+        var embeddings = new ArrayList<float[]>(texts.size());
+        for (String text : texts) {
+            var random = new SplittableRandom(text.hashCode());
+            var embedding = new float[dimension];
+            for (int i = 0; i < dimension; i++) {
+                embedding[i] = (float) random.nextDouble(-1.0, 1.0);
+            }
+            embeddings.add(embedding);
+        }
+        return embeddings;
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+}
@@ -0,0 +1,79 @@
+package jchunk.benchmarks;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import jchunk.chunker.Delimiter;
+import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.ChunkSpan;
+import jchunk.chunker.fixed.Config;
+import jchunk.chunker.fixed.FixedChunker;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of {@link FixedChunker}.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FixedChunkerBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int documentSize;
+
+    @Param({"200:20", "1000:100"})
+    private String chunkSizeAndOverlap;
+
+    @Param({"space", "sentence", "character"})
+    private String delimiter;
+
+    @Param({"NONE", "START", "END"})
+    private Delimiter keepDelimiter;
+
+    private String document;
+
+    private FixedChunker chunker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var sizes = chunkSizeAndOverlap.split(":");
+        var config = Config.builder()
+                .chunkSize(Integer.parseInt(sizes[0]))
+                .chunkOverlap(Integer.parseInt(sizes[1]))
+                .delimiter(delimiterOf(delimiter))
+                .keepDelimiter(keepDelimiter)
+                .build();
+
+        document = Documents.generate(documentSize);
+        chunker = new FixedChunker(config);
+    }
+
+    @Benchmark
+    public List<Chunk> split() {
+        return chunker.split(document);
+    }
+
+    @Benchmark
+    public List<ChunkSpan> splitSpans() {
+        return chunker.splitSpans(document);
+    }
+
+    @Benchmark
+    public long stream() {
+        return chunker.stream(new StringReader(document)).count();
+    }
+
+    static String delimiterOf(String name) {
+        return switch (name) {
+            case "space" -> " ";
+            case "sentence" -> ". ";
+            case "character" -> "";
+            default -> throw new IllegalArgumentException("Unknown delimiter: " + name);
+        };
+    }
+}
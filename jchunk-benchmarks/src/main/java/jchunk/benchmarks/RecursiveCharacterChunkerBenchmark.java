@@ -0,0 +1,66 @@
+package jchunk.benchmarks;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import jchunk.chunker.Delimiter;
+import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.ChunkSpan;
+import jchunk.chunker.recursive.Config;
+import jchunk.chunker.recursive.RecursiveCharacterChunker;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of {@link RecursiveCharacterChunker}.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecursiveCharacterChunkerBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int documentSize;
+
+    @Param({"100:20", "1000:100"})
+    private String chunkSizeAndOverlap;
+
+    @Param({"NONE", "START", "END"})
+    private Delimiter keepDelimiter;
+
+    private String document;
+
+    private RecursiveCharacterChunker chunker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var sizes = chunkSizeAndOverlap.split(":");
+        var config = Config.builder()
+                .chunkSize(Integer.parseInt(sizes[0]))
+                .chunkOverlap(Integer.parseInt(sizes[1]))
+                .keepDelimiter(keepDelimiter)
+                .build();
+
+        document = Documents.generate(documentSize);
+        chunker = new RecursiveCharacterChunker(config);
+    }
+
+    @Benchmark
+    public List<Chunk> split() {
+        return chunker.split(document);
+    }
+
+    @Benchmark
+    public List<ChunkSpan> splitSpans() {
+        return chunker.splitSpans(document);
+    }
+
+    @Benchmark
+    public long stream() {
+        return chunker.stream(new StringReader(document)).count();
+    }
+}
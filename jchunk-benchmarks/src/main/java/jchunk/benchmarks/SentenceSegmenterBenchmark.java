@@ -0,0 +1,50 @@
+package jchunk.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import jchunk.chunker.semantic.SentenceSplittingStrategy;
+import jchunk.chunker.semantic.segmenter.RegexSentenceSegmenter;
+import jchunk.chunker.semantic.segmenter.RuleBasedSentenceSegmenter;
+import jchunk.chunker.semantic.segmenter.SentenceSegmenter;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of the {@link SentenceSegmenter sentence segmenters}, against splitting the content
+ * with the regex of the default strategy.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SentenceSegmenterBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int documentSize;
+
+    @Param({"regex", "punctuation", "ruleBased"})
+    private String segmenterName;
+
+    private String document;
+
+    private SentenceSegmenter segmenter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        document = Documents.generate(documentSize);
+        segmenter = switch (segmenterName) {
+            case "regex" -> new RegexSentenceSegmenter(SentenceSplittingStrategy.DEFAULT.getStrategy());
+            case "punctuation" -> SentenceSplittingStrategy.DEFAULT.getSegmenter();
+            case "ruleBased" -> new RuleBasedSentenceSegmenter();
+            default -> throw new IllegalArgumentException("Unknown segmenter: " + segmenterName);};
+    }
+
+    @Benchmark
+    public int segment() {
+        var sentences = new int[1];
+        segmenter.segment(document, (start, end) -> sentences[0]++);
+        return sentences[0];
+    }
+}
@@ -0,0 +1,111 @@
+package jchunk.chunker.semantic;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import jchunk.benchmarks.Documents;
+import jchunk.benchmarks.FakeEmbedder;
+import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.semantic.segmenter.SentenceSegmenter;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks of the {@link SemanticChunker} pipeline stages, using a {@link FakeEmbedder} so that
+ * model inference is left out of the measures. Lives in the chunker package to reach the stages.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class SemanticChunkerBenchmark {
+
+    private static final int DIMENSION = 384;
+
+    @Param({"10000", "1000000"})
+    private int documentSize;
+
+    @Param({"1", "3"})
+    private int bufferSize;
+
+    @Param({"DEFAULT", "LINE_BREAK"})
+    private SentenceSplittingStrategy sentenceSplittingStrategy;
+
+    @Param({"95"})
+    private int percentile;
+
+    private String document;
+
+    private FakeEmbedder embedder;
+
+    private SemanticChunker chunker;
+
+    private SentenceSegmenter sentenceSegmenter;
+
+    private List<Sentence> sentences;
+
+    private SentenceTable sentenceTable;
+
+    private EmbeddingMatrix embeddings;
+
+    private double[] similarities;
+
+    private int[] breakPoints;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var config = Config.builder()
+                .sentenceSplittingStrategy(sentenceSplittingStrategy)
+                .bufferSize(bufferSize)
+                .percentile(percentile)
+                .build();
+
+        document = Documents.generate(documentSize);
+        embedder = new FakeEmbedder(DIMENSION);
+        chunker = new SemanticChunker(embedder, config);
+
+        sentenceSegmenter = sentenceSplittingStrategy.getSegmenter();
+        sentences = chunker.splitSentences(document, sentenceSplittingStrategy);
+        sentenceTable = SentenceTable.of(document, sentenceSegmenter);
+        embeddings = chunker.embedSentences(embedder, sentenceTable);
+        similarities = chunker.calculateSimilarities(embeddings);
+        breakPoints = chunker.calculateBreakPoints(similarities, percentile);
+    }
+
+    @Benchmark
+    public List<Sentence> splitSentences() {
+        return chunker.splitSentences(document, sentenceSplittingStrategy);
+    }
+
+    @Benchmark
+    public SentenceTable splitSentenceTable() {
+        return SentenceTable.of(document, sentenceSegmenter);
+    }
+
+    @Benchmark
+    public List<Sentence> combineSentences() {
+        return chunker.combineSentences(sentences, bufferSize);
+    }
+
+    @Benchmark
+    public double[] calculateSimilarities() {
+        return chunker.calculateSimilarities(embeddings);
+    }
+
+    @Benchmark
+    public int[] calculateBreakPoints() {
+        return chunker.calculateBreakPoints(similarities, percentile);
+    }
+
+    @Benchmark
+    public List<Chunk> generateChunks() {
+        return chunker.generateChunks(sentenceTable, breakPoints);
+    }
+
+    @Benchmark
+    public List<Chunk> split() {
+        return chunker.split(document);
+    }
+}
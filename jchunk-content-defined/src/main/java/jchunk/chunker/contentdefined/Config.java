@@ -0,0 +1,83 @@
+package jchunk.chunker.contentdefined;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link Config} is a class that holds the configuration for the {@link ContentDefinedChunker}.
+ *
+ * <p>The sizes are measured in characters. The chunks are at least {@code minChunkSize} and at
+ * most {@code maxChunkSize} long (but the last one), and their average length is close to {@code
+ * avgChunkSize}.
+ *
+ * @param minChunkSize the minimum length of a chunk, no boundary is looked for before it
+ * @param avgChunkSize the expected length of a chunk, rounded down to a power of two
+ * @param maxChunkSize the maximum length of a chunk, where it is cut if no boundary was found
+ * @param delimiters the delimiters the boundaries are snapped to, the chunks end with them
+ * @param normalizationLevel how much the boundaries are made harder to find before the average
+ *     length and easier after it, so the lengths gather around the average; 0 disables it
+ * @author Pablo Sanchidrian Herrera
+ */
+public record Config(
+        int minChunkSize, int avgChunkSize, int maxChunkSize, List<String> delimiters, int normalizationLevel) {
+
+    /**
+     * @return the default config
+     */
+    public static Config defaultConfig() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private int minChunkSize = 256;
+
+        private int avgChunkSize = 1024;
+
+        private int maxChunkSize = 4096;
+
+        private List<String> delimiters = new ArrayList<>(List.of("\n\n", "\n", ". ", " "));
+
+        private int normalizationLevel = 2;
+
+        public Builder minChunkSize(int minChunkSize) {
+            this.minChunkSize = minChunkSize;
+            return this;
+        }
+
+        public Builder avgChunkSize(int avgChunkSize) {
+            this.avgChunkSize = avgChunkSize;
+            return this;
+        }
+
+        public Builder maxChunkSize(int maxChunkSize) {
+            this.maxChunkSize = maxChunkSize;
+            return this;
+        }
+
+        public Builder delimiters(List<String> delimiters) {
+            this.delimiters = delimiters;
+            return this;
+        }
+
+        public Builder normalizationLevel(int normalizationLevel) {
+            this.normalizationLevel = normalizationLevel;
+            return this;
+        }
+
+        public Config build() {
+            assert minChunkSize > 0 : "Min chunk size must be greater than 0";
+            assert avgChunkSize > minChunkSize : "Avg chunk size must be greater than min chunk size";
+            assert maxChunkSize > avgChunkSize : "Max chunk size must be greater than avg chunk size";
+            assert delimiters != null : "Delimiters cannot be null";
+            assert delimiters.stream().noneMatch(String::isEmpty) : "Delimiters cannot be empty";
+            assert normalizationLevel >= 0 && normalizationLevel <= 4 : "Normalization level must be between 0 and 4";
+
+            return new Config(minChunkSize, avgChunkSize, maxChunkSize, List.copyOf(delimiters), normalizationLevel);
+        }
+    }
+}
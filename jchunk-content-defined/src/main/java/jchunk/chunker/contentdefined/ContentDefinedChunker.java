@@ -0,0 +1,204 @@
+package jchunk.chunker.contentdefined;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.ChunkMetadata;
+import jchunk.chunker.core.chunk.ChunkSpan;
+import jchunk.chunker.core.chunk.IChunker;
+import jchunk.chunker.core.chunk.ISpanChunker;
+import jchunk.chunker.core.stream.ChunkStreams;
+import jchunk.chunker.core.stream.TextWindowReader;
+
+/**
+ * {@link ContentDefinedChunker} is a class that implements the {@link IChunker} interface and
+ * places the chunk boundaries where the content itself says so, following FastCDC.
+ *
+ * <p>A {@link GearHash Gear} rolling hash is computed over the characters of every chunk, starting
+ * {@link GearHash#WINDOW 64} characters before its minimum length, and a boundary is found where
+ * the highest bits of the hash are all 0: more bits are checked before the average length and fewer
+ * after it (see {@link Config#normalizationLevel()}). The boundary is then snapped to the nearest
+ * end of a delimiter between the minimum and maximum lengths. If no boundary is found, the chunk is
+ * cut at the last delimiter before its maximum length, or at the maximum length itself.
+ *
+ * <p>As a boundary only depends on the text from the start of its chunk up to its maximum length,
+ * an insertion or a deletion only moves the boundaries around it, the chunker falls back into step
+ * with the previous boundaries shortly after. The versions of a document then share most of their
+ * chunks, which can be deduplicated by content.
+ *
+ * <p>The chunks are contiguous and cover the whole content, their whitespace is kept so that they
+ * can be joined back into the content. Every chunk carries its {@link ChunkMetadata}: its offsets
+ * in the content and its length.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public class ContentDefinedChunker implements ISpanChunker {
+
+    private static final int WINDOW_CHUNKS = 16;
+
+    private final Config config;
+
+    private final long smallMask;
+
+    private final long largeMask;
+
+    public ContentDefinedChunker() {
+        this(Config.defaultConfig());
+    }
+
+    public ContentDefinedChunker(Config config) {
+        this.config = config;
+
+        int bits = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(config.avgChunkSize());
+        this.smallMask = GearHash.mask(Math.min(Long.SIZE - 1, bits + config.normalizationLevel()));
+        this.largeMask = GearHash.mask(Math.max(1, bits - config.normalizationLevel()));
+    }
+
+    @Override
+    public List<Chunk> split(String content) {
+        return splitContent(content, ContentDefinedChunker::createChunk);
+    }
+
+    @Override
+    public List<ChunkSpan> splitSpans(String content) {
+        return splitContent(content, ChunkSpan::new);
+    }
+
+    /**
+     * Splits the content read from the reader into chunks. The reader is consumed in windows cut at
+     * their {@link #lastBoundary(String) last settled boundary}, so the produced chunks are the same
+     * as the ones of {@link #split(String)}.
+     *
+     * @param reader the source of the content to be split, it is not closed by this method
+     * @return a lazy stream of chunks
+     */
+    @Override
+    public Stream<Chunk> stream(Reader reader) {
+        var windowSize = Math.max(TextWindowReader.DEFAULT_WINDOW_SIZE, config.maxChunkSize() * WINDOW_CHUNKS);
+        var windows = new TextWindowReader(reader, windowSize, this::lastBoundary);
+
+        return ChunkStreams.windowed(windows, this::split);
+    }
+
+    /**
+     * Finds the last boundary of the text that is also a boundary of any longer text starting with
+     * it: the boundaries are found from the start of the text, and a boundary is settled as long as
+     * the maximum length of its chunk fits in the text.
+     *
+     * @param text the text to look into
+     * @return the cut position, or -1 if the text is too short to settle any boundary
+     */
+    @Override
+    public int lastBoundary(String text) {
+        int last = -1;
+        int start = 0;
+        while (text.length() - start > config.maxChunkSize()) {
+            start = nextBoundary(text, start, text.length());
+            last = start;
+        }
+        return last;
+    }
+
+    private <T> List<T> splitContent(String content, ChunkFactory<T> factory) {
+        List<T> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < content.length()) {
+            int end = nextBoundary(content, start, content.length());
+            chunks.add(factory.create(chunks.size(), content, start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Finds the end of the chunk starting at the given offset.
+     *
+     * @param content the content
+     * @param start the start of the chunk
+     * @param end the end of the content
+     * @return the end of the chunk
+     */
+    private int nextBoundary(String content, int start, int end) {
+        int limit = end - start > config.maxChunkSize() ? start + config.maxChunkSize() : end;
+        int min = start + config.minChunkSize();
+        if (limit <= min) {
+            return limit;
+        }
+
+        int normal = Math.min(limit, start + config.avgChunkSize());
+        int i = Math.max(start, min - GearHash.WINDOW);
+        long hash = 0;
+        for (; i < min; i++) {
+            hash = GearHash.roll(hash, content.charAt(i));
+        }
+        for (; i < normal; i++) {
+            hash = GearHash.roll(hash, content.charAt(i));
+            if ((hash & smallMask) == 0) {
+                return snap(content, start, i + 1, limit);
+            }
+        }
+        for (; i < limit; i++) {
+            hash = GearHash.roll(hash, content.charAt(i));
+            if ((hash & largeMask) == 0) {
+                return snap(content, start, i + 1, limit);
+            }
+        }
+
+        return limit == end ? end : snap(content, start, limit, limit);
+    }
+
+    /**
+     * Moves the boundary to the nearest end of a delimiter, the one before it on a tie, keeping the
+     * chunk between its minimum length and the limit.
+     *
+     * @param content the content
+     * @param start the start of the chunk
+     * @param cut the boundary found by the hash, or the limit
+     * @param limit the maximum end of the chunk
+     * @return the end of the chunk
+     */
+    private int snap(String content, int start, int cut, int limit) {
+        int lower = start + config.minChunkSize();
+        for (int distance = 0; cut - distance >= lower || cut + distance <= limit; distance++) {
+            if (cut - distance >= lower && endsWithDelimiter(content, start, cut - distance)) {
+                return cut - distance;
+            }
+            if (distance > 0 && cut + distance <= limit && endsWithDelimiter(content, start, cut + distance)) {
+                return cut + distance;
+            }
+        }
+
+        if (Character.isHighSurrogate(content.charAt(cut - 1)) && cut < content.length()) {
+            return cut < limit ? cut + 1 : cut - 1;
+        }
+        return cut;
+    }
+
+    private boolean endsWithDelimiter(String content, int start, int position) {
+        for (String delimiter : config.delimiters()) {
+            int from = position - delimiter.length();
+            if (from >= start && content.startsWith(delimiter, from)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Chunk createChunk(int id, String content, int start, int end) {
+        var metadata = new ChunkMetadata(start, end, end - start, -1, 0, Float.NaN);
+        return Chunk.builder()
+                .id(id)
+                .content(content.substring(start, end))
+                .metadata(metadata)
+                .build();
+    }
+
+    /** Creates the chunk representation out of the offsets of a chunk. */
+    @FunctionalInterface
+    private interface ChunkFactory<T> {
+
+        T create(int id, String content, int start, int end);
+    }
+}
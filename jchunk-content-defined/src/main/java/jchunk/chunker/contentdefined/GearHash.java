@@ -0,0 +1,51 @@
+package jchunk.chunker.contentdefined;
+
+/**
+ * Gear rolling hash over characters, as used by FastCDC: every character shifts the hash one bit
+ * to the left and adds the random value the table assigns to it, so the hash only depends on the
+ * last 64 characters and its high bits on all of them.
+ *
+ * <p>The table is generated with SplitMix64 from a fixed seed, so the boundaries found with it do
+ * not change from one run (or version) to another.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+final class GearHash {
+
+    /** The number of characters the hash depends on. */
+    static final int WINDOW = Long.SIZE;
+
+    private static final long SEED = 0x6A43_6875_6E6BL;
+
+    private static final long[] TABLE = new long[256];
+
+    static {
+        long state = SEED;
+        for (int i = 0; i < TABLE.length; i++) {
+            state += 0x9E37_79B9_7F4A_7C15L;
+            long z = state;
+            z = (z ^ (z >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D0_49BB_1331_11EBL;
+            TABLE[i] = z ^ (z >>> 31);
+        }
+    }
+
+    private GearHash() {}
+
+    /**
+     * @param hash the hash of the previous characters
+     * @param c the next character
+     * @return the hash including the character
+     */
+    static long roll(long hash, char c) {
+        return (hash << 1) + TABLE[(c ^ (c >>> 8)) & 0xFF];
+    }
+
+    /**
+     * @param bits the number of bits of the mask, between 1 and 63
+     * @return the mask of the highest bits of the hash, a boundary is found where they are all 0
+     */
+    static long mask(int bits) {
+        return -1L << (Long.SIZE - bits);
+    }
+}
@@ -0,0 +1,59 @@
+package jchunk.chunker.contentdefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ConfigTest {
+
+    @Test
+    void testDefaultConfig() {
+        Config config = Config.defaultConfig();
+
+        assertThat(config.minChunkSize()).isEqualTo(256);
+        assertThat(config.avgChunkSize()).isEqualTo(1024);
+        assertThat(config.maxChunkSize()).isEqualTo(4096);
+        assertThat(config.delimiters()).containsExactly("\n\n", "\n", ". ", " ");
+        assertThat(config.normalizationLevel()).isEqualTo(2);
+    }
+
+    @Test
+    void testConfigBuilder() {
+        Config config = Config.builder()
+                .minChunkSize(10)
+                .avgChunkSize(40)
+                .maxChunkSize(100)
+                .delimiters(List.of("\n"))
+                .normalizationLevel(0)
+                .build();
+
+        assertThat(config.minChunkSize()).isEqualTo(10);
+        assertThat(config.avgChunkSize()).isEqualTo(40);
+        assertThat(config.maxChunkSize()).isEqualTo(100);
+        assertThat(config.delimiters()).containsExactly("\n");
+        assertThat(config.normalizationLevel()).isZero();
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideInvalidConfig")
+    void testInvalidConfig(Config.Builder invalidConfigToBuild, String expectedMessage) {
+        assertThatThrownBy(invalidConfigToBuild::build)
+                .isInstanceOf(AssertionError.class)
+                .hasMessage(expectedMessage);
+    }
+
+    private static Stream<Arguments> provideInvalidConfig() {
+        return Stream.of(
+                Arguments.of(Config.builder().minChunkSize(0), "Min chunk size must be greater than 0"),
+                Arguments.of(Config.builder().minChunkSize(2000), "Avg chunk size must be greater than min chunk size"),
+                Arguments.of(Config.builder().maxChunkSize(1000), "Max chunk size must be greater than avg chunk size"),
+                Arguments.of(Config.builder().delimiters(List.of("")), "Delimiters cannot be empty"),
+                Arguments.of(Config.builder().normalizationLevel(5), "Normalization level must be between 0 and 4"));
+    }
+}
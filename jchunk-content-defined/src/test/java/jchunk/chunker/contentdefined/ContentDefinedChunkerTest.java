@@ -0,0 +1,139 @@
+package jchunk.chunker.contentdefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.ChunkSpan;
+import org.junit.jupiter.api.Test;
+
+class ContentDefinedChunkerTest {
+
+    private static final List<String> WORDS = List.of(
+            "the",
+            "returns",
+            "for",
+            "performance",
+            "are",
+            "superlinear",
+            "in",
+            "business",
+            "teachers",
+            "and",
+            "coaches",
+            "told",
+            "us",
+            "linear",
+            "you",
+            "get",
+            "out",
+            "what",
+            "put",
+            "world");
+
+    private static final Config CONFIG = Config.builder()
+            .minChunkSize(64)
+            .avgChunkSize(256)
+            .maxChunkSize(1024)
+            .build();
+
+    private final ContentDefinedChunker chunker = new ContentDefinedChunker(CONFIG);
+
+    @Test
+    void testChunksCoverTheContent() {
+        // given
+        var content = generate(20_000, 1);
+
+        // when
+        List<Chunk> chunks = chunker.split(content);
+
+        // then
+        assertThat(String.join("", chunks.stream().map(Chunk::content).toList()))
+                .isEqualTo(content);
+        assertThat(chunks.subList(0, chunks.size() - 1)).allSatisfy(chunk -> {
+            assertThat(chunk.content()).hasSizeBetween(64, 1024).endsWith(" ");
+            assertThat(content.substring(
+                            chunk.metadata().start(), chunk.metadata().end()))
+                    .isEqualTo(chunk.content());
+        });
+        assertThat(chunks)
+                .extracting(Chunk::id)
+                .containsExactlyElementsOf(
+                        IntStream.range(0, chunks.size()).boxed().toList());
+    }
+
+    @Test
+    void testBoundariesAreStableUnderAnInsertion() {
+        // given
+        var content = generate(50_000, 2);
+        var middle = content.indexOf(' ', content.length() / 2) + 1;
+        var edited = content.substring(0, middle) + "an inserted sentence that was not there before. "
+                + content.substring(middle);
+
+        // when
+        var before = chunker.split(content).stream().map(Chunk::content).toList();
+        var after = chunker.split(edited).stream().map(Chunk::content).toList();
+
+        // then
+        var shared = new HashSet<>(before);
+        shared.retainAll(after);
+        assertThat(shared.size()).isGreaterThanOrEqualTo(before.size() - 4);
+    }
+
+    @Test
+    void testChunkIsCutAtTheLastDelimiterBeforeTheMaximum() {
+        // given
+        var content = "x".repeat(900) + " " + "y".repeat(900);
+
+        // when
+        List<Chunk> chunks = chunker.split(content);
+
+        // then
+        assertThat(chunks.getFirst().content()).isEqualTo("x".repeat(900) + " ");
+    }
+
+    @Test
+    void testSplitSpans() {
+        // given
+        var content = generate(5_000, 3);
+
+        // when
+        List<ChunkSpan> spans = chunker.splitSpans(content);
+
+        // then
+        assertThat(spans)
+                .map(ChunkSpan::toChunk)
+                .usingRecursiveFieldByFieldElementComparatorOnFields("id", "content", "metadata.start", "metadata.end")
+                .containsExactlyElementsOf(chunker.split(content));
+    }
+
+    @Test
+    void testStreamWithSeveralWindows() {
+        // given
+        var content = generate(300_000, 4);
+
+        // when
+        List<Chunk> chunks = chunker.stream(new StringReader(content)).toList();
+
+        // then
+        assertThat(chunks).containsExactlyElementsOf(chunker.split(content));
+        assertThat(chunks)
+                .extracting(Chunk::metadata)
+                .containsExactlyElementsOf(
+                        chunker.split(content).stream().map(Chunk::metadata).toList());
+    }
+
+    private static String generate(int length, long seed) {
+        var random = new Random(seed);
+        var builder = new StringBuilder(length + 32);
+        while (builder.length() < length) {
+            builder.append(WORDS.get(random.nextInt(WORDS.size())));
+            builder.append(random.nextInt(12) == 0 ? ". " : " ");
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,38 @@
+package jchunk.chunker.core.batch;
+
+import java.util.List;
+import jchunk.chunker.core.chunk.Chunk;
+
+/**
+ * The ChunkingResult interface represents the outcome of chunking a single {@link Document} of a
+ * batch, either its chunks or the error that prevented it from being chunked.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public sealed interface ChunkingResult {
+
+    /** {@return the id of the chunked document} */
+    String documentId();
+
+    /** {@return whether the document was chunked successfully} */
+    default boolean isSuccess() {
+        return this instanceof Success;
+    }
+
+    /**
+     * The document was chunked successfully.
+     *
+     * @param documentId the id of the chunked document
+     * @param chunks the chunks of the document
+     */
+    record Success(String documentId, List<Chunk> chunks) implements ChunkingResult {}
+
+    /**
+     * The chunker failed on the document.
+     *
+     * @param documentId the id of the document
+     * @param error the error thrown by the chunker, an exception or a failed assertion on the
+     *     content
+     */
+    record Failure(String documentId, Throwable error) implements ChunkingResult {}
+}
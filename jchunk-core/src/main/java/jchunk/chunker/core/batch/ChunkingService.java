@@ -0,0 +1,180 @@
+package jchunk.chunker.core.batch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import jchunk.chunker.core.chunk.IChunker;
+
+/**
+ * {@link ChunkingService} splits batches of {@link Document documents} in parallel with any
+ * {@link IChunker}.
+ *
+ * <p>Documents are submitted to the executor as long as there are less than {@code maxInFlight}
+ * documents of the batch being chunked, otherwise the caller waits for one of them to finish, so
+ * big batches do not flood the executor queue. A document failing does not affect the rest of the
+ * batch, its error is reported as a {@link ChunkingResult.Failure}.
+ *
+ * <p>The chunker is shared by all the workers, so it must be thread safe (the chunkers of this
+ * library are).
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public class ChunkingService implements AutoCloseable {
+
+    private final IChunker chunker;
+
+    private final ExecutorService executor;
+
+    private final boolean ownsExecutor;
+
+    private final int maxInFlight;
+
+    private ChunkingService(IChunker chunker, ExecutorService executor, boolean ownsExecutor, int maxInFlight) {
+        this.chunker = chunker;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Splits all the documents, blocking until every one of them is chunked.
+     *
+     * @param documents the documents to split, their ids must be unique
+     * @return the result of every document keyed by the document id, in the same order as the
+     *     documents
+     * @throws CancellationException if the calling thread is interrupted while waiting, the pending
+     *     documents are cancelled
+     */
+    public Map<String, ChunkingResult> splitAll(Collection<Document> documents) {
+        assert haveUniqueIds(documents) : "The document ids must be unique";
+
+        var inFlight = new Semaphore(maxInFlight);
+        List<Future<ChunkingResult>> futures = new ArrayList<>(documents.size());
+
+        try {
+            for (Document document : documents) {
+                inFlight.acquire();
+                try {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            return split(document);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    inFlight.release();
+                    futures.forEach(future -> future.cancel(true));
+                    throw e;
+                }
+            }
+
+            Map<String, ChunkingResult> results = LinkedHashMap.newLinkedHashMap(documents.size());
+            for (Future<ChunkingResult> future : futures) {
+                ChunkingResult result = future.get();
+                results.put(result.documentId(), result);
+            }
+            return results;
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while chunking the documents");
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Chunking worker failed", e.getCause());
+        }
+    }
+
+    /**
+     * Splits a single document, isolating its errors. The chunkers validate the content with
+     * assertions, so a failed assertion is isolated as well.
+     *
+     * @param document the document to split
+     * @return the result of the document
+     */
+    private ChunkingResult split(Document document) {
+        try {
+            return new ChunkingResult.Success(document.id(), chunker.split(document.content()));
+        } catch (Exception | AssertionError e) {
+            return new ChunkingResult.Failure(document.id(), e);
+        }
+    }
+
+    private static boolean haveUniqueIds(Collection<Document> documents) {
+        var ids = new HashSet<String>();
+        return documents.stream().allMatch(document -> ids.add(document.id()));
+    }
+
+    /** Shuts down the executor if it was created by the service, a provided executor is left running. */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.close();
+        }
+    }
+
+    public static Builder builder(IChunker chunker) {
+        return new Builder(chunker);
+    }
+
+    public static class Builder {
+
+        private final IChunker chunker;
+
+        private ExecutorService executor;
+
+        private boolean virtualThreads = false;
+
+        private int maxInFlight = Runtime.getRuntime().availableProcessors() * 2;
+
+        private Builder(IChunker chunker) {
+            this.chunker = chunker;
+        }
+
+        /**
+         * Uses the given executor, which is not shut down when the service is closed. By default
+         * the service creates a fixed pool with one thread per available processor.
+         */
+        public Builder executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /** Runs every document on its own virtual thread instead of a platform thread pool. */
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /** Sets the maximum number of documents of a batch being chunked at the same time. */
+        public Builder maxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        public ChunkingService build() {
+            assert chunker != null : "The chunker cannot be null";
+            assert maxInFlight > 0 : "Max in flight must be greater than 0";
+            assert executor == null || !virtualThreads : "Virtual threads cannot be used with a provided executor";
+
+            if (executor != null) {
+                return new ChunkingService(chunker, executor, false, maxInFlight);
+            }
+
+            ExecutorService ownExecutor = virtualThreads
+                    ? Executors.newVirtualThreadPerTaskExecutor()
+                    : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+            return new ChunkingService(chunker, ownExecutor, true, maxInFlight);
+        }
+    }
+}
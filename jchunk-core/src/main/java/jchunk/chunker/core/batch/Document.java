@@ -0,0 +1,42 @@
+package jchunk.chunker.core.batch;
+
+/**
+ * The Document record represents a content to be chunked together with the identifier used to key
+ * its result in a batch.
+ *
+ * @param id the unique identifier for the document
+ * @param content the content of the document
+ * @author Pablo Sanchidrian Herrera
+ */
+public record Document(String id, String content) {
+
+    public Document {
+        assert id != null : "The document id cannot be null";
+        assert content != null : "The document content cannot be null";
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private String id;
+
+        private String content;
+
+        public Builder id(String id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder content(String content) {
+            this.content = content;
+            return this;
+        }
+
+        public Document build() {
+            return new Document(id, content);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package jchunk.chunker.core.chunk;
 
+import java.util.Objects;
+
 /**
  * The Chunk record represents a segment of content with an associated identifier and embedding.
  * This record is used to store information about each chunk generated by the IChunker
@@ -7,9 +9,27 @@ package jchunk.chunker.core.chunk;
  *
  * @param id the unique identifier for the chunk
  * @param content the actual content of the chunk
+ * @param metadata the metadata of the chunk, {@link ChunkMetadata#NONE} if it is unknown
  * @author Pablo Sanchidrian Herrera
  */
-public record Chunk(int id, String content) {
+public record Chunk(int id, String content, ChunkMetadata metadata) {
+
+    public Chunk {
+        metadata = Objects.requireNonNullElse(metadata, ChunkMetadata.NONE);
+    }
+
+    public Chunk(int id, String content) {
+        this(id, content, ChunkMetadata.NONE);
+    }
+
+    /**
+     * @param id the new id
+     * @param offset the number of characters to move the offsets forward
+     * @return the same chunk with another id and its offsets moved forward
+     */
+    public Chunk renumber(int id, int offset) {
+        return new Chunk(id, content, metadata.shift(offset));
+    }
 
     public static Builder builder() {
         return new Builder();
@@ -21,6 +41,8 @@ public record Chunk(int id, String content) {
 
         private String content;
 
+        private ChunkMetadata metadata = ChunkMetadata.NONE;
+
         public Builder id(int id) {
             this.id = id;
             return this;
@@ -31,8 +53,13 @@ public record Chunk(int id, String content) {
             return this;
         }
 
+        public Builder metadata(ChunkMetadata metadata) {
+            this.metadata = metadata;
+            return this;
+        }
+
         public Chunk build() {
-            return new Chunk(id, content);
+            return new Chunk(id, content, metadata);
         }
     }
 }
@@ -0,0 +1,45 @@
+package jchunk.chunker.core.chunk;
+
+/**
+ * The ChunkMetadata record describes where a {@link Chunk} comes from, as found by the chunker
+ * while generating it. It only holds primitives, so it costs a single small object per chunk, and
+ * the chunks without metadata share {@link #NONE}.
+ *
+ * @param start the offset of the first character of the chunk in the source (inclusive), -1 if
+ *     unknown
+ * @param end the offset of the last character of the chunk in the source (exclusive), -1 if
+ *     unknown
+ * @param length the length of the chunk as measured by the chunker, in the unit of its length
+ *     function (characters by default, tokens with a tokenizer), -1 if unknown. The length in
+ *     characters is the one of {@link Chunk#content()}
+ * @param level the position, in the configured delimiters, of the delimiter the chunk was split
+ *     by, -1 if the chunker has no delimiter levels
+ * @param overlap the number of characters of the start of the chunk shared with the previous
+ *     chunk, so the overlap is the {@code [start, start + overlap)} region of the source
+ * @param breakSimilarity the similarity between the chunk and the previous one at the break point
+ *     that separated them, {@link Float#NaN} if there is none
+ * @author Pablo Sanchidrian Herrera
+ */
+public record ChunkMetadata(int start, int end, int length, int level, int overlap, float breakSimilarity) {
+
+    /** The metadata of the chunks not described by their chunker. */
+    public static final ChunkMetadata NONE = new ChunkMetadata(-1, -1, -1, -1, 0, Float.NaN);
+
+    /** {@return whether the offsets of the chunk in the source are known} */
+    public boolean hasOffsets() {
+        return start >= 0;
+    }
+
+    /**
+     * Moves the offsets forward, e.g. from a window of the source to the whole source.
+     *
+     * @param delta the number of characters to move the offsets
+     * @return the shifted metadata
+     */
+    public ChunkMetadata shift(int delta) {
+        if (!hasOffsets() || delta == 0) {
+            return this;
+        }
+        return new ChunkMetadata(start + delta, end + delta, length, level, overlap, breakSimilarity);
+    }
+}
@@ -0,0 +1,74 @@
+package jchunk.chunker.core.chunk;
+
+import java.util.Objects;
+
+/**
+ * The ChunkSpan record represents a chunk as a view over its source content, delimited by the
+ * {@code [start, end)} character offsets. No text is copied until the span is materialized with
+ * {@link #toString()}, and the offsets can be used to locate the chunk in the source (e.g. for
+ * highlighting).
+ *
+ * <p>The span covers the region of the source the chunk was built from, so runs of delimiters that
+ * a chunker collapses when generating {@link Chunk#content()} are kept here as they are in the
+ * source.
+ *
+ * @param id the unique identifier for the chunk
+ * @param source the content the chunk was extracted from
+ * @param start the offset of the first character of the chunk (inclusive)
+ * @param end the offset of the last character of the chunk (exclusive)
+ * @author Pablo Sanchidrian Herrera
+ */
+public record ChunkSpan(int id, CharSequence source, int start, int end) implements CharSequence {
+
+    public ChunkSpan {
+        assert source != null : "The source cannot be null";
+        assert start >= 0 && start <= end && end <= source.length() : "The span must be within the source bounds";
+    }
+
+    /**
+     * Creates a span skipping the leading and trailing whitespace (as {@link String#trim()} does) of
+     * the given region.
+     *
+     * @param id the unique identifier for the chunk
+     * @param source the content the chunk was extracted from
+     * @param start the offset of the first character of the region (inclusive)
+     * @param end the offset of the last character of the region (exclusive)
+     * @return the trimmed span
+     */
+    public static ChunkSpan trimmed(int id, CharSequence source, int start, int end) {
+        while (start < end && source.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && source.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return new ChunkSpan(id, source, start, end);
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return source.charAt(start + Objects.checkIndex(index, length()));
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        Objects.checkFromToIndex(from, to, length());
+        return source.subSequence(start + from, start + to);
+    }
+
+    /** {@return the materialized content of the span} */
+    @Override
+    public String toString() {
+        return source.subSequence(start, end).toString();
+    }
+
+    /** {@return the span materialized as a {@link Chunk}, with its offsets in the source} */
+    public Chunk toChunk() {
+        return new Chunk(id, toString(), new ChunkMetadata(start, end, -1, -1, 0, Float.NaN));
+    }
+}
@@ -1,6 +1,11 @@
 package jchunk.chunker.core.chunk;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * The IChunker interface defines the contract that all chunker implementations must follow.
@@ -18,4 +23,41 @@ public interface IChunker {
      * @return a list of Chunk {@link Chunk} objects representing the split content
      */
     List<Chunk> split(String content);
+
+    /**
+     * Splits the content read from the provided reader into a lazy stream of Chunk objects.
+     *
+     * <p>The default implementation reads the whole content before splitting it, implementations
+     * able to work on bounded windows of text override it so that chunks are produced while the
+     * reader is still being consumed.
+     *
+     * @param reader the source of the content to be split, it is not closed by this method
+     * @return a sequential stream of {@link Chunk} objects representing the split content
+     * @throws UncheckedIOException if the reader fails while the stream is consumed
+     */
+    default Stream<Chunk> stream(Reader reader) {
+        return Stream.of(reader).map(IChunker::readFully).flatMap(content -> split(content).stream());
+    }
+
+    /**
+     * Whether the chunker decides where to cut from the neighbouring text only, so that a region of
+     * the content starting and ending at chunk boundaries is split into the same chunks as in the
+     * whole content (see {@link jchunk.chunker.core.incremental.IncrementalChunker}).
+     *
+     * @return {@code true} by default, {@code false} for the chunkers whose cuts depend on the whole
+     *     content
+     */
+    default boolean hasLocalCuts() {
+        return true;
+    }
+
+    private static String readFully(Reader reader) {
+        try {
+            var writer = new StringWriter();
+            reader.transferTo(writer);
+            return writer.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read content", e);
+        }
+    }
 }
@@ -0,0 +1,33 @@
+package jchunk.chunker.core.chunk;
+
+import java.util.List;
+
+/**
+ * The ISpanChunker interface is implemented by the chunkers able to describe their chunks as
+ * offsets over the source content instead of copies of it.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public interface ISpanChunker extends IChunker {
+
+    /**
+     * Splits the provided content string into a list of ChunkSpan objects referencing it.
+     *
+     * @param content the content string to be split into chunks
+     * @return a list of {@link ChunkSpan} objects, in the same order as {@link #split(String)}
+     */
+    List<ChunkSpan> splitSpans(String content);
+
+    /**
+     * Finds the last position of the text where it can be cut, so that a long content can be split
+     * in windows (see {@link jchunk.chunker.core.file.FileChunker}) without breaking its units.
+     *
+     * <p>The default implementation knows no boundary, so windows are cut at their full size.
+     *
+     * @param text the text to look into
+     * @return the cut position, or -1 if there is none
+     */
+    default int lastBoundary(String text) {
+        return -1;
+    }
+}
@@ -0,0 +1,78 @@
+package jchunk.chunker.core.dedup;
+
+import java.util.List;
+import java.util.stream.Stream;
+import jchunk.chunker.core.chunk.Chunk;
+
+/**
+ * {@link ChunkDeduplicator} finds the chunks whose content was already seen, exactly or nearly,
+ * so they can be dropped (or flagged) before they are embedded and stored.
+ *
+ * <p>Every chunk is {@link Fingerprint fingerprinted} and looked up in a {@link FingerprintIndex},
+ * which remembers it if it is new. The first chunk of a content is then unique, and every following
+ * one a duplicate, whatever the document it comes from: the same deduplicator (or index) is meant
+ * to be used for the whole corpus. The streams are processed lazily, in order.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public class ChunkDeduplicator {
+
+    private final FingerprintIndex index;
+
+    private final int shingleSize;
+
+    public ChunkDeduplicator() {
+        this(new FingerprintIndex(), Fingerprint.DEFAULT_SHINGLE_SIZE);
+    }
+
+    /**
+     * @param index the index of the fingerprints seen, e.g. loaded from a previous run
+     * @param shingleSize the number of words of the shingles of the SimHash
+     */
+    public ChunkDeduplicator(FingerprintIndex index, int shingleSize) {
+        assert index != null : "The index cannot be null";
+        assert shingleSize > 0 : "The shingle size must be greater than 0";
+
+        this.index = index;
+        this.shingleSize = shingleSize;
+    }
+
+    /**
+     * Checks whether the chunk was already seen, remembering it if not.
+     *
+     * @param chunk the chunk
+     * @return whether the chunk is a duplicate
+     */
+    public Duplicate check(Chunk chunk) {
+        return index.add(Fingerprint.of(chunk.content(), shingleSize));
+    }
+
+    /**
+     * @param chunks the chunks
+     * @return the chunks that were not seen before, keeping their ids
+     */
+    public List<Chunk> dropDuplicates(List<Chunk> chunks) {
+        return dropDuplicates(chunks.stream()).toList();
+    }
+
+    /**
+     * @param chunks the chunks
+     * @return a lazy stream of the chunks that were not seen before, keeping their ids
+     */
+    public Stream<Chunk> dropDuplicates(Stream<Chunk> chunks) {
+        return chunks.filter(chunk -> check(chunk) == Duplicate.UNIQUE);
+    }
+
+    /**
+     * @param chunks the chunks
+     * @return a lazy stream of all the chunks, flagged with whether they were seen before
+     */
+    public Stream<FlaggedChunk> flagDuplicates(Stream<Chunk> chunks) {
+        return chunks.map(chunk -> new FlaggedChunk(chunk, check(chunk)));
+    }
+
+    /** {@return the index of the fingerprints seen} */
+    public FingerprintIndex index() {
+        return index;
+    }
+}
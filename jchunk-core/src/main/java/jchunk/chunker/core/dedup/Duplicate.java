@@ -0,0 +1,18 @@
+package jchunk.chunker.core.dedup;
+
+/**
+ * Enum to represent whether a chunk was already seen by the {@link FingerprintIndex}
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public enum Duplicate {
+
+    /** Neither the content nor a similar one was seen */
+    UNIQUE,
+
+    /** The very same content was seen */
+    EXACT,
+
+    /** A content differing in a few word shingles was seen */
+    NEAR
+}
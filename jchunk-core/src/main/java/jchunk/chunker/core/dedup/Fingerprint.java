@@ -0,0 +1,170 @@
+package jchunk.chunker.core.dedup;
+
+/**
+ * The Fingerprint record represents the content of a chunk in the {@link FingerprintIndex}: a hash
+ * of the exact content, to find its copies, and a SimHash of its word shingles, to find the contents
+ * that only differ in a few words.
+ *
+ * <p>The exact hash is the XXH64 (seed 0) of the UTF-16LE encoding of the content. The SimHash is
+ * made of the lowercase shingles of {@code shingleSize} consecutive words (runs of letters and
+ * digits), so it ignores the case, the punctuation and the whitespace; two contents are near
+ * duplicates when their SimHashes differ in a few bits only.
+ *
+ * @param hash the hash of the exact content
+ * @param simHash the SimHash of the word shingles, 0 if there are none
+ * @param shingles the number of word shingles of the content
+ * @author Pablo Sanchidrian Herrera
+ */
+public record Fingerprint(long hash, long simHash, int shingles) {
+
+    /** The number of words of a shingle by default. */
+    public static final int DEFAULT_SHINGLE_SIZE = 3;
+
+    private static final long PRIME_1 = 0x9E37_79B1_85EB_CA87L;
+
+    private static final long PRIME_2 = 0xC2B2_AE3D_27D4_EB4FL;
+
+    private static final long PRIME_3 = 0x1656_67B1_9E37_79F9L;
+
+    private static final long PRIME_4 = 0x85EB_CA77_C2B2_AE63L;
+
+    private static final long PRIME_5 = 0x27D4_EB2F_1656_67C5L;
+
+    /**
+     * @param content the content to fingerprint
+     * @return the fingerprint of the content, with shingles of {@link #DEFAULT_SHINGLE_SIZE} words
+     */
+    public static Fingerprint of(CharSequence content) {
+        return of(content, DEFAULT_SHINGLE_SIZE);
+    }
+
+    /**
+     * @param content the content to fingerprint
+     * @param shingleSize the number of words of a shingle
+     * @return the fingerprint of the content
+     */
+    public static Fingerprint of(CharSequence content, int shingleSize) {
+        assert shingleSize > 0 : "The shingle size must be greater than 0";
+
+        var words = new long[shingleSize];
+        var counts = new int[Long.SIZE];
+        var count = 0;
+        var shingles = 0;
+
+        var word = PRIME_5;
+        var inWord = false;
+        for (int i = 0; i <= content.length(); i++) {
+            var c = i < content.length() ? content.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word = (word ^ Character.toLowerCase(c)) * PRIME_1;
+                inWord = true;
+                continue;
+            }
+            if (!inWord) {
+                continue;
+            }
+
+            words[count++ % shingleSize] = avalanche(word);
+            if (count >= shingleSize) {
+                var shingle = PRIME_5;
+                for (int j = count - shingleSize; j < count; j++) {
+                    shingle = Long.rotateLeft(shingle ^ words[j % shingleSize] * PRIME_2, 27) * PRIME_1 + PRIME_4;
+                }
+                shingle = avalanche(shingle);
+                for (int bit = 0; bit < Long.SIZE; bit++) {
+                    counts[bit] += (shingle >>> bit & 1) == 0 ? -1 : 1;
+                }
+                shingles++;
+            }
+            word = PRIME_5;
+            inWord = false;
+        }
+
+        var simHash = 0L;
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            if (counts[bit] > 0) {
+                simHash |= 1L << bit;
+            }
+        }
+        return new Fingerprint(xxh64(content), simHash, shingles);
+    }
+
+    /**
+     * Computes the XXH64 hash, with seed 0, of the UTF-16LE encoding of the text without encoding
+     * it: every four characters are read as one 64-bit lane.
+     *
+     * @param text the text to hash
+     * @return the hash of the text
+     */
+    static long xxh64(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        long hash;
+
+        if (length >= 16) {
+            long v1 = PRIME_1 + PRIME_2;
+            long v2 = PRIME_2;
+            long v3 = 0;
+            long v4 = -PRIME_1;
+            do {
+                v1 = round(v1, lane(text, i));
+                v2 = round(v2, lane(text, i + 4));
+                v3 = round(v3, lane(text, i + 8));
+                v4 = round(v4, lane(text, i + 12));
+                i += 16;
+            } while (i <= length - 16);
+
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = merge(hash, v1);
+            hash = merge(hash, v2);
+            hash = merge(hash, v3);
+            hash = merge(hash, v4);
+        } else {
+            hash = PRIME_5;
+        }
+
+        hash += 2L * length;
+
+        for (; i + 4 <= length; i += 4) {
+            hash ^= round(0, lane(text, i));
+            hash = Long.rotateLeft(hash, 27) * PRIME_1 + PRIME_4;
+        }
+        if (i + 2 <= length) {
+            hash ^= (text.charAt(i) | (long) text.charAt(i + 1) << 16) * PRIME_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME_2 + PRIME_3;
+            i += 2;
+        }
+        if (i < length) {
+            char c = text.charAt(i);
+            hash ^= (c & 0xFF) * PRIME_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME_1;
+            hash ^= (c >>> 8) * PRIME_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME_1;
+        }
+
+        return avalanche(hash);
+    }
+
+    private static long lane(CharSequence text, int i) {
+        return text.charAt(i)
+                | (long) text.charAt(i + 1) << 16
+                | (long) text.charAt(i + 2) << 32
+                | (long) text.charAt(i + 3) << 48;
+    }
+
+    private static long round(long accumulator, long input) {
+        return Long.rotateLeft(accumulator + input * PRIME_2, 31) * PRIME_1;
+    }
+
+    private static long merge(long hash, long accumulator) {
+        return (hash ^ round(0, accumulator)) * PRIME_1 + PRIME_4;
+    }
+
+    private static long avalanche(long hash) {
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME_3;
+        return hash ^ hash >>> 32;
+    }
+}
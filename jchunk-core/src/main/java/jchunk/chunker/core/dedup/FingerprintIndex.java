@@ -0,0 +1,352 @@
+package jchunk.chunker.core.dedup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Index of the {@link Fingerprint fingerprints} of the chunks seen so far, telling whether a new
+ * chunk is a {@link Duplicate duplicate} of one of them.
+ *
+ * <p>The index is kept in primitive arrays, without any object per content:
+ *
+ * <ul>
+ *   <li>The exact hashes are kept in an open addressing hash set.
+ *   <li>The SimHashes are split in {@code maxDistance + 1} bands of bits, and every band value is
+ *       indexed in its own hash table. Two SimHashes differing in at most {@code maxDistance} bits
+ *       have at least one band in common, so only the SimHashes sharing a band with the new one are
+ *       compared.
+ * </ul>
+ *
+ * <p>The near duplicates are only looked for among the contents of at least {@link #MIN_SHINGLES}
+ * word shingles, as the SimHash of a few words is not significant. The index can be saved to a file
+ * and loaded back, and its methods are synchronized so it can be shared by several threads.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public class FingerprintIndex {
+
+    /** The number of shingles a content needs to be compared with similar ones. */
+    public static final int MIN_SHINGLES = 8;
+
+    /** The number of different bits of two near duplicates by default. */
+    public static final int DEFAULT_MAX_DISTANCE = 3;
+
+    private static final int MAGIC = 0x4A434650;
+
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES * 2;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int maxDistance;
+
+    private final LongSet hashes = new LongSet();
+
+    private final BandTable[] bands;
+
+    private long[] simHashes = new long[INITIAL_CAPACITY];
+
+    private int simHashCount = 0;
+
+    public FingerprintIndex() {
+        this(DEFAULT_MAX_DISTANCE);
+    }
+
+    /**
+     * @param maxDistance the maximum number of different bits of the SimHashes of two near
+     *     duplicates, 0 only flags the contents with the same words
+     */
+    public FingerprintIndex(int maxDistance) {
+        assert maxDistance >= 0 && maxDistance < 8 : "The max distance must be between 0 and 7";
+
+        this.maxDistance = maxDistance;
+        this.bands = new BandTable[maxDistance + 1];
+        for (int b = 0; b < bands.length; b++) {
+            int from = b * Long.SIZE / bands.length;
+            int to = (b + 1) * Long.SIZE / bands.length;
+            bands[b] = new BandTable(from, to - from);
+        }
+    }
+
+    /**
+     * Looks the fingerprint up, adding it to the index if it was not seen.
+     *
+     * @param fingerprint the fingerprint of a content
+     * @return whether the content, or a similar one, was already seen
+     */
+    public synchronized Duplicate add(Fingerprint fingerprint) {
+        if (!hashes.add(fingerprint.hash())) {
+            return Duplicate.EXACT;
+        }
+        if (fingerprint.shingles() < MIN_SHINGLES) {
+            return Duplicate.UNIQUE;
+        }
+        if (hasNear(fingerprint.simHash())) {
+            return Duplicate.NEAR;
+        }
+
+        addSimHash(fingerprint.simHash());
+        return Duplicate.UNIQUE;
+    }
+
+    /** {@return the number of different contents seen} */
+    public synchronized int size() {
+        return hashes.size();
+    }
+
+    /** {@return the maximum number of different bits of the SimHashes of two near duplicates} */
+    public int maxDistance() {
+        return maxDistance;
+    }
+
+    private boolean hasNear(long simHash) {
+        for (BandTable band : bands) {
+            for (int entry = band.first(simHash); entry >= 0; entry = band.next(entry)) {
+                if (Long.bitCount(simHashes[entry] ^ simHash) <= maxDistance) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void addSimHash(long simHash) {
+        if (simHashCount == simHashes.length) {
+            simHashes = Arrays.copyOf(simHashes, simHashCount * 2);
+        }
+        int entry = simHashCount++;
+        simHashes[entry] = simHash;
+        for (BandTable band : bands) {
+            band.add(simHash, entry);
+        }
+    }
+
+    /**
+     * Saves the index to a file, as its hashes followed by its SimHashes.
+     *
+     * @param path the file to write, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void save(Path path) throws IOException {
+        var hashValues = hashes.toArray();
+        var size = HEADER_SIZE + (long) Long.BYTES * (hashValues.length + simHashCount);
+
+        try (var channel = FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            var buffer = ByteBuffer.allocate((int) Math.min(size, 1 << 16)).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(maxDistance).putLong(hashValues.length).putLong(simHashCount);
+            for (long hash : hashValues) {
+                write(channel, buffer, hash);
+            }
+            for (int i = 0; i < simHashCount; i++) {
+                write(channel, buffer, simHashes[i]);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer, long value) throws IOException {
+        if (buffer.remaining() < Long.BYTES) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+        buffer.putLong(value);
+    }
+
+    /**
+     * Loads an index saved with {@link #save(Path)}, reading the file from a memory-mapped view.
+     *
+     * @param path the file to read
+     * @return the index
+     * @throws IOException if the file cannot be read or is not an index
+     */
+    public static FingerprintIndex load(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a fingerprint index: " + path);
+            }
+
+            var index = new FingerprintIndex(buffer.getInt());
+            var hashCount = buffer.getLong();
+            var simHashCount = buffer.getLong();
+            if (buffer.remaining() != (hashCount + simHashCount) * Long.BYTES) {
+                throw new IOException("Truncated fingerprint index: " + path);
+            }
+
+            for (long i = 0; i < hashCount; i++) {
+                index.hashes.add(buffer.getLong());
+            }
+            for (long i = 0; i < simHashCount; i++) {
+                index.addSimHash(buffer.getLong());
+            }
+            return index;
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E37_79B9_7F4A_7C15L;
+        return (int) (h ^ h >>> 32);
+    }
+
+    /** Open addressing hash set of longs, 0 being kept aside as the marker of the empty slots. */
+    private static final class LongSet {
+
+        private long[] table = new long[INITIAL_CAPACITY];
+
+        private boolean hasZero = false;
+
+        private int size = 0;
+
+        boolean add(long value) {
+            if (value == 0) {
+                if (hasZero) {
+                    return false;
+                }
+                hasZero = true;
+                size++;
+                return true;
+            }
+
+            if (2 * (size + 1) > table.length) {
+                grow();
+            }
+            int mask = table.length - 1;
+            for (int slot = mix(value) & mask; ; slot = slot + 1 & mask) {
+                if (table[slot] == value) {
+                    return false;
+                }
+                if (table[slot] == 0) {
+                    table[slot] = value;
+                    size++;
+                    return true;
+                }
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] toArray() {
+            var values = new long[size];
+            var i = 0;
+            if (hasZero) {
+                values[i++] = 0;
+            }
+            for (long value : table) {
+                if (value != 0) {
+                    values[i++] = value;
+                }
+            }
+            return values;
+        }
+
+        private void grow() {
+            var old = table;
+            table = new long[old.length * 2];
+            int mask = table.length - 1;
+            for (long value : old) {
+                if (value != 0) {
+                    int slot = mix(value) & mask;
+                    while (table[slot] != 0) {
+                        slot = slot + 1 & mask;
+                    }
+                    table[slot] = value;
+                }
+            }
+        }
+    }
+
+    /**
+     * Hash table of the values of one band of bits of the SimHashes: every band value points to the
+     * last entry having it, and every entry to the previous entry with the same band value.
+     */
+    private static final class BandTable {
+
+        private final int shift;
+
+        private final long mask;
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+
+        private int[] heads = new int[INITIAL_CAPACITY];
+
+        private int[] chain = new int[INITIAL_CAPACITY];
+
+        private int size = 0;
+
+        BandTable(int shift, int width) {
+            this.shift = shift;
+            this.mask = width == Long.SIZE ? -1L : (1L << width) - 1;
+        }
+
+        /** {@return the last entry sharing the band of the SimHash, -1 if none} */
+        int first(long simHash) {
+            long key = simHash >>> shift & mask;
+            int slotMask = keys.length - 1;
+            for (int slot = mix(key) & slotMask; heads[slot] != 0; slot = slot + 1 & slotMask) {
+                if (keys[slot] == key) {
+                    return heads[slot] - 1;
+                }
+            }
+            return -1;
+        }
+
+        /** {@return the previous entry sharing the band of the entry, -1 if none} */
+        int next(int entry) {
+            return chain[entry];
+        }
+
+        void add(long simHash, int entry) {
+            if (entry >= chain.length) {
+                chain = Arrays.copyOf(chain, Math.max(entry + 1, chain.length * 2));
+            }
+            if (2 * (size + 1) > keys.length) {
+                grow();
+            }
+
+            long key = simHash >>> shift & mask;
+            int slotMask = keys.length - 1;
+            int slot = mix(key) & slotMask;
+            while (heads[slot] != 0 && keys[slot] != key) {
+                slot = slot + 1 & slotMask;
+            }
+            if (heads[slot] == 0) {
+                keys[slot] = key;
+                size++;
+            }
+            chain[entry] = heads[slot] - 1;
+            heads[slot] = entry + 1;
+        }
+
+        private void grow() {
+            var oldKeys = keys;
+            var oldHeads = heads;
+            keys = new long[oldKeys.length * 2];
+            heads = new int[oldHeads.length * 2];
+            int slotMask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldHeads[i] != 0) {
+                    int slot = mix(oldKeys[i]) & slotMask;
+                    while (heads[slot] != 0) {
+                        slot = slot + 1 & slotMask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    heads[slot] = oldHeads[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package jchunk.chunker.core.dedup;
+
+import jchunk.chunker.core.chunk.Chunk;
+
+/**
+ * The FlaggedChunk record represents a chunk together with whether it duplicates a chunk seen
+ * before it.
+ *
+ * @param chunk the chunk
+ * @param duplicate whether the chunk is a duplicate
+ * @author Pablo Sanchidrian Herrera
+ */
+public record FlaggedChunk(Chunk chunk, Duplicate duplicate) {
+
+    /** {@return whether the chunk is an exact or near duplicate} */
+    public boolean isDuplicate() {
+        return duplicate != Duplicate.UNIQUE;
+    }
+}
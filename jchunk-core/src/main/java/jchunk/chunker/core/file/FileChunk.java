@@ -0,0 +1,26 @@
+package jchunk.chunker.core.file;
+
+import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.ChunkMetadata;
+
+/**
+ * The FileChunk record represents a chunk of a file, located in the file both by characters (as
+ * decoded from UTF-8) and by bytes.
+ *
+ * @param id the unique identifier for the chunk
+ * @param content the content of the chunk, as returned by the chunker
+ * @param charStart the offset of the first character of the chunk (inclusive), in characters
+ * @param charEnd the offset of the last character of the chunk (exclusive), in characters
+ * @param byteStart the offset of the first character of the chunk (inclusive), in bytes
+ * @param byteEnd the offset of the last character of the chunk (exclusive), in bytes
+ * @param metadata the metadata of the chunk, as returned by the chunker
+ * @author Pablo Sanchidrian Herrera
+ */
+public record FileChunk(
+        int id, String content, long charStart, long charEnd, long byteStart, long byteEnd, ChunkMetadata metadata) {
+
+    /** {@return the chunk without its location in the file} */
+    public Chunk toChunk() {
+        return new Chunk(id, content, metadata);
+    }
+}
@@ -0,0 +1,211 @@
+package jchunk.chunker.core.file;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.ISpanChunker;
+
+/**
+ * {@link FileChunker} splits UTF-8 files with any {@link ISpanChunker}, without reading them into a
+ * {@link String} first.
+ *
+ * <p>The file is decoded from a memory-mapped view in windows of {@code windowSize} characters (see
+ * {@link MappedTextWindows}) and read by the {@link ISpanChunker#stream(java.io.Reader) stream} of
+ * the chunker, which cuts its own windows at its {@link ISpanChunker#lastBoundary(String) last
+ * boundary} and carries its state across them. The chunks are the ones of {@link
+ * ISpanChunker#split(String)}, with their content, overlap and metadata, and they are located in
+ * the file by characters and by bytes from the offsets of their metadata. Only the windows the
+ * chunker has read past the start of the last chunk are kept in memory.
+ *
+ * <p>The offsets of the chunk metadata are {@code int}s, so files up to {@link Integer#MAX_VALUE}
+ * characters are supported.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public class FileChunker {
+
+    private final ISpanChunker chunker;
+
+    private final int windowSize;
+
+    public FileChunker(ISpanChunker chunker) {
+        this(chunker, MappedTextWindows.DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param chunker the chunker splitting the file
+     * @param windowSize the number of characters decoded at once
+     */
+    public FileChunker(ISpanChunker chunker, int windowSize) {
+        assert chunker != null : "The chunker cannot be null";
+        assert windowSize > 1 : "The window size must be greater than 1";
+
+        this.chunker = chunker;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Splits the file into chunks.
+     *
+     * @param path the file to split
+     * @return the list of chunks
+     * @throws IOException if the file cannot be opened
+     * @throws UncheckedIOException if the file cannot be read or is not valid UTF-8
+     * @throws IllegalStateException if the chunker does not report the offsets of its chunks
+     */
+    public List<FileChunk> split(Path path) throws IOException {
+        try (var chunks = stream(path)) {
+            return chunks.toList();
+        }
+    }
+
+    /**
+     * Splits the file into a lazy stream of chunks. The file is kept open until the stream is closed.
+     *
+     * @param path the file to split
+     * @return a sequential stream of chunks, to be closed once consumed
+     * @throws IOException if the file cannot be opened
+     */
+    public Stream<FileChunk> stream(Path path) throws IOException {
+        var windows = MappedTextWindows.open(path, windowSize, text -> -1);
+        var reader = new WindowsReader(windows);
+
+        return chunker.stream(reader).map(reader::locate).onClose(windows::close);
+    }
+
+    /**
+     * Serves the windows of the file to the chunker, keeping the ones its next chunks can still
+     * start in, so that the chunks are located in bytes without decoding the file again.
+     */
+    private static final class WindowsReader extends Reader {
+
+        private final MappedTextWindows windows;
+
+        private final Deque<LocatedWindow> retained = new ArrayDeque<>();
+
+        private LocatedWindow current;
+
+        private int position;
+
+        WindowsReader(MappedTextWindows windows) {
+            this.windows = windows;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            while (current == null || position == current.text().length()) {
+                var window = windows.next();
+                if (window == null) {
+                    return -1;
+                }
+                current = new LocatedWindow(window);
+                retained.addLast(current);
+                position = 0;
+            }
+
+            var read = Math.min(length, current.text().length() - position);
+            current.text().getChars(position, position + read, buffer, offset);
+            position += read;
+            return read;
+        }
+
+        @Override
+        public void close() {
+            windows.close();
+        }
+
+        /**
+         * Locates a chunk in the file. The chunks start in order, so the windows ending before its
+         * start are released.
+         *
+         * @param chunk the chunk to locate
+         * @return the chunk with its location in the file
+         */
+        FileChunk locate(Chunk chunk) {
+            var metadata = chunk.metadata();
+            if (!metadata.hasOffsets()) {
+                throw new IllegalStateException("The chunker does not report the offsets of its chunks");
+            }
+
+            while (retained.size() > 1 && retained.getFirst().end() <= metadata.start()) {
+                retained.removeFirst();
+            }
+
+            return new FileChunk(
+                    chunk.id(),
+                    chunk.content(),
+                    metadata.start(),
+                    metadata.end(),
+                    bytes(metadata.start()),
+                    bytes(metadata.end()),
+                    metadata);
+        }
+
+        private long bytes(long position) {
+            for (var window : retained) {
+                if (position <= window.end()) {
+                    return window.bytes(position);
+                }
+            }
+            throw new IllegalStateException("The chunk ends past the content read by the chunker");
+        }
+    }
+
+    /** A window of the file with a cursor counting the bytes of its characters. */
+    private static final class LocatedWindow {
+
+        private final MappedTextWindows.TextWindow window;
+
+        private final ByteCursor cursor;
+
+        LocatedWindow(MappedTextWindows.TextWindow window) {
+            this.window = window;
+            this.cursor = new ByteCursor(window.text());
+        }
+
+        String text() {
+            return window.text();
+        }
+
+        long end() {
+            return window.charOffset() + window.text().length();
+        }
+
+        long bytes(long position) {
+            return window.byteOffset() + cursor.moveTo((int) (position - window.charOffset()));
+        }
+    }
+
+    /** Byte offset of a character offset of a text, moved forwards or backwards from the last one. */
+    private static final class ByteCursor {
+
+        private final String text;
+
+        private int chars = 0;
+
+        private long bytes = 0;
+
+        ByteCursor(String text) {
+            this.text = text;
+        }
+
+        long moveTo(int position) {
+            if (position >= chars) {
+                bytes += Utf8.length(text, chars, position);
+            } else {
+                bytes -= Utf8.length(text, position, chars);
+            }
+            chars = position;
+            return bytes;
+        }
+    }
+}
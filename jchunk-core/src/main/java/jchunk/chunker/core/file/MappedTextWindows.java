@@ -0,0 +1,181 @@
+package jchunk.chunker.core.file;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.ToIntFunction;
+
+/**
+ * Reads a UTF-8 file as a sequence of bounded text windows, decoding it straight from a
+ * memory-mapped view of the file, so its bytes are never copied to the heap.
+ *
+ * <p>The file is mapped in regions of at most {@code 2 GiB}, one at a time, and decoded lazily:
+ * once {@code windowSize} characters are decoded, the window is cut at the position returned by the
+ * boundary finder and the remaining characters are carried over to the next window, as {@link
+ * jchunk.chunker.core.stream.TextWindowReader} does. Every window knows its character and byte
+ * offset in the file.
+ *
+ * <p>Malformed UTF-8 is reported as an {@link UncheckedIOException}, so that the byte offsets
+ * always match the decoded text. The mapped regions are released by the garbage collector once
+ * they are no longer referenced, closing the windows only closes the file channel.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public final class MappedTextWindows implements AutoCloseable {
+
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 20;
+
+    private static final long MAX_REGION_SIZE = Integer.MAX_VALUE;
+
+    private final FileChannel channel;
+
+    private final long size;
+
+    private final long regionSize;
+
+    private final ToIntFunction<String> boundaryFinder;
+
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8
+            .newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+
+    private final CharBuffer chars;
+
+    private MappedByteBuffer region;
+
+    private long regionStart = 0;
+
+    private long charOffset = 0;
+
+    private long byteOffset = 0;
+
+    private boolean eof;
+
+    MappedTextWindows(FileChannel channel, int windowSize, long regionSize, ToIntFunction<String> boundaryFinder)
+            throws IOException {
+        assert windowSize > 1 : "The window size must be greater than 1";
+        assert regionSize > 3 && regionSize <= MAX_REGION_SIZE : "The region size must be between 4 and 2 GiB";
+
+        this.channel = channel;
+        this.size = channel.size();
+        this.regionSize = regionSize;
+        this.boundaryFinder = boundaryFinder;
+        this.chars = CharBuffer.allocate(windowSize);
+    }
+
+    /**
+     * Opens the file, its regions are mapped as they are decoded.
+     *
+     * @param path the file to read
+     * @param windowSize the number of characters to decode before looking for a boundary
+     * @param boundaryFinder returns the index where the given text can be cut, or a negative value if
+     *     there is none
+     * @return the windows of the file, to be closed once read
+     * @throws IOException if the file cannot be opened
+     */
+    public static MappedTextWindows open(Path path, int windowSize, ToIntFunction<String> boundaryFinder)
+            throws IOException {
+        var channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new MappedTextWindows(channel, windowSize, MAX_REGION_SIZE, boundaryFinder);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Decodes the next window of text.
+     *
+     * @return the next window, or {@code null} once the file is exhausted
+     * @throws UncheckedIOException if the file cannot be read or is not valid UTF-8
+     */
+    public TextWindow next() {
+        fill();
+
+        if (chars.position() == 0) {
+            return null;
+        }
+
+        chars.flip();
+        var text = chars.toString();
+        var cut = text.length();
+        if (!eof) {
+            var boundary = boundaryFinder.applyAsInt(text);
+            if (boundary > 0 && boundary <= text.length()) {
+                cut = boundary;
+            } else if (Character.isHighSurrogate(text.charAt(cut - 1))) {
+                cut--;
+            }
+        }
+
+        chars.position(cut);
+        chars.compact();
+
+        var window = new TextWindow(cut == text.length() ? text : text.substring(0, cut), charOffset, byteOffset);
+        charOffset += cut;
+        byteOffset += Utf8.length(window.text(), 0, cut);
+        return window;
+    }
+
+    private void fill() {
+        try {
+            while (chars.hasRemaining() && !eof) {
+                if (region == null) {
+                    region = channel.map(
+                            FileChannel.MapMode.READ_ONLY, regionStart, Math.min(regionSize, size - regionStart));
+                }
+
+                var last = regionStart + region.limit() == size;
+                CoderResult result = decoder.decode(region, chars, last);
+                if (result.isError()) {
+                    result.throwException();
+                }
+                if (result.isOverflow()) {
+                    return;
+                }
+
+                if (last) {
+                    decoder.flush(chars);
+                    eof = true;
+                } else {
+                    regionStart += region.position();
+                    region = null;
+                }
+            }
+        } catch (CharacterCodingException e) {
+            throw new UncheckedIOException("The content is not valid UTF-8", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read content", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            region = null;
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close the file", e);
+        }
+    }
+
+    /**
+     * A window of decoded text.
+     *
+     * @param text the text of the window
+     * @param charOffset the offset of the first character of the window in the file, in characters
+     * @param byteOffset the offset of the first character of the window in the file, in bytes
+     */
+    public record TextWindow(String text, long charOffset, long byteOffset) {}
+}
@@ -0,0 +1,37 @@
+package jchunk.chunker.core.file;
+
+/**
+ * UTF-8 arithmetic over decoded text.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+final class Utf8 {
+
+    private Utf8() {}
+
+    /**
+     * Counts the bytes of a range of text once encoded in UTF-8. A surrogate pair takes four bytes,
+     * all of them counted on its high surrogate, so the count is additive over adjacent ranges.
+     *
+     * @param text the text
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     * @return the number of bytes of the range
+     */
+    static long length(CharSequence text, int from, int to) {
+        long bytes = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+            } else if (!Character.isLowSurrogate(c)) {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,192 @@
+package jchunk.chunker.core.incremental;
+
+import java.util.ArrayList;
+import java.util.List;
+import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.ChunkMetadata;
+import jchunk.chunker.core.chunk.IChunker;
+
+/**
+ * {@link IncrementalChunker} updates the chunks of a content after an edit, splitting again only the
+ * region around the edit instead of the whole content.
+ *
+ * <p>The region starts at the previous chunk before the edit and ends at the previous chunk after
+ * it, and is split on its own with the chunker. The region is trusted once its first and last chunks
+ * are the same as those previous chunks (same content at the same, shifted, offsets), meaning the
+ * chunker fell back into step with the previous chunks at both ends; otherwise the region is grown
+ * by twice as many chunks on the side that did not match, up to the whole content. The chunks out
+ * of the region are kept as they are, with their offsets shifted by the edit.
+ *
+ * <p>The cost of an edit is then proportional to the region, as long as the chunker decides where
+ * to cut from the neighbouring text only (see {@link IChunker#hasLocalCuts()}), as the fixed and
+ * recursive character chunkers do. A chunker whose cuts depend on the whole content, as the
+ * semantic chunker does through the percentile of all its similarities, would split a region
+ * differently, so the whole edited content is split again and only compared with the previous
+ * chunks. Either way, the chunks are the ones of a whole split of the edited content.
+ *
+ * <p>The previous chunks must carry their offsets, see {@link ChunkMetadata}.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public class IncrementalChunker {
+
+    private final IChunker chunker;
+
+    public IncrementalChunker(IChunker chunker) {
+        assert chunker != null : "The chunker cannot be null";
+        this.chunker = chunker;
+    }
+
+    /**
+     * Updates the chunks of a content after an edit.
+     *
+     * @param previous the chunks of the content before the edit, in the content order
+     * @param content the content after the edit
+     * @param edit the edit, in the offsets of the content before it
+     * @return the chunks of the edited content and the difference with the previous chunks
+     */
+    public RechunkResult rechunk(List<Chunk> previous, String content, TextEdit edit) {
+        assert previous != null : "The previous chunks cannot be null";
+        assert content != null : "The content cannot be null";
+        assert edit != null : "The edit cannot be null";
+        assert previous.stream().allMatch(chunk -> chunk.metadata().hasOffsets())
+                : "The previous chunks must have offsets";
+
+        int n = previous.size();
+        if (!chunker.hasLocalCuts()) {
+            return splice(previous, chunker.split(content), 0, n - 1, edit);
+        }
+
+        int delta = edit.delta();
+        int first = firstEndingFrom(previous, edit.start());
+        int last = lastStartingUntil(previous, edit.end());
+
+        int back = 1;
+        int ahead = 1;
+        while (true) {
+            int from = Math.max(-1, first - back);
+            int to = Math.min(n, last + ahead);
+            int regionStart = from < 0 ? 0 : previous.get(from).metadata().start();
+            int regionEnd =
+                    to >= n ? content.length() : previous.get(to).metadata().end() + delta;
+
+            var region = chunker.split(content.substring(regionStart, regionEnd)).stream()
+                    .map(chunk -> chunk.renumber(chunk.id(), regionStart))
+                    .toList();
+
+            boolean leftMatches = from < 0 || !region.isEmpty() && isSame(region.getFirst(), previous.get(from), 0);
+            boolean rightMatches = to >= n || !region.isEmpty() && isSame(region.getLast(), previous.get(to), delta);
+            if (leftMatches && rightMatches) {
+                return splice(previous, region, Math.max(from, 0), Math.min(to, n - 1), edit);
+            }
+
+            back = leftMatches ? back : back * 2;
+            ahead = rightMatches ? ahead : ahead * 2;
+        }
+    }
+
+    /**
+     * Replaces the previous chunks of the region by the new ones, keeping the previous chunks found
+     * again (the ends of the region at least), and shifts the chunks after the region. The previous
+     * chunks keep their metadata too, as it was measured with the text before the region.
+     *
+     * @param previous the chunks before the edit
+     * @param region the new chunks of the region
+     * @param from the first previous chunk of the region
+     * @param to the last previous chunk of the region
+     * @param edit the edit
+     * @return the chunks of the edited content
+     */
+    private static RechunkResult splice(List<Chunk> previous, List<Chunk> region, int from, int to, TextEdit edit) {
+        int nextId = previous.stream().mapToInt(Chunk::id).max().orElse(-1) + 1;
+
+        var chunks = new ArrayList<Chunk>(previous.size() + region.size());
+        var added = new ArrayList<Chunk>();
+        var removed = new ArrayList<Chunk>();
+
+        chunks.addAll(previous.subList(0, from));
+
+        int old = from;
+        for (var chunk : region) {
+            while (old <= to
+                    && shiftedStart(previous.get(old), edit) < chunk.metadata().start()) {
+                removed.add(previous.get(old++));
+            }
+
+            if (old <= to && isSame(chunk, previous.get(old), edit)) {
+                var kept = previous.get(old++);
+                chunks.add(kept.renumber(
+                        kept.id(), chunk.metadata().start() - kept.metadata().start()));
+            } else {
+                var created = chunk.renumber(nextId++, 0);
+                chunks.add(created);
+                added.add(created);
+            }
+        }
+        while (old <= to) {
+            removed.add(previous.get(old++));
+        }
+
+        for (int i = to + 1; i < previous.size(); i++) {
+            var chunk = previous.get(i);
+            chunks.add(chunk.renumber(chunk.id(), edit.delta()));
+        }
+
+        return new RechunkResult(chunks, added, removed);
+    }
+
+    /**
+     * @return the start of the previous chunk in the edited content, or -1 if the chunk was edited
+     */
+    private static int shiftedStart(Chunk chunk, TextEdit edit) {
+        var metadata = chunk.metadata();
+        if (metadata.end() < edit.start()) {
+            return metadata.start();
+        }
+        if (metadata.start() > edit.end()) {
+            return metadata.start() + edit.delta();
+        }
+        return -1;
+    }
+
+    private static boolean isSame(Chunk chunk, Chunk previous, TextEdit edit) {
+        int start = shiftedStart(previous, edit);
+        return start >= 0 && isSame(chunk, previous, start - previous.metadata().start());
+    }
+
+    private static boolean isSame(Chunk chunk, Chunk previous, int delta) {
+        return chunk.metadata().start() == previous.metadata().start() + delta
+                && chunk.metadata().end() == previous.metadata().end() + delta
+                && chunk.content().equals(previous.content());
+    }
+
+    /** {@return the index of the first chunk ending at or after the offset, the size if none} */
+    private static int firstEndingFrom(List<Chunk> chunks, int offset) {
+        int low = 0;
+        int high = chunks.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (chunks.get(mid).metadata().end() < offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** {@return the index of the last chunk starting at or before the offset, -1 if none} */
+    private static int lastStartingUntil(List<Chunk> chunks, int offset) {
+        int low = 0;
+        int high = chunks.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (chunks.get(mid).metadata().start() <= offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+}
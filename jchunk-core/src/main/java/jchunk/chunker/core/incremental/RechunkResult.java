@@ -0,0 +1,19 @@
+package jchunk.chunker.core.incremental;
+
+import java.util.List;
+import jchunk.chunker.core.chunk.Chunk;
+
+/**
+ * The RechunkResult record represents the chunks of an edited content, as computed by the {@link
+ * IncrementalChunker}, together with the difference with the chunks of the content before the edit.
+ *
+ * <p>The chunks that were not changed by the edit keep their id, only their offsets move, so only
+ * the {@code added} chunks need to be embedded and indexed again, and the {@code removed} ones
+ * deleted from the index.
+ *
+ * @param chunks all the chunks of the edited content, in the content order
+ * @param added the new chunks, with ids not used by the previous chunks
+ * @param removed the previous chunks that are gone
+ * @author Pablo Sanchidrian Herrera
+ */
+public record RechunkResult(List<Chunk> chunks, List<Chunk> added, List<Chunk> removed) {}
@@ -0,0 +1,59 @@
+package jchunk.chunker.core.incremental;
+
+/**
+ * The TextEdit record represents the replacement of a region of a content, the region being given
+ * in the offsets of the content before the edit. An insertion has an empty region and a deletion an
+ * empty replacement.
+ *
+ * @param start the offset of the first replaced character (inclusive)
+ * @param end the offset of the last replaced character (exclusive)
+ * @param replacement the text replacing the region
+ * @author Pablo Sanchidrian Herrera
+ */
+public record TextEdit(int start, int end, String replacement) {
+
+    public TextEdit {
+        assert start >= 0 : "The start of the edit must be greater than or equal to 0";
+        assert end >= start : "The end of the edit must be greater than or equal to its start";
+        assert replacement != null : "The replacement cannot be null";
+    }
+
+    /**
+     * Finds the single edit turning a content into another one, by skipping their common prefix and
+     * suffix.
+     *
+     * @param before the content before the edit
+     * @param after the content after the edit
+     * @return the edit, with an empty region and replacement if both contents are equal
+     */
+    public static TextEdit between(String before, String after) {
+        int limit = Math.min(before.length(), after.length());
+
+        int prefix = 0;
+        while (prefix < limit && before.charAt(prefix) == after.charAt(prefix)) {
+            prefix++;
+        }
+
+        int suffix = 0;
+        while (suffix < limit - prefix
+                && before.charAt(before.length() - 1 - suffix) == after.charAt(after.length() - 1 - suffix)) {
+            suffix++;
+        }
+
+        return new TextEdit(prefix, before.length() - suffix, after.substring(prefix, after.length() - suffix));
+    }
+
+    /** {@return the number of characters the content grows by, negative if it shrinks} */
+    public int delta() {
+        return replacement.length() - (end - start);
+    }
+
+    /**
+     * @param content the content before the edit
+     * @return the content after the edit
+     */
+    public String apply(String content) {
+        assert end <= content.length() : "The edit must be inside the content";
+        return content.substring(0, start) + replacement + content.substring(end);
+    }
+}
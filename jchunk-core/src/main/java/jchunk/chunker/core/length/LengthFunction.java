@@ -0,0 +1,46 @@
+package jchunk.chunker.core.length;
+
+/**
+ * Measures the length of a piece of text, the unit the chunk size and overlap are expressed in (e.g.
+ * characters or model tokens).
+ *
+ * <p>Chunkers measure every split once and add up the lengths of the splits (and of the delimiters
+ * joining them) to size a chunk, so a candidate chunk is never measured as a whole. Implementations
+ * should therefore be close to additive over adjacent pieces of text.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+@FunctionalInterface
+public interface LengthFunction {
+
+    /**
+     * @param text the text the piece belongs to
+     * @param start the start of the piece, inclusive
+     * @param end the end of the piece, exclusive
+     * @return the length of the {@code [start, end)} piece of the text
+     */
+    int length(CharSequence text, int start, int end);
+
+    /**
+     * @param text the text to measure
+     * @return the length of the whole text
+     */
+    default int length(CharSequence text) {
+        return length(text, 0, text.length());
+    }
+
+    /** {@return the length function counting characters (UTF-16 code units)} */
+    static LengthFunction characters() {
+        return Characters.INSTANCE;
+    }
+
+    /** Counts characters, the default length of every chunker. */
+    enum Characters implements LengthFunction {
+        INSTANCE;
+
+        @Override
+        public int length(CharSequence text, int start, int end) {
+            return end - start;
+        }
+    }
+}
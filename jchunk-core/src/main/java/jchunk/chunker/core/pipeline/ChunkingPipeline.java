@@ -0,0 +1,430 @@
+package jchunk.chunker.core.pipeline;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import jchunk.chunker.core.batch.ChunkingResult;
+import jchunk.chunker.core.batch.Document;
+import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.IChunker;
+
+/**
+ * {@link ChunkingPipeline} chunks documents through an explicit sequence of {@link Stage stages},
+ * e.g. sentence segmentation, embedding, break point detection and filtering of the chunks.
+ *
+ * <p>A single content is split by running every stage in the calling thread. A batch of documents
+ * is pipelined instead: every stage has its own workers, running on its own executor, that take the
+ * documents from a bounded queue and hand them to the queue of the next stage. Different documents
+ * go through different stages at the same time, so a CPU bound stage overlaps with an inference
+ * bound one, and a stage that falls behind makes the previous ones wait once its queue is full.
+ *
+ * <p>A document failing in a stage, with an exception or a failed assertion, skips the rest of the
+ * stages and is reported as a {@link ChunkingResult.Failure}, it does not affect the rest of the
+ * batch. A worker interrupted or failing with any other error aborts the batch. Batches are run one
+ * at a time.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public class ChunkingPipeline implements IChunker, AutoCloseable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    private static final Job END = new Job(-1, null, null);
+
+    private static final long FEED_TIMEOUT_MILLIS = 100;
+
+    private final List<StageRunner> stages;
+
+    private final int queueCapacity;
+
+    private ChunkingPipeline(List<StageRunner> stages, int queueCapacity) {
+        this.stages = stages;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Splits the content running every stage in the calling thread.
+     *
+     * @param content the content to split
+     * @return the chunks returned by the last stage
+     * @throws IllegalStateException if a stage fails with a checked exception, unchecked ones are
+     *     rethrown as they are
+     * @throws CancellationException if a stage is interrupted
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Chunk> split(String content) {
+        Object value = content;
+        try {
+            for (StageRunner runner : stages) {
+                value = runner.stage().apply(value);
+            }
+            return (List<Chunk>) value;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while chunking the content");
+        } catch (Exception e) {
+            throw new IllegalStateException("Pipeline stage failed", e);
+        }
+    }
+
+    /**
+     * Splits all the documents through the pipelined stages, blocking until every one of them is
+     * chunked.
+     *
+     * @param documents the documents to split, their ids must be unique
+     * @return the result of every document keyed by the document id, in the same order as the
+     *     documents
+     * @throws CancellationException if the calling thread is interrupted while waiting, the workers
+     *     are cancelled
+     * @throws IllegalStateException if a worker fails with an error or is interrupted
+     */
+    public synchronized Map<String, ChunkingResult> splitAll(Collection<Document> documents) {
+        assert haveUniqueIds(documents) : "The document ids must be unique";
+
+        if (documents.isEmpty()) {
+            return Map.of();
+        }
+
+        var run = new Run(documents.size());
+        try {
+            run.start();
+
+            int index = 0;
+            for (Document document : documents) {
+                run.feed(new Job(index++, document.id(), document.content()));
+            }
+            for (int i = 0; i < stages.getFirst().workers(); i++) {
+                run.feed(END);
+            }
+
+            run.done.await();
+            if (run.failed()) {
+                throw new IllegalStateException("Pipeline worker failed", run.failure.get());
+            }
+            for (Future<?> worker : run.workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            run.cancel();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while chunking the documents");
+        } catch (ExecutionException e) {
+            run.cancel();
+            throw new IllegalStateException("Pipeline worker failed", e.getCause());
+        } catch (RuntimeException e) {
+            run.cancel();
+            throw e;
+        }
+
+        Map<String, ChunkingResult> results = LinkedHashMap.newLinkedHashMap(documents.size());
+        for (ChunkingResult result : run.results) {
+            results.put(result.documentId(), result);
+        }
+        return results;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChunkingResult success(Job job, Object chunks) {
+        return new ChunkingResult.Success(job.documentId(), (List<Chunk>) chunks);
+    }
+
+    private static boolean haveUniqueIds(Collection<Document> documents) {
+        var ids = new HashSet<String>();
+        return documents.stream().allMatch(document -> ids.add(document.id()));
+    }
+
+    /**
+     * Shuts down the executors created by the pipeline, the provided executors are left running.
+     */
+    @Override
+    public void close() {
+        for (StageRunner runner : stages) {
+            if (runner.ownsExecutor()) {
+                runner.executor().close();
+            }
+        }
+    }
+
+    public static Builder<String> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * The state of a batch going through the pipeline: a bounded queue in front of every stage and
+     * the results of the documents, filled by the last stage or by the stage a document fails in.
+     */
+    private final class Run {
+
+        private final List<BlockingQueue<Job>> queues = new ArrayList<>(stages.size());
+
+        private final List<AtomicInteger> running = new ArrayList<>(stages.size());
+
+        private final List<Future<?>> workers = new ArrayList<>();
+
+        private final ChunkingResult[] results;
+
+        private final CountDownLatch done;
+
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Run(int size) {
+            this.results = new ChunkingResult[size];
+            this.done = new CountDownLatch(size);
+            for (StageRunner runner : stages) {
+                queues.add(new ArrayBlockingQueue<>(queueCapacity));
+                running.add(new AtomicInteger(runner.workers()));
+            }
+        }
+
+        void start() {
+            for (int i = 0; i < stages.size(); i++) {
+                int stage = i;
+                for (int j = 0; j < stages.get(i).workers(); j++) {
+                    workers.add(stages.get(i).executor().submit(() -> work(stage)));
+                }
+            }
+        }
+
+        /**
+         * Takes the documents of the queue of the stage until it is ended, the last worker of the
+         * stage to finish ends the queue of the next stage.
+         *
+         * @param stage the position of the stage
+         */
+        private void work(int stage) {
+            var runner = stages.get(stage);
+            var input = queues.get(stage);
+            var last = stage == stages.size() - 1;
+
+            try {
+                Job job;
+                while ((job = input.take()) != END) {
+                    Object value;
+                    try {
+                        value = runner.stage().apply(job.value());
+                    } catch (InterruptedException e) {
+                        throw e;
+                    } catch (Exception | AssertionError e) {
+                        complete(job, new ChunkingResult.Failure(job.documentId(), e));
+                        continue;
+                    }
+
+                    if (last) {
+                        complete(job, success(job, value));
+                    } else {
+                        queues.get(stage + 1).put(new Job(job.index(), job.documentId(), value));
+                    }
+                }
+
+                if (running.get(stage).decrementAndGet() == 0 && !last) {
+                    for (int i = 0; i < stages.get(stage + 1).workers(); i++) {
+                        queues.get(stage + 1).put(END);
+                    }
+                }
+            } catch (InterruptedException e) {
+                fail(e);
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                fail(e);
+            }
+        }
+
+        private void complete(Job job, ChunkingResult result) {
+            results[job.index()] = result;
+            done.countDown();
+        }
+
+        /**
+         * Hands the job to the first stage, waiting while its queue is full. The wait is given up if
+         * a worker fails, as the queue may never be taken from again.
+         *
+         * @param job the job
+         */
+        void feed(Job job) throws InterruptedException {
+            var queue = queues.getFirst();
+            while (!failed() && !queue.offer(job, FEED_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                // the first stage is still behind
+            }
+        }
+
+        boolean failed() {
+            return failure.get() != null;
+        }
+
+        /**
+         * Aborts the batch after a worker failed: the caller stops feeding documents and is released.
+         *
+         * @param error the error thrown by the worker
+         */
+        private void fail(Throwable error) {
+            failure.compareAndSet(null, error);
+            while (done.getCount() > 0) {
+                done.countDown();
+            }
+        }
+
+        void cancel() {
+            workers.forEach(worker -> worker.cancel(true));
+        }
+    }
+
+    /**
+     * A document between two stages.
+     *
+     * @param index the position of the document in the batch
+     * @param documentId the id of the document
+     * @param value the output of the previous stage
+     */
+    private record Job(int index, String documentId, Object value) {}
+
+    /**
+     * A stage together with the workers running it.
+     *
+     * @param stage the stage
+     * @param workers the number of documents the stage is applied to at the same time
+     * @param executor the executor running the workers
+     * @param ownsExecutor whether the executor was created by the pipeline
+     */
+    private record StageRunner(
+            Stage<Object, Object> stage, int workers, ExecutorService executor, boolean ownsExecutor) {}
+
+    /**
+     * A stage declared in a builder, its executor is created when the pipeline is built if none is
+     * provided.
+     */
+    private record StageSpec(Stage<Object, Object> stage, int workers, ExecutorService executor) {
+
+        @SuppressWarnings("unchecked")
+        static StageSpec of(Stage<?, ?> stage, int workers, ExecutorService executor) {
+            assert stage != null : "The stage cannot be null";
+            assert workers > 0 : "Workers must be greater than 0";
+            return new StageSpec((Stage<Object, Object>) stage, workers, executor);
+        }
+
+        StageRunner runner() {
+            return executor != null
+                    ? new StageRunner(stage, workers, executor, false)
+                    : new StageRunner(stage, workers, Executors.newFixedThreadPool(workers), true);
+        }
+    }
+
+    /**
+     * Declares the stages that turn the content of a document into its chunks.
+     *
+     * @param <T> the output type of the last declared stage
+     */
+    public static class Builder<T> {
+
+        private final List<StageSpec> stages;
+
+        private int queueCapacity;
+
+        private Builder() {
+            this(new ArrayList<>(), DEFAULT_QUEUE_CAPACITY);
+        }
+
+        private Builder(List<StageSpec> stages, int queueCapacity) {
+            this.stages = stages;
+            this.queueCapacity = queueCapacity;
+        }
+
+        /** Sets the number of documents waiting in front of every stage. */
+        public Builder<T> queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /** Adds a stage run by a single worker on its own thread. */
+        public <R> Builder<R> stage(Stage<? super T, R> stage) {
+            return stage(stage, 1);
+        }
+
+        /** Adds a stage run by the given number of workers, each one on its own thread. */
+        public <R> Builder<R> stage(Stage<? super T, R> stage, int workers) {
+            return stage(stage, workers, null);
+        }
+
+        /**
+         * Adds a stage run by the given number of workers on the executor, which must be able to run
+         * all of them at the same time and is not shut down when the pipeline is closed.
+         */
+        public <R> Builder<R> stage(Stage<? super T, R> stage, int workers, ExecutorService executor) {
+            stages.add(StageSpec.of(stage, workers, executor));
+            return new Builder<>(stages, queueCapacity);
+        }
+
+        /** Adds the stage that produces the chunks, run by a single worker on its own thread. */
+        public ChunkBuilder chunk(Stage<? super T, List<Chunk>> stage) {
+            return chunk(stage, 1);
+        }
+
+        /** Adds the stage that produces the chunks, run by the given number of workers. */
+        public ChunkBuilder chunk(Stage<? super T, List<Chunk>> stage, int workers) {
+            return chunk(stage, workers, null);
+        }
+
+        /** Adds the stage that produces the chunks, run by the given number of workers on the executor. */
+        public ChunkBuilder chunk(Stage<? super T, List<Chunk>> stage, int workers, ExecutorService executor) {
+            stages.add(StageSpec.of(stage, workers, executor));
+            return new ChunkBuilder(stages, queueCapacity);
+        }
+    }
+
+    /** Declares the filters and post-processors of the chunks, then builds the pipeline. */
+    public static class ChunkBuilder {
+
+        private final List<StageSpec> stages;
+
+        private final int queueCapacity;
+
+        private ChunkBuilder(List<StageSpec> stages, int queueCapacity) {
+            this.stages = stages;
+            this.queueCapacity = queueCapacity;
+        }
+
+        /** Adds a post-processor of the chunks, run by a single worker on its own thread. */
+        public ChunkBuilder stage(Stage<List<Chunk>, List<Chunk>> stage) {
+            return stage(stage, 1);
+        }
+
+        /** Adds a post-processor of the chunks, run by the given number of workers. */
+        public ChunkBuilder stage(Stage<List<Chunk>, List<Chunk>> stage, int workers) {
+            return stage(stage, workers, null);
+        }
+
+        /** Adds a post-processor of the chunks, run by the given number of workers on the executor. */
+        public ChunkBuilder stage(Stage<List<Chunk>, List<Chunk>> stage, int workers, ExecutorService executor) {
+            stages.add(StageSpec.of(stage, workers, executor));
+            return this;
+        }
+
+        /** Adds a stage keeping the chunks that match the predicate, see {@link Stage#filter}. */
+        public ChunkBuilder filter(Predicate<? super Chunk> predicate) {
+            return stage(Stage.filter(predicate));
+        }
+
+        public ChunkingPipeline build() {
+            assert queueCapacity > 0 : "Queue capacity must be greater than 0";
+
+            return new ChunkingPipeline(stages.stream().map(StageSpec::runner).toList(), queueCapacity);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package jchunk.chunker.core.pipeline;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import jchunk.chunker.core.chunk.Chunk;
+
+/**
+ * A step of a {@link ChunkingPipeline}: a segmenter, a merger, an embedder, a filter or a
+ * post-processor of the chunks of a document.
+ *
+ * <p>A stage run by more than one worker is applied to several documents at the same time, so it
+ * must be thread safe.
+ *
+ * @param <I> the type of the input of the stage
+ * @param <O> the type of the output of the stage
+ * @author Pablo Sanchidrian Herrera
+ */
+@FunctionalInterface
+public interface Stage<I, O> {
+
+    /**
+     * Applies the stage to the output of the previous stage for a single document.
+     *
+     * @param input the output of the previous stage, the content of the document for the first one
+     * @return the input of the next stage
+     * @throws Exception if the document cannot go through the stage, it is reported as a failure of
+     *     the document
+     */
+    O apply(I input) throws Exception;
+
+    /**
+     * @param predicate the chunks to keep
+     * @return a stage keeping the chunks that match the predicate, with their ids
+     */
+    static Stage<List<Chunk>, List<Chunk>> filter(Predicate<? super Chunk> predicate) {
+        return chunks -> chunks.stream().filter(predicate).toList();
+    }
+
+    /**
+     * @param mapper the post-processor of every chunk
+     * @return a stage replacing every chunk with the one returned by the mapper
+     */
+    static Stage<List<Chunk>, List<Chunk>> map(UnaryOperator<Chunk> mapper) {
+        return chunks -> chunks.stream().map(mapper).toList();
+    }
+}
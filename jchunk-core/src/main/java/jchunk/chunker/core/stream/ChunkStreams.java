@@ -0,0 +1,95 @@
+package jchunk.chunker.core.stream;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import jchunk.chunker.core.chunk.Chunk;
+
+/**
+ * Helpers to build lazy {@link Stream streams} of {@link Chunk chunks}.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public final class ChunkStreams {
+
+    private ChunkStreams() {}
+
+    /** A source of chunks that is advanced on demand. */
+    @FunctionalInterface
+    public interface ChunkSource {
+
+        /**
+         * Emits the next chunks (zero or more) into the sink.
+         *
+         * @param sink the consumer of the produced chunks
+         * @return {@code false} once the source is exhausted, {@code true} otherwise
+         */
+        boolean advance(Consumer<Chunk> sink);
+    }
+
+    /**
+     * Creates a sequential stream that pulls chunks from the source only when they are requested.
+     *
+     * @param source the source of chunks
+     * @return the lazy stream of chunks
+     */
+    public static Stream<Chunk> generate(ChunkSource source) {
+        Iterator<Chunk> iterator = new Iterator<>() {
+
+            private final Deque<Chunk> buffer = new ArrayDeque<>();
+
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                while (buffer.isEmpty() && !exhausted) {
+                    exhausted = !source.advance(buffer::addLast);
+                }
+                return !buffer.isEmpty();
+            }
+
+            @Override
+            public Chunk next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return buffer.removeFirst();
+            }
+        };
+
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Creates a stream that splits every window independently and renumbers the resulting chunks, so ids are
+     * sequential across the whole content, and their offsets are relative to the whole content.
+     *
+     * @param windows the windows of the content
+     * @param splitter the function splitting a single window into chunks
+     * @return the lazy stream of chunks
+     */
+    public static Stream<Chunk> windowed(TextWindowReader windows, Function<String, List<Chunk>> splitter) {
+        var index = new AtomicInteger(0);
+        var offset = new AtomicInteger(0);
+        return generate(sink -> {
+            String window = windows.next();
+            if (window == null) {
+                return false;
+            }
+
+            var base = offset.getAndAdd(window.length());
+            splitter.apply(window).forEach(chunk -> sink.accept(chunk.renumber(index.getAndIncrement(), base)));
+            return true;
+        });
+    }
+}
@@ -0,0 +1,96 @@
+package jchunk.chunker.core.stream;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.function.ToIntFunction;
+
+/**
+ * Reads the content of a {@link Reader} as a sequence of bounded text windows.
+ *
+ * <p>Once {@code windowSize} characters are buffered, the window is cut at the position returned by the boundary
+ * finder (the last position where the content can be safely split) and the remaining text is carried over to the
+ * next window. When no boundary is found the whole buffer is returned as it is.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public class TextWindowReader {
+
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 16;
+
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+
+    private final int windowSize;
+
+    private final ToIntFunction<String> boundaryFinder;
+
+    private final char[] readBuffer;
+
+    private final StringBuilder pending = new StringBuilder();
+
+    private boolean eof;
+
+    public TextWindowReader(Reader reader, ToIntFunction<String> boundaryFinder) {
+        this(reader, DEFAULT_WINDOW_SIZE, boundaryFinder);
+    }
+
+    /**
+     * @param reader the source of the content, it is not closed by this class
+     * @param windowSize the number of characters to buffer before looking for a boundary
+     * @param boundaryFinder returns the index where the given text can be cut, or a negative value if there is none
+     */
+    public TextWindowReader(Reader reader, int windowSize, ToIntFunction<String> boundaryFinder) {
+        assert reader != null : "The reader cannot be null";
+        assert windowSize > 0 : "The window size must be greater than 0";
+
+        this.reader = reader;
+        this.windowSize = windowSize;
+        this.boundaryFinder = boundaryFinder;
+        this.readBuffer = new char[Math.min(windowSize, READ_BUFFER_SIZE)];
+    }
+
+    /**
+     * Reads the next window of text.
+     *
+     * @return the next window, or {@code null} once the reader is exhausted
+     * @throws UncheckedIOException if the underlying reader fails
+     */
+    public String next() {
+        fill();
+
+        if (pending.isEmpty()) {
+            return null;
+        }
+
+        String text = pending.toString();
+        if (eof) {
+            pending.setLength(0);
+            return text;
+        }
+
+        int cut = boundaryFinder.applyAsInt(text);
+        if (cut <= 0 || cut > text.length()) {
+            cut = text.length();
+        }
+
+        pending.delete(0, cut);
+        return text.substring(0, cut);
+    }
+
+    private void fill() {
+        try {
+            while (!eof && pending.length() < windowSize) {
+                int read = reader.read(readBuffer, 0, Math.min(readBuffer.length, windowSize - pending.length()));
+                if (read < 0) {
+                    eof = true;
+                } else {
+                    pending.append(readBuffer, 0, read);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read content", e);
+        }
+    }
+}
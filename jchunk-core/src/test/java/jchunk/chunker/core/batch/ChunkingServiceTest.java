@@ -0,0 +1,190 @@
+package jchunk.chunker.core.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.IChunker;
+import org.junit.jupiter.api.Test;
+
+class ChunkingServiceTest {
+
+    private static final IChunker WORD_CHUNKER = content -> {
+        var chunks = new ArrayList<Chunk>();
+        var words = content.split(" ");
+        for (int i = 0; i < words.length; i++) {
+            chunks.add(new Chunk(i, words[i]));
+        }
+        return chunks;
+    };
+
+    @Test
+    void testSplitAllKeysTheResultsByDocumentId() {
+        // given
+        var documents = List.of(new Document("a", "one two"), new Document("b", "three"), new Document("c", "four"));
+
+        // when
+        Map<String, ChunkingResult> results;
+        try (var service = ChunkingService.builder(WORD_CHUNKER).build()) {
+            results = service.splitAll(documents);
+        }
+
+        // then
+        assertThat(results).containsOnlyKeys("a", "b", "c");
+        assertThat(results.keySet()).containsExactly("a", "b", "c");
+        assertThat(results.get("a"))
+                .isEqualTo(new ChunkingResult.Success("a", List.of(new Chunk(0, "one"), new Chunk(1, "two"))));
+    }
+
+    @Test
+    void testFailuresAreIsolated() {
+        // given
+        IChunker chunker = content -> {
+            if (content.isEmpty()) {
+                throw new IllegalArgumentException("empty");
+            }
+            return WORD_CHUNKER.split(content);
+        };
+        var documents = List.of(new Document("a", "one"), new Document("b", ""), new Document("c", "two"));
+
+        // when
+        Map<String, ChunkingResult> results;
+        try (var service = ChunkingService.builder(chunker).virtualThreads(true).build()) {
+            results = service.splitAll(documents);
+        }
+
+        // then
+        assertThat(results.get("a").isSuccess()).isTrue();
+        assertThat(results.get("c").isSuccess()).isTrue();
+        assertThat(results.get("b"))
+                .isInstanceOfSatisfying(ChunkingResult.Failure.class, failure -> assertThat(failure.error())
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessage("empty"));
+    }
+
+    @Test
+    void testFailedAssertionsAreIsolated() {
+        // given
+        IChunker chunker = content -> {
+            assert content.contains(" ") : "The content must have more than one word";
+            return WORD_CHUNKER.split(content);
+        };
+        var documents =
+                List.of(new Document("a", "one two"), new Document("b", "three"), new Document("c", "four five"));
+
+        // when
+        Map<String, ChunkingResult> results;
+        try (var service = ChunkingService.builder(chunker).build()) {
+            results = service.splitAll(documents);
+        }
+
+        // then
+        assertThat(results.get("a").isSuccess()).isTrue();
+        assertThat(results.get("c").isSuccess()).isTrue();
+        assertThat(results.get("b"))
+                .isInstanceOfSatisfying(ChunkingResult.Failure.class, failure -> assertThat(failure.error())
+                        .isInstanceOf(AssertionError.class)
+                        .hasMessage("The content must have more than one word"));
+    }
+
+    @Test
+    void testInFlightDocumentsAreBounded() {
+        // given
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        IChunker chunker = content -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return WORD_CHUNKER.split(content);
+        };
+        var documents = new ArrayList<Document>();
+        for (int i = 0; i < 50; i++) {
+            documents.add(new Document(String.valueOf(i), "content " + i));
+        }
+
+        // when
+        Map<String, ChunkingResult> results;
+        try (var executor = Executors.newFixedThreadPool(8);
+                var service = ChunkingService.builder(chunker)
+                        .executor(executor)
+                        .maxInFlight(3)
+                        .build()) {
+            results = service.splitAll(documents);
+        }
+
+        // then
+        assertThat(results).hasSize(50);
+        assertThat(results.values()).allMatch(ChunkingResult::isSuccess);
+        assertThat(maxRunning.get()).isBetween(1, 3);
+    }
+
+    @Test
+    void testRejectedDocumentsCancelTheSubmittedOnes() throws InterruptedException {
+        // given
+        var started = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+        IChunker chunker = content -> {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return WORD_CHUNKER.split(content);
+        };
+        var documents = List.of(new Document("a", "one"), new Document("b", "two"));
+
+        RejectedExecutionHandler rejectOnceStarted = (task, pool) -> {
+            try {
+                started.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new RejectedExecutionException("busy");
+        };
+
+        try (var executor =
+                        new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<>(), rejectOnceStarted);
+                var service = ChunkingService.builder(chunker)
+                        .executor(executor)
+                        .maxInFlight(2)
+                        .build()) {
+
+            // when
+            assertThatThrownBy(() -> service.splitAll(documents)).isInstanceOf(RejectedExecutionException.class);
+
+            // then
+            assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    void testDuplicatedIdsAreRejected() {
+        // given
+        var documents = List.of(new Document("a", "one"), new Document("a", "two"));
+
+        // when
+        try (var service = ChunkingService.builder(WORD_CHUNKER).build()) {
+            // then
+            assertThatThrownBy(() -> service.splitAll(documents))
+                    .isInstanceOf(AssertionError.class)
+                    .hasMessage("The document ids must be unique");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package jchunk.chunker.core.chunk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class ChunkSpanTest {
+
+    private static final String SOURCE = "  This is the source text  ";
+
+    @Test
+    void testSpanIsAViewOverTheSource() {
+        // given
+        var span = new ChunkSpan(0, SOURCE, 2, 9);
+
+        // when
+        var content = span.toString();
+
+        // then
+        assertThat(content).isEqualTo("This is");
+        assertThat(span).hasSize(7);
+        assertThat(span.charAt(5)).isEqualTo('i');
+        assertThat(span.subSequence(5, 7)).hasToString("is");
+        assertThat(span.toChunk()).isEqualTo(new Chunk(0, "This is", new ChunkMetadata(2, 9, -1, -1, 0, Float.NaN)));
+    }
+
+    @Test
+    void testTrimmedSpan() {
+        // when
+        var span = ChunkSpan.trimmed(3, SOURCE, 0, SOURCE.length());
+
+        // then
+        assertThat(span.start()).isEqualTo(2);
+        assertThat(span.end()).isEqualTo(SOURCE.length() - 2);
+        assertThat(span).hasToString(SOURCE.trim());
+    }
+
+    @Test
+    void testTrimmedBlankSpanIsEmpty() {
+        // when
+        var span = ChunkSpan.trimmed(0, SOURCE, 0, 2);
+
+        // then
+        assertThat(span).isEmpty();
+    }
+
+    @Test
+    void testCharAtOutOfBounds() {
+        // given
+        var span = new ChunkSpan(0, SOURCE, 2, 9);
+
+        // then
+        assertThatThrownBy(() -> span.charAt(7)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
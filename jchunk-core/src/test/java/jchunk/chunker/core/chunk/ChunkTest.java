@@ -0,0 +1,39 @@
+package jchunk.chunker.core.chunk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ChunkTest {
+
+    @Test
+    void testMetadataIsPartOfTheIdentity() {
+        // given
+        var metadata = new ChunkMetadata(4, 11, 7, 2, 0, 0.5f);
+
+        // when
+        var chunk = new Chunk(1, "content", metadata);
+
+        // then
+        assertThat(chunk)
+                .isEqualTo(new Chunk(1, "content", metadata))
+                .hasSameHashCodeAs(new Chunk(1, "content", metadata));
+        assertThat(chunk).isNotEqualTo(new Chunk(1, "content"));
+        assertThat(chunk.metadata()).isEqualTo(metadata);
+        assertThat(new Chunk(1, "content").metadata()).isSameAs(ChunkMetadata.NONE);
+    }
+
+    @Test
+    void testRenumberShiftsTheOffsets() {
+        // given
+        var chunk = new Chunk(0, "content", new ChunkMetadata(4, 11, 7, -1, 2, Float.NaN));
+
+        // when
+        var renumbered = chunk.renumber(3, 100);
+
+        // then
+        assertThat(renumbered.id()).isEqualTo(3);
+        assertThat(renumbered.metadata()).isEqualTo(new ChunkMetadata(104, 111, 7, -1, 2, Float.NaN));
+        assertThat(new Chunk(0, "content").renumber(3, 100).metadata()).isSameAs(ChunkMetadata.NONE);
+    }
+}
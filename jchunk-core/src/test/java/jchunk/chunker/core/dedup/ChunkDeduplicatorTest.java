@@ -0,0 +1,49 @@
+package jchunk.chunker.core.dedup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import jchunk.chunker.core.chunk.Chunk;
+import org.junit.jupiter.api.Test;
+
+class ChunkDeduplicatorTest {
+
+    private static final String HEADER = "Licensed under the Apache License, Version 2.0 (the License); "
+            + "you may not use this file except in compliance with the License.";
+
+    @Test
+    void testDuplicatesAreDroppedAcrossDocuments() {
+        // given
+        var deduplicator = new ChunkDeduplicator();
+        var first = List.of(new Chunk(0, HEADER), new Chunk(1, "The first document."));
+        var second = List.of(new Chunk(0, HEADER), new Chunk(1, "The second document."));
+
+        // when
+        var firstKept = deduplicator.dropDuplicates(first);
+        var secondKept = deduplicator.dropDuplicates(second);
+
+        // then
+        assertThat(firstKept).isEqualTo(first);
+        assertThat(secondKept).containsExactly(new Chunk(1, "The second document."));
+    }
+
+    @Test
+    void testDuplicatesAreFlagged() {
+        // given
+        var deduplicator = new ChunkDeduplicator();
+        var chunks = List.of(
+                new Chunk(0, FingerprintTest.TEXT),
+                new Chunk(1, FingerprintTest.TEXT),
+                new Chunk(2, FingerprintTest.TEXT.replace("military", "naval")));
+
+        // when
+        var flagged = deduplicator.flagDuplicates(chunks.stream()).toList();
+
+        // then
+        assertThat(flagged)
+                .extracting(FlaggedChunk::duplicate)
+                .containsExactly(Duplicate.UNIQUE, Duplicate.EXACT, Duplicate.NEAR);
+        assertThat(flagged).extracting(FlaggedChunk::chunk).isEqualTo(chunks);
+        assertThat(deduplicator.index().size()).isEqualTo(2);
+    }
+}
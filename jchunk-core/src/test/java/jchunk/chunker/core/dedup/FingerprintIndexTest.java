@@ -0,0 +1,84 @@
+package jchunk.chunker.core.dedup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FingerprintIndexTest {
+
+    @Test
+    void testExactAndNearDuplicates() {
+        // given
+        var index = new FingerprintIndex();
+
+        // when
+        var first = index.add(Fingerprint.of(FingerprintTest.TEXT));
+        var copy = index.add(Fingerprint.of(FingerprintTest.TEXT));
+        var edited = index.add(Fingerprint.of(FingerprintTest.TEXT.replace("military", "naval")));
+        var other = index.add(Fingerprint.of("Some completely different text about chunking documents "
+                + "into pieces before embedding them with a model and storing them in a vector store."));
+
+        // then
+        assertThat(first).isEqualTo(Duplicate.UNIQUE);
+        assertThat(copy).isEqualTo(Duplicate.EXACT);
+        assertThat(edited).isEqualTo(Duplicate.NEAR);
+        assertThat(other).isEqualTo(Duplicate.UNIQUE);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void testShortContentsAreOnlyComparedExactly() {
+        // given
+        var index = new FingerprintIndex(7);
+
+        // when
+        var first = index.add(Fingerprint.of("see the notes"));
+        var similar = index.add(Fingerprint.of("See the notes!"));
+
+        // then
+        assertThat(first).isEqualTo(Duplicate.UNIQUE);
+        assertThat(similar).isEqualTo(Duplicate.UNIQUE);
+    }
+
+    @Test
+    void testManyContentsAreKept() {
+        // given
+        var index = new FingerprintIndex();
+
+        // when
+        for (int i = 0; i < 10_000; i++) {
+            index.add(new Fingerprint(i, (long) i * 0x9E3779B97F4A7C15L, 10));
+        }
+
+        // then
+        assertThat(index.size()).isEqualTo(10_000);
+        assertThat(index.add(new Fingerprint(42, 0, 10))).isEqualTo(Duplicate.EXACT);
+        assertThat(index.add(new Fingerprint(-1, 42L * 0x9E3779B97F4A7C15L ^ 0b101, 10)))
+                .isEqualTo(Duplicate.NEAR);
+    }
+
+    @Test
+    void testSaveAndLoad(@TempDir Path directory) throws IOException {
+        // given
+        var index = new FingerprintIndex(2);
+        index.add(Fingerprint.of(FingerprintTest.TEXT));
+        index.add(Fingerprint.of("[1]"));
+        index.add(new Fingerprint(0, 0, 0));
+        var file = directory.resolve("fingerprints.idx");
+
+        // when
+        index.save(file);
+        var loaded = FingerprintIndex.load(file);
+
+        // then
+        assertThat(loaded.size()).isEqualTo(3);
+        assertThat(loaded.maxDistance()).isEqualTo(2);
+        assertThat(loaded.add(Fingerprint.of("[1]"))).isEqualTo(Duplicate.EXACT);
+        assertThat(loaded.add(new Fingerprint(0, 0, 0))).isEqualTo(Duplicate.EXACT);
+        assertThat(loaded.add(Fingerprint.of(FingerprintTest.TEXT.replace("military", "naval"))))
+                .isEqualTo(Duplicate.NEAR);
+    }
+}
@@ -0,0 +1,61 @@
+package jchunk.chunker.core.dedup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class FingerprintTest {
+
+    static final String TEXT = "It's obviously true that the returns for performance are superlinear in business. "
+            + "Some think this is a flaw of capitalism, and that if we changed the rules it would stop being true. "
+            + "But superlinear returns for performance are a feature of the world, not an artifact of rules we've "
+            + "invented. We see the same pattern in fame, power, military victories, knowledge, and even benefit "
+            + "to humanity. In all of these, the rich get richer.";
+
+    @Test
+    void testHashIsTheXxh64OfTheUtf16Encoding() {
+        assertThat(Fingerprint.xxh64("")).isEqualTo(0xEF46DB3751D8E999L);
+        assertThat(Fingerprint.xxh64("a")).isEqualTo(0xE513E02C99167F96L);
+        assertThat(Fingerprint.xxh64("license header")).isEqualTo(0x3648DC10A83B29DBL);
+        assertThat(Fingerprint.xxh64("The quick brown fox jumps over the lazy dog, twice."))
+                .isEqualTo(0x0879E5821E8D6353L);
+        assertThat(Fingerprint.xxh64("naïve 😀")).isEqualTo(0x880B5C51DC149E42L);
+    }
+
+    @Test
+    void testSimHashIgnoresCaseAndPunctuation() {
+        // when
+        var fingerprint = Fingerprint.of(TEXT);
+        var shouted = Fingerprint.of(TEXT.toUpperCase().replace(",", ""));
+
+        // then
+        assertThat(shouted.hash()).isNotEqualTo(fingerprint.hash());
+        assertThat(shouted.simHash()).isEqualTo(fingerprint.simHash());
+        assertThat(fingerprint.shingles()).isEqualTo(74);
+    }
+
+    @Test
+    void testSimHashesOfSimilarContentsAreClose() {
+        // when
+        var fingerprint = Fingerprint.of(TEXT);
+        var edited = Fingerprint.of(TEXT.replace("military", "naval"));
+        var other = Fingerprint.of(
+                "Teachers and coaches implicitly told us the returns were linear. You get out what you put in. "
+                        + "They meant well, but this is rarely true. If your product is only half as good as your "
+                        + "competitor's, you don't get half as many customers. You get no customers.");
+
+        // then
+        assertThat(Long.bitCount(fingerprint.simHash() ^ edited.simHash())).isLessThanOrEqualTo(3);
+        assertThat(Long.bitCount(fingerprint.simHash() ^ other.simHash())).isGreaterThan(10);
+    }
+
+    @Test
+    void testContentWithFewerWordsThanAShingle() {
+        // when
+        var fingerprint = Fingerprint.of("[1]");
+
+        // then
+        assertThat(fingerprint.shingles()).isZero();
+        assertThat(fingerprint.simHash()).isZero();
+    }
+}
@@ -0,0 +1,124 @@
+package jchunk.chunker.core.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.ChunkMetadata;
+import jchunk.chunker.core.chunk.ChunkSpan;
+import jchunk.chunker.core.chunk.ISpanChunker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileChunkerTest {
+
+    /** Makes a chunk of every word, cutting the windows after the last space. */
+    private static final ISpanChunker WORDS = new ISpanChunker() {
+
+        @Override
+        public List<ChunkSpan> splitSpans(String content) {
+            var spans = new ArrayList<ChunkSpan>();
+            var start = 0;
+            for (int i = 0; i <= content.length(); i++) {
+                if (i == content.length() || content.charAt(i) == ' ') {
+                    if (start < i) {
+                        spans.add(new ChunkSpan(spans.size(), content, start, i));
+                    }
+                    start = i + 1;
+                }
+            }
+            return spans;
+        }
+
+        @Override
+        public List<Chunk> split(String content) {
+            return splitSpans(content).stream().map(ChunkSpan::toChunk).toList();
+        }
+
+        @Override
+        public int lastBoundary(String text) {
+            return text.lastIndexOf(' ') + 1;
+        }
+    };
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void testChunksAreLocatedByCharactersAndBytes() throws IOException {
+        // given
+        var content = "naïve café 😀 emoji and plain ascii words ".repeat(10);
+        var file = Files.writeString(directory.resolve("content.txt"), content, StandardCharsets.UTF_8);
+        var bytes = content.getBytes(StandardCharsets.UTF_8);
+
+        // when
+        var chunks = new FileChunker(WORDS, 16).split(file);
+
+        // then
+        assertThat(chunks)
+                .extracting(FileChunk::content)
+                .containsExactlyElementsOf(Arrays.stream(content.split(" ")).toList());
+        assertThat(chunks)
+                .extracting(FileChunk::id)
+                .containsExactlyElementsOf(
+                        IntStream.range(0, chunks.size()).boxed().toList());
+        for (var chunk : chunks) {
+            assertThat(content.substring((int) chunk.charStart(), (int) chunk.charEnd()))
+                    .isEqualTo(chunk.content());
+            assertThat(new String(
+                            bytes,
+                            (int) chunk.byteStart(),
+                            (int) (chunk.byteEnd() - chunk.byteStart()),
+                            StandardCharsets.UTF_8))
+                    .isEqualTo(chunk.content());
+        }
+    }
+
+    @Test
+    void testStreamIsLazy() throws IOException {
+        // given
+        var file = Files.writeString(directory.resolve("content.txt"), "first second third fourth");
+
+        // when
+        List<FileChunk> chunks;
+        try (var stream = new FileChunker(WORDS, 8).stream(file)) {
+            chunks = stream.limit(2).toList();
+        }
+
+        // then
+        assertThat(chunks)
+                .containsExactly(
+                        new FileChunk(0, "first", 0, 5, 0, 5, new ChunkMetadata(0, 5, -1, -1, 0, Float.NaN)),
+                        new FileChunk(1, "second", 6, 12, 6, 12, new ChunkMetadata(6, 12, -1, -1, 0, Float.NaN)));
+    }
+
+    @Test
+    void testChunksWithoutOffsetsAreRejected() throws IOException {
+        // given
+        var file = Files.writeString(directory.resolve("content.txt"), "first second");
+        ISpanChunker chunker = new ISpanChunker() {
+            @Override
+            public List<ChunkSpan> splitSpans(String content) {
+                return WORDS.splitSpans(content);
+            }
+
+            @Override
+            public List<Chunk> split(String content) {
+                return List.of(new Chunk(0, content));
+            }
+        };
+
+        // when / then
+        assertThatThrownBy(() -> new FileChunker(chunker).split(file))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The chunker does not report the offsets of its chunks");
+    }
+}
@@ -0,0 +1,106 @@
+package jchunk.chunker.core.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedTextWindowsTest {
+
+    private static final String CONTENT = "one two three four five six seven eight nine ten";
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void testWindowsAreCutAtTheLastBoundary() throws IOException {
+        // given
+        var file = write(CONTENT);
+
+        // when
+        List<MappedTextWindows.TextWindow> windows;
+        try (var reader = MappedTextWindows.open(file, 10, text -> text.lastIndexOf(' ') + 1)) {
+            windows = readAll(reader);
+        }
+
+        // then
+        assertThat(windows)
+                .extracting(MappedTextWindows.TextWindow::text)
+                .containsExactly("one two ", "three ", "four five ", "six seven ", "eight ", "nine ten");
+        assertThat(windows)
+                .extracting(MappedTextWindows.TextWindow::charOffset)
+                .containsExactly(0L, 8L, 14L, 24L, 34L, 40L);
+    }
+
+    @Test
+    void testMultiByteCharactersAcrossRegionsKeepTheByteOffsets() throws IOException {
+        // given
+        var content = "añb €c 😀d ".repeat(20);
+        var file = write(content);
+
+        // when
+        List<MappedTextWindows.TextWindow> windows;
+        try (var channel = FileChannel.open(file);
+                var reader = new MappedTextWindows(channel, 7, 5, text -> -1)) {
+            windows = readAll(reader);
+        }
+
+        // then
+        assertThat(windows.stream().map(MappedTextWindows.TextWindow::text))
+                .allSatisfy(text -> assertThat(Character.isHighSurrogate(text.charAt(text.length() - 1)))
+                        .isFalse());
+        assertThat(String.join(
+                        "",
+                        windows.stream().map(MappedTextWindows.TextWindow::text).toList()))
+                .isEqualTo(content);
+        for (var window : windows) {
+            var prefix = content.substring(0, (int) window.charOffset());
+            assertThat(window.byteOffset()).isEqualTo(prefix.getBytes(StandardCharsets.UTF_8).length);
+        }
+    }
+
+    @Test
+    void testEmptyFileHasNoWindows() throws IOException {
+        // given
+        var file = write("");
+
+        // when
+        try (var reader = MappedTextWindows.open(file, 10, text -> -1)) {
+            // then
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void testMalformedContentIsReported() throws IOException {
+        // given
+        var file = Files.write(directory.resolve("malformed.txt"), new byte[] {'a', (byte) 0xC3});
+
+        // when
+        try (var reader = MappedTextWindows.open(file, 10, text -> -1)) {
+            // then
+            assertThatThrownBy(reader::next).isInstanceOf(UncheckedIOException.class);
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(directory.resolve("content.txt"), content, StandardCharsets.UTF_8);
+    }
+
+    private static List<MappedTextWindows.TextWindow> readAll(MappedTextWindows reader) {
+        var windows = new ArrayList<MappedTextWindows.TextWindow>();
+        for (var window = reader.next(); window != null; window = reader.next()) {
+            windows.add(window);
+        }
+        return windows;
+    }
+}
@@ -0,0 +1,117 @@
+package jchunk.chunker.core.incremental;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.ChunkMetadata;
+import jchunk.chunker.core.chunk.IChunker;
+import org.junit.jupiter.api.Test;
+
+class IncrementalChunkerTest {
+
+    private static final String CONTENT =
+            IntStream.range(0, 100).mapToObj(i -> "line " + i).collect(Collectors.joining("\n"));
+
+    @Test
+    void testEditOnlySplitsTheLinesAroundIt() {
+        // given
+        var chunker = new LinesChunker(1);
+        var previous = chunker.split(CONTENT);
+        var start = CONTENT.indexOf("line 50");
+        var edit = new TextEdit(start, start + "line 50".length(), "the edited line");
+        var content = edit.apply(CONTENT);
+        chunker.read = 0;
+
+        // when
+        var result = new IncrementalChunker(chunker).rechunk(previous, content, edit);
+
+        // then
+        assertThat(chunker.read).isLessThan(CONTENT.length() / 10);
+        assertThat(result.chunks()).extracting(Chunk::content).isEqualTo(contents(chunker.split(content)));
+        assertThat(result.chunks()).extracting(Chunk::metadata).isEqualTo(metadata(chunker.split(content)));
+        assertThat(result.added()).extracting(Chunk::content).containsExactly("the edited line");
+        assertThat(result.added()).extracting(Chunk::id).containsExactly(100);
+        assertThat(result.removed()).containsExactly(previous.get(50));
+        assertThat(result.chunks().get(51))
+                .isEqualTo(previous.get(51).renumber(previous.get(51).id(), edit.delta()));
+    }
+
+    @Test
+    void testRegionGrowsUntilTheChunksMatchAgain() {
+        // given
+        var chunker = new LinesChunker(2);
+        var previous = chunker.split(CONTENT);
+        var edit = new TextEdit(0, 0, "new line\n");
+        var content = edit.apply(CONTENT);
+
+        // when
+        var result = new IncrementalChunker(chunker).rechunk(previous, content, edit);
+
+        // then
+        assertThat(result.chunks()).extracting(Chunk::content).isEqualTo(contents(chunker.split(content)));
+        assertThat(result.chunks()).extracting(Chunk::metadata).isEqualTo(metadata(chunker.split(content)));
+        assertThat(result.removed()).hasSameSizeAs(previous);
+    }
+
+    @Test
+    void testEverythingIsAddedWithoutPreviousChunks() {
+        // given
+        var chunker = new LinesChunker(1);
+
+        // when
+        var result = new IncrementalChunker(chunker).rechunk(List.of(), "a\nb", new TextEdit(0, 0, "a\nb"));
+
+        // then
+        assertThat(result.chunks())
+                .isEqualTo(List.of(
+                        new Chunk(0, "a", new ChunkMetadata(0, 1, 1, -1, 0, Float.NaN)),
+                        new Chunk(1, "b", new ChunkMetadata(2, 3, 1, -1, 0, Float.NaN))));
+        assertThat(result.added()).isEqualTo(result.chunks());
+        assertThat(result.removed()).isEmpty();
+    }
+
+    private static List<String> contents(List<Chunk> chunks) {
+        return chunks.stream().map(Chunk::content).toList();
+    }
+
+    private static List<ChunkMetadata> metadata(List<Chunk> chunks) {
+        return chunks.stream().map(Chunk::metadata).toList();
+    }
+
+    /** Makes a chunk of every {@code size} lines, counting the characters it is given. */
+    private static class LinesChunker implements IChunker {
+
+        private final int size;
+
+        private int read = 0;
+
+        LinesChunker(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public List<Chunk> split(String content) {
+            read += content.length();
+
+            var chunks = new ArrayList<Chunk>();
+            var start = 0;
+            var lines = 0;
+            for (int i = 0; i <= content.length(); i++) {
+                if (i == content.length() || content.charAt(i) == '\n') {
+                    lines++;
+                    if (lines == size || i == content.length()) {
+                        var metadata = new ChunkMetadata(start, i, i - start, -1, 0, Float.NaN);
+                        chunks.add(new Chunk(chunks.size(), content.substring(start, i), metadata));
+                        start = i + 1;
+                        lines = 0;
+                    }
+                }
+            }
+            return chunks;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package jchunk.chunker.core.incremental;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class TextEditTest {
+
+    @Test
+    void testEditBetweenTwoContents() {
+        // given
+        var before = "The quick brown fox jumps";
+        var after = "The quick red fox jumps";
+
+        // when
+        var edit = TextEdit.between(before, after);
+
+        // then
+        assertThat(edit).isEqualTo(new TextEdit(10, 15, "red"));
+        assertThat(edit.delta()).isEqualTo(-2);
+        assertThat(edit.apply(before)).isEqualTo(after);
+    }
+
+    @Test
+    void testEditBetweenRepeatedCharacters() {
+        // when
+        var edit = TextEdit.between("aaa", "aaaa");
+
+        // then
+        assertThat(edit).isEqualTo(new TextEdit(3, 3, "a"));
+        assertThat(TextEdit.between("same", "same").delta()).isZero();
+    }
+}
@@ -0,0 +1,22 @@
+package jchunk.chunker.core.length;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class LengthFunctionTest {
+
+    @Test
+    void testCharactersCountsTheRange() {
+        // given
+        var lengthFunction = LengthFunction.characters();
+
+        // when
+        var range = lengthFunction.length("Hello world", 6, 11);
+        var whole = lengthFunction.length("Hello world");
+
+        // then
+        assertThat(range).isEqualTo(5);
+        assertThat(whole).isEqualTo(11);
+    }
+}
@@ -0,0 +1,291 @@
+package jchunk.chunker.core.pipeline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import jchunk.chunker.core.batch.ChunkingResult;
+import jchunk.chunker.core.batch.Document;
+import jchunk.chunker.core.chunk.Chunk;
+import org.junit.jupiter.api.Test;
+
+class ChunkingPipelineTest {
+
+    private static final Stage<String, List<String>> WORDS = content -> Arrays.asList(content.split(" "));
+
+    private static final Stage<List<String>, List<Chunk>> CHUNKS = words -> IntStream.range(0, words.size())
+            .mapToObj(i -> new Chunk(i, words.get(i)))
+            .toList();
+
+    @Test
+    void testSplitRunsTheStagesInOrder() {
+        // given
+        try (var pipeline = ChunkingPipeline.builder()
+                .stage(String::toUpperCase)
+                .stage(WORDS)
+                .chunk(CHUNKS)
+                .filter(chunk -> chunk.content().length() > 1)
+                .stage(Stage.map(chunk -> new Chunk(chunk.id(), chunk.content() + "!")))
+                .build()) {
+
+            // when
+            List<Chunk> chunks = pipeline.split("one a two");
+
+            // then
+            assertThat(chunks).containsExactly(new Chunk(0, "ONE!"), new Chunk(2, "TWO!"));
+        }
+    }
+
+    @Test
+    void testSplitAllKeysTheResultsByDocumentId() {
+        // given
+        var documents = new ArrayList<Document>();
+        for (int i = 0; i < 40; i++) {
+            documents.add(new Document(String.valueOf(i), "content " + i));
+        }
+
+        // when
+        Map<String, ChunkingResult> results;
+        try (var pipeline =
+                ChunkingPipeline.builder().stage(WORDS, 3).chunk(CHUNKS, 2).build()) {
+            results = pipeline.splitAll(documents);
+        }
+
+        // then
+        assertThat(results.keySet())
+                .containsExactlyElementsOf(documents.stream().map(Document::id).toList());
+        assertThat(results.get("7"))
+                .isEqualTo(new ChunkingResult.Success("7", List.of(new Chunk(0, "content"), new Chunk(1, "7"))));
+    }
+
+    @Test
+    void testStagesRunOnDifferentDocumentsAtTheSameTime() {
+        // given
+        var secondSegmented = new CountDownLatch(1);
+        var overlapped = new AtomicBoolean();
+        Stage<String, List<String>> segmenter = content -> {
+            if (content.equals("second")) {
+                secondSegmented.countDown();
+            }
+            return WORDS.apply(content);
+        };
+        Stage<List<String>, List<Chunk>> embedder = words -> {
+            if (words.equals(List.of("first"))) {
+                overlapped.set(secondSegmented.await(5, TimeUnit.SECONDS));
+            }
+            return CHUNKS.apply(words);
+        };
+        var documents = List.of(new Document("a", "first"), new Document("b", "second"));
+
+        // when
+        Map<String, ChunkingResult> results;
+        try (var pipeline =
+                ChunkingPipeline.builder().stage(segmenter).chunk(embedder).build()) {
+            results = pipeline.splitAll(documents);
+        }
+
+        // then
+        assertThat(results.values()).allMatch(ChunkingResult::isSuccess);
+        assertThat(overlapped).isTrue();
+    }
+
+    @Test
+    void testQueuesBetweenStagesAreBounded() {
+        // given
+        var segmented = new AtomicInteger();
+        var embedded = new AtomicInteger();
+        var maxAhead = new AtomicInteger();
+        Stage<String, List<String>> segmenter = content -> {
+            maxAhead.accumulateAndGet(segmented.incrementAndGet() - embedded.get(), Math::max);
+            return WORDS.apply(content);
+        };
+        Stage<List<String>, List<Chunk>> embedder = words -> {
+            Thread.sleep(2);
+            embedded.incrementAndGet();
+            return CHUNKS.apply(words);
+        };
+        var documents = new ArrayList<Document>();
+        for (int i = 0; i < 30; i++) {
+            documents.add(new Document(String.valueOf(i), "content " + i));
+        }
+
+        // when
+        Map<String, ChunkingResult> results;
+        try (var executor = Executors.newFixedThreadPool(2);
+                var pipeline = ChunkingPipeline.builder()
+                        .queueCapacity(1)
+                        .stage(segmenter)
+                        .chunk(embedder, 1, executor)
+                        .build()) {
+            results = pipeline.splitAll(documents);
+        }
+
+        // then
+        assertThat(results).hasSize(30);
+        assertThat(results.values()).allMatch(ChunkingResult::isSuccess);
+        assertThat(maxAhead.get()).isBetween(1, 3);
+    }
+
+    @Test
+    void testFailuresAreIsolated() {
+        // given
+        var chunked = new AtomicInteger();
+        Stage<String, List<String>> segmenter = content -> {
+            if (content.isEmpty()) {
+                throw new IllegalArgumentException("empty");
+            }
+            return WORDS.apply(content);
+        };
+        Stage<List<String>, List<Chunk>> chunker = words -> {
+            chunked.incrementAndGet();
+            return CHUNKS.apply(words);
+        };
+        var documents = List.of(new Document("a", "one"), new Document("b", ""), new Document("c", "two"));
+
+        // when
+        Map<String, ChunkingResult> results;
+        try (var pipeline =
+                ChunkingPipeline.builder().stage(segmenter).chunk(chunker).build()) {
+            results = pipeline.splitAll(documents);
+        }
+
+        // then
+        assertThat(results.get("a").isSuccess()).isTrue();
+        assertThat(results.get("c").isSuccess()).isTrue();
+        assertThat(results.get("b"))
+                .isInstanceOfSatisfying(ChunkingResult.Failure.class, failure -> assertThat(failure.error())
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessage("empty"));
+        assertThat(chunked).hasValue(2);
+    }
+
+    @Test
+    void testFailedAssertionsAreIsolated() {
+        // given
+        Stage<String, List<String>> segmenter = content -> {
+            assert content.contains(" ") : "The content must have more than one word";
+            return WORDS.apply(content);
+        };
+        var documents =
+                List.of(new Document("a", "one two"), new Document("b", "three"), new Document("c", "four five"));
+
+        // when
+        Map<String, ChunkingResult> results;
+        try (var pipeline =
+                ChunkingPipeline.builder().stage(segmenter).chunk(CHUNKS).build()) {
+            results = pipeline.splitAll(documents);
+        }
+
+        // then
+        assertThat(results.get("a").isSuccess()).isTrue();
+        assertThat(results.get("c").isSuccess()).isTrue();
+        assertThat(results.get("b"))
+                .isInstanceOfSatisfying(ChunkingResult.Failure.class, failure -> assertThat(failure.error())
+                        .isInstanceOf(AssertionError.class)
+                        .hasMessage("The content must have more than one word"));
+    }
+
+    @Test
+    void testInterruptedWorkersFailTheBatch() {
+        // given
+        var started = new CountDownLatch(1);
+        Stage<String, List<String>> segmenter = content -> {
+            started.countDown();
+            new CountDownLatch(1).await();
+            return WORDS.apply(content);
+        };
+        var documents = List.of(new Document("a", "one"), new Document("b", "two"));
+        var executor = Executors.newFixedThreadPool(1);
+
+        try (var pipeline = ChunkingPipeline.builder()
+                .stage(segmenter, 1, executor)
+                .chunk(CHUNKS)
+                .build()) {
+            Thread.ofVirtual().start(() -> {
+                try {
+                    started.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                executor.shutdownNow();
+            });
+
+            // when / then
+            assertTimeoutPreemptively(
+                    Duration.ofSeconds(10), () -> assertThatThrownBy(() -> pipeline.splitAll(documents))
+                            .isInstanceOf(IllegalStateException.class)
+                            .hasMessage("Pipeline worker failed")
+                            .hasCauseInstanceOf(InterruptedException.class));
+        }
+    }
+
+    @Test
+    void testWorkerErrorsFailTheBatch() {
+        // given
+        Stage<String, List<String>> segmenter = content -> {
+            throw new OutOfMemoryError("boom");
+        };
+        var documents = new ArrayList<Document>();
+        for (int i = 0; i < 10; i++) {
+            documents.add(new Document(String.valueOf(i), "content " + i));
+        }
+
+        try (var pipeline = ChunkingPipeline.builder()
+                .queueCapacity(1)
+                .stage(segmenter)
+                .chunk(CHUNKS)
+                .build()) {
+
+            // when / then
+            assertThatThrownBy(() -> pipeline.splitAll(documents))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Pipeline worker failed")
+                    .hasCauseInstanceOf(OutOfMemoryError.class);
+        }
+    }
+
+    @Test
+    void testSplitWrapsCheckedExceptions() {
+        // given
+        Stage<String, List<String>> segmenter = content -> {
+            throw new IOException("unreadable");
+        };
+
+        try (var pipeline =
+                ChunkingPipeline.builder().stage(segmenter).chunk(CHUNKS).build()) {
+
+            // when / then
+            assertThatThrownBy(() -> pipeline.split("content"))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Pipeline stage failed")
+                    .hasCauseInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void testDuplicatedIdsAreRejected() {
+        // given
+        var documents = List.of(new Document("a", "one"), new Document("a", "two"));
+
+        // when
+        try (var pipeline =
+                ChunkingPipeline.builder().stage(WORDS).chunk(CHUNKS).build()) {
+            // then
+            assertThatThrownBy(() -> pipeline.splitAll(documents))
+                    .isInstanceOf(AssertionError.class)
+                    .hasMessage("The document ids must be unique");
+        }
+    }
+}
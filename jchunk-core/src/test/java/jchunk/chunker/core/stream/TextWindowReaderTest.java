@@ -0,0 +1,73 @@
+package jchunk.chunker.core.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import jchunk.chunker.core.chunk.Chunk;
+import org.junit.jupiter.api.Test;
+
+class TextWindowReaderTest {
+
+    private static final String CONTENT = "one two three four five six seven eight nine ten";
+
+    @Test
+    void testWindowsAreCutAtTheLastBoundary() {
+        // given
+        var windows = new TextWindowReader(new StringReader(CONTENT), 10, text -> text.lastIndexOf(' ') + 1);
+
+        // when
+        List<String> result = readAll(windows);
+
+        // then
+        assertThat(result).containsExactly("one two ", "three ", "four five ", "six seven ", "eight ", "nine ten");
+    }
+
+    @Test
+    void testWindowIsReturnedWholeWhenThereIsNoBoundary() {
+        // given
+        var windows = new TextWindowReader(new StringReader(CONTENT), 10, text -> -1);
+
+        // when
+        List<String> result = readAll(windows);
+
+        // then
+        assertThat(result).hasSize(5).allSatisfy(window -> assertThat(window).hasSizeLessThanOrEqualTo(10));
+        assertThat(String.join("", result)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void testEmptyReader() {
+        // given
+        var windows = new TextWindowReader(new StringReader(""), text -> text.length());
+
+        // when
+        String result = windows.next();
+
+        // then
+        assertThat(result).isNull();
+    }
+
+    @Test
+    void testWindowedStreamRenumbersChunks() {
+        // given
+        var windows = new TextWindowReader(new StringReader(CONTENT), 10, text -> text.lastIndexOf(' ') + 1);
+
+        // when
+        var chunks = ChunkStreams.windowed(windows, window -> List.of(new Chunk(0, window.trim())))
+                .toList();
+
+        // then
+        assertThat(chunks).extracting(Chunk::id).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(chunks).extracting(Chunk::content).startsWith("one two", "three", "four five");
+    }
+
+    private static List<String> readAll(TextWindowReader windows) {
+        var result = new ArrayList<String>();
+        for (String window = windows.next(); window != null; window = windows.next()) {
+            result.add(window);
+        }
+        return result;
+    }
+}
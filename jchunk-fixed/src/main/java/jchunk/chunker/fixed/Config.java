@@ -1,6 +1,7 @@
 package jchunk.chunker.fixed;
 
 import jchunk.chunker.Delimiter;
+import jchunk.chunker.core.length.LengthFunction;
 
 /**
  * Configuration for the fixed chunker
@@ -19,6 +20,8 @@ public class Config {
 
     private final Delimiter keepDelimiter;
 
+    private final LengthFunction lengthFunction;
+
     public int getChunkSize() {
         return chunkSize;
     }
@@ -39,12 +42,28 @@ public class Config {
         return keepDelimiter;
     }
 
+    /** {@return the function measuring the chunk size and overlap} */
+    public LengthFunction getLengthFunction() {
+        return lengthFunction;
+    }
+
     public Config(int chunkSize, int chunkOverlap, String delimiter, boolean trimWhitespace, Delimiter keepDelimiter) {
+        this(chunkSize, chunkOverlap, delimiter, trimWhitespace, keepDelimiter, LengthFunction.characters());
+    }
+
+    public Config(
+            int chunkSize,
+            int chunkOverlap,
+            String delimiter,
+            boolean trimWhitespace,
+            Delimiter keepDelimiter,
+            LengthFunction lengthFunction) {
         this.chunkSize = chunkSize;
         this.chunkOverlap = chunkOverlap;
         this.delimiter = delimiter;
         this.trimWhitespace = trimWhitespace;
         this.keepDelimiter = keepDelimiter;
+        this.lengthFunction = lengthFunction;
     }
 
     /** {@return the default config} */
@@ -68,6 +87,8 @@ public class Config {
 
         private Delimiter keepDelimiter = Delimiter.NONE;
 
+        private LengthFunction lengthFunction = LengthFunction.characters();
+
         public Builder chunkSize(int chunkSize) {
             this.chunkSize = chunkSize;
             return this;
@@ -93,12 +114,25 @@ public class Config {
             return this;
         }
 
+        /**
+         * Sets the function measuring the chunk size and overlap, e.g. a tokenizer to express them in
+         * model tokens. Characters are counted by default.
+         *
+         * @param lengthFunction the length function
+         * @return the builder
+         */
+        public Builder lengthFunction(LengthFunction lengthFunction) {
+            this.lengthFunction = lengthFunction;
+            return this;
+        }
+
         public Config build() {
             assert chunkSize > 0 : "Chunk size must be greater than 0";
             assert chunkOverlap >= 0 : "Chunk overlap must be greater than or equal to 0";
             assert chunkSize > chunkOverlap : "Chunk size must be greater than chunk overlap";
+            assert lengthFunction != null : "Length function cannot be null";
 
-            return new Config(chunkSize, chunkOverlap, delimiter, trimWhitespace, keepDelimiter);
+            return new Config(chunkSize, chunkOverlap, delimiter, trimWhitespace, keepDelimiter, lengthFunction);
         }
     }
 }
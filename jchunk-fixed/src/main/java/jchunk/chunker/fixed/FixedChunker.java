@@ -1,20 +1,33 @@
 package jchunk.chunker.fixed;
 
+import java.io.Reader;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
-import java.util.regex.Pattern;
-import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import jchunk.chunker.Delimiter;
 import jchunk.chunker.core.chunk.Chunk;
-import jchunk.chunker.core.chunk.IChunker;
+import jchunk.chunker.core.chunk.ChunkMetadata;
+import jchunk.chunker.core.chunk.ChunkSpan;
+import jchunk.chunker.core.chunk.ISpanChunker;
+import jchunk.chunker.core.length.LengthFunction;
+import jchunk.chunker.core.stream.ChunkStreams;
+import jchunk.chunker.core.stream.TextWindowReader;
 
 /**
  * {@link FixedChunker} is a chunker that splits the content into fixed size chunks.
  *
+ * <p>The content is processed in a single pass: the delimiter positions are found with a literal
+ * scan and every sentence, kept as {@code [start, end)} offsets in a {@link SentenceBuffer}, is
+ * merged as soon as it is found. The text is only copied once per generated chunk.
+ *
+ * <p>Every chunk carries its {@link ChunkMetadata}: its offsets in the content (the ones of its
+ * span), its length as measured while merging it and the characters it shares with the previous
+ * chunk.
+ *
  * @author Pablo Sanchidrian Herrera
  */
-public class FixedChunker implements IChunker {
+public class FixedChunker implements ISpanChunker {
 
     private static final Logger logger = Logger.getLogger(FixedChunker.class.getName());
 
@@ -33,8 +46,44 @@ public class FixedChunker implements IChunker {
 
     @Override
     public List<Chunk> split(String content) {
-        List<String> sentences = splitIntoSentences(content, config);
-        return mergeSentences(sentences, config);
+        return mergeSentences(content, this::createChunk);
+    }
+
+    @Override
+    public List<ChunkSpan> splitSpans(String content) {
+        return mergeSentences(content, FixedChunker::createSpan);
+    }
+
+    /**
+     * Splits the content read from the reader into chunks. The reader is consumed in windows cut at
+     * sentence boundaries, and the sentences of every window are merged as they arrive, so the
+     * produced chunks are the same as the ones of {@link #split(String)}.
+     *
+     * @param reader the source of the content to be split, it is not closed by this method
+     * @return a lazy stream of chunks
+     */
+    @Override
+    public Stream<Chunk> stream(Reader reader) {
+        var windows = new TextWindowReader(reader, this::lastBoundary);
+        var buffer = new StringBuilder();
+        var merger = new SentenceMerger<>(config, buffer, this::createChunk);
+
+        return ChunkStreams.generate(sink -> {
+            String window = windows.next();
+            if (window == null) {
+                merger.flush(sink);
+                return false;
+            }
+
+            int consumed = merger.retainedFrom(buffer.length());
+            buffer.delete(0, consumed);
+            merger.shift(consumed);
+
+            int base = buffer.length();
+            buffer.append(window);
+            scanSentences(window, config, (start, end) -> merger.add(base + start, base + end, sink));
+            return true;
+        });
     }
 
     /**
@@ -45,172 +94,287 @@ public class FixedChunker implements IChunker {
      * @return a list of split sentences
      */
     public List<String> splitIntoSentences(String content, Config config) {
+        List<String> sentences = new ArrayList<>();
+        scanSentences(content, config, (start, end) -> sentences.add(content.substring(start, end)));
+        return sentences;
+    }
+
+    /**
+     * Scans the content looking for the sentences delimited by the delimiter. The delimiter is
+     * matched literally, from left to right, and empty sentences are skipped.
+     *
+     * @param content the content to scan
+     * @param config configuration for the chunker/splitter
+     * @param consumer the consumer of the {@code [start, end)} offsets of every sentence
+     */
+    private static void scanSentences(String content, Config config, SentenceConsumer consumer) {
         String delimiter = config.getDelimiter();
         Delimiter keepDelimiter = config.getKeepDelimiter();
+        int delimiterLen = delimiter.length();
 
-        if (delimiter.isEmpty()) {
-            return content.chars().mapToObj(c -> String.valueOf((char) c)).toList();
+        if (delimiterLen == 0) {
+            for (int i = 0; i < content.length(); i++) {
+                consumer.accept(i, i + 1);
+            }
+            return;
+        }
+
+        int start = 0;
+        int match = content.indexOf(delimiter);
+        while (match >= 0) {
+            int end = keepDelimiter == Delimiter.END ? match + delimiterLen : match;
+            if (start < end) {
+                consumer.accept(start, end);
+            }
+
+            start = keepDelimiter == Delimiter.START ? match : match + delimiterLen;
+            match = content.indexOf(delimiter, match + delimiterLen);
         }
 
-        return splitWithDelimiter(content, delimiter, keepDelimiter);
+        if (start < content.length()) {
+            consumer.accept(start, content.length());
+        }
     }
 
     /**
-     * Splits the content into sentences using the delimiter.
+     * Finds the last position of the text where it can be cut without breaking a sentence, following
+     * the same left to right scan used by {@link #scanSentences(String, Config, SentenceConsumer)}.
      *
-     * @param content the content to split
-     * @param delimiter the delimiter to split the content.
-     * @param keepDelimiter whether to keep the delimiter at the start or end of the sentence or not.
-     *     {@link Delimiter}
-     * @return a list of split sentences
+     * @param text the text to look into
+     * @return the cut position, or -1 if the text holds a single sentence
      */
-    private List<String> splitWithDelimiter(String content, String delimiter, Delimiter keepDelimiter) {
+    @Override
+    public int lastBoundary(String text) {
+        String delimiter = config.getDelimiter();
+        if (delimiter.isEmpty()) {
+            return text.length();
+        }
 
-        if (keepDelimiter == Delimiter.NONE) {
-            return Arrays.stream(content.split(Pattern.quote(delimiter)))
-                    .filter(s -> !s.isEmpty())
-                    .toList();
+        int last = -1;
+        int match = text.indexOf(delimiter);
+        while (match >= 0) {
+            last = match;
+            match = text.indexOf(delimiter, match + delimiter.length());
         }
 
-        String withDelimiter = "((?<=%1$s)|(?=%1$s))";
-        List<String> preSplits = new ArrayList<>(List.of(content.split(String.format(withDelimiter, delimiter))));
+        if (last < 0) {
+            return -1;
+        }
 
-        return keepDelimiter == Delimiter.START ? splitWithDelimiterStart(preSplits) : splitWithDelimiterEnd(preSplits);
+        return config.getKeepDelimiter() == Delimiter.START ? last : last + delimiter.length();
     }
 
     /**
-     * Splits the content into sentences using the delimiter at the start of each sentence. {@link
-     * Delimiter#START}
+     * Scans the content and merges its sentences into chunks in a single pass.
      *
-     * @param preSplits pre-splits by the delimiter
-     * @return the list of split sentences
+     * @param content the content to split
+     * @param factory the factory of the generated chunks
+     * @return list of chunks
      */
-    private List<String> splitWithDelimiterStart(List<String> preSplits) {
-        List<String> splits = new ArrayList<>();
+    private <T> List<T> mergeSentences(String content, ChunkFactory<T> factory) {
+        List<T> chunks = new ArrayList<>();
+        Consumer<T> sink = chunks::add;
+        SentenceMerger<T> merger = new SentenceMerger<>(config, content, factory);
 
-        splits.add(preSplits.getFirst());
-        IntStream.range(1, preSplits.size() - 1)
-                .filter(i -> i % 2 == 1)
-                .forEach(i -> splits.add(preSplits.get(i).concat(preSplits.get(i + 1))));
+        scanSentences(content, config, (start, end) -> merger.add(start, end, sink));
+        merger.flush(sink);
 
-        return splits.stream().filter(s -> !s.isEmpty()).toList();
+        return chunks;
     }
 
     /**
-     * Splits the content into sentences using the delimiter at the end of each sentence. {@link
-     * Delimiter#END}
+     * Creates a chunk joining the sentences with the delimiter.
      *
-     * @param preSplits the pre-splits by the delimiter
-     * @return the list of split sentences
+     * @param span the span covering the sentences
+     * @param sentences the offsets of the sentences
+     * @param metadata the metadata of the chunk
+     * @return the chunk
      */
-    private List<String> splitWithDelimiterEnd(List<String> preSplits) {
-        List<String> splits = new ArrayList<>();
-
-        IntStream.range(0, preSplits.size() - 1)
-                .filter(i -> i % 2 == 0)
-                .forEach(i -> splits.add(preSplits.get(i).concat(preSplits.get(i + 1))));
-        splits.add(preSplits.getLast());
+    private Chunk createChunk(ChunkSpan span, SentenceBuffer sentences, ChunkMetadata metadata) {
+        String generatedSentence =
+                joinSentences(span.source(), sentences, config.getDelimiter(), config.getTrimWhitespace());
+        return Chunk.builder()
+                .id(span.id())
+                .content(generatedSentence)
+                .metadata(metadata)
+                .build();
+    }
 
-        return splits.stream().filter(s -> !s.isEmpty()).toList();
+    /**
+     * Creates a span covering the sentences.
+     *
+     * @param span the span covering the sentences
+     * @param sentences the offsets of the sentences
+     * @param metadata the metadata of the chunk, the span holds its own offsets
+     * @return the span
+     */
+    private static ChunkSpan createSpan(ChunkSpan span, SentenceBuffer sentences, ChunkMetadata metadata) {
+        return span;
     }
 
     /**
-     * Merges the sentences into chunks.
+     * Joins the sentences into a single sentence, copying them straight from the source.
      *
-     * @param sentences the sentences to merge
-     * @param config configuration for the chunker/splitter
-     * @return list of chunks
+     * @param source the content the sentences belong to
+     * @param sentences the offsets of the sentences to join
+     * @param delimiter the delimiter to join the sentences
+     * @param trimWhitespace whether to trim the whitespace
+     * @return the generated sentence
      */
-    private List<Chunk> mergeSentences(List<String> sentences, Config config) {
-        String delimiter = config.getDelimiter();
-        int chunkSize = config.getChunkSize();
-        int chunkOverlap = config.getChunkOverlap();
-        boolean trimWhitespace = config.getTrimWhitespace();
+    private static String joinSentences(
+            CharSequence source, SentenceBuffer sentences, String delimiter, boolean trimWhitespace) {
+        int length = delimiter.length() * (sentences.size() - 1);
+        for (int i = 0; i < sentences.size(); i++) {
+            length += sentences.end(i) - sentences.start(i);
+        }
 
-        int currentLen = 0;
-        int delimiterLen = delimiter.length();
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < sentences.size(); i++) {
+            if (i > 0) {
+                builder.append(delimiter);
+            }
+            builder.append(source, sentences.start(i), sentences.end(i));
+        }
+
+        String generatedSentence = builder.toString();
+        return trimWhitespace ? generatedSentence.trim() : generatedSentence;
+    }
+
+    /** Receives the {@code [start, end)} offsets of the scanned sentences. */
+    @FunctionalInterface
+    private interface SentenceConsumer {
+
+        void accept(int start, int end);
+    }
+
+    /** Creates the chunk representation out of the span, the sentences and the metadata of a chunk. */
+    @FunctionalInterface
+    private interface ChunkFactory<T> {
+
+        T create(ChunkSpan span, SentenceBuffer sentences, ChunkMetadata metadata);
+    }
 
-        List<Chunk> chunks = new ArrayList<>();
-        Deque<String> currentChunk = new LinkedList<>();
+    /**
+     * Stateful merger of sentences into chunks. Sentences can be added in several batches, which
+     * allows merging the sentences of a content that is read incrementally.
+     */
+    private static class SentenceMerger<T> {
+
+        private final Config config;
+
+        private final CharSequence source;
+
+        private final ChunkFactory<T> factory;
+
+        private final LengthFunction lengthFunction;
+
+        private final int delimiterLen;
 
-        AtomicInteger chunkIndex = new AtomicInteger(0);
+        private final SentenceBuffer currentChunk = new SentenceBuffer();
+
+        private int chunkIndex = 0;
+
+        private int currentLen = 0;
+
+        private int base = 0;
+
+        private int previousEnd = 0;
+
+        SentenceMerger(Config config, CharSequence source, ChunkFactory<T> factory) {
+            this.config = config;
+            this.source = source;
+            this.factory = factory;
+            this.lengthFunction = config.getLengthFunction();
+            this.delimiterLen = lengthFunction.length(config.getDelimiter());
+        }
 
-        for (String sentence : sentences) {
-            int sentenceLength = sentence.length();
+        /**
+         * Adds a sentence to the current chunk, emitting the current chunk first if the sentence
+         * does not fit in it. The sentence is measured once, its length is kept until it leaves the
+         * chunk.
+         *
+         * @param start the offset of the sentence start in the source
+         * @param end the offset of the sentence end in the source
+         * @param sink the consumer of the generated chunks
+         */
+        void add(int start, int end, Consumer<T> sink) {
+            int chunkSize = config.getChunkSize();
+            int sentenceLength = lengthFunction.length(source, start, end);
 
             if (currentLen + sentenceLength + (currentChunk.isEmpty() ? 0 : delimiterLen) > chunkSize) {
                 if (currentLen > chunkSize) {
-                    final var msg = String.format(LONGER_THAN_THE_SPECIFIED, currentLen, config.getChunkSize());
+                    final var msg = String.format(LONGER_THAN_THE_SPECIFIED, currentLen, chunkSize);
                     logger.warning(msg);
                 }
 
                 if (!currentChunk.isEmpty()) {
-                    addChunk(chunks, currentChunk, delimiter, trimWhitespace, chunkIndex);
-                    currentLen = adjustCurrentChunkForOverlap(currentChunk, currentLen, chunkOverlap, delimiterLen);
+                    emit(sink);
+                    adjustCurrentChunkForOverlap();
                 }
             }
 
-            currentChunk.add(sentence);
+            currentChunk.addLast(start, end, sentenceLength);
             currentLen += sentenceLength + (currentChunk.size() > 1 ? delimiterLen : 0);
         }
 
-        if (!currentChunk.isEmpty()) {
-            addChunk(chunks, currentChunk, delimiter, trimWhitespace, chunkIndex);
+        /**
+         * Emits the remaining sentences as the last chunk.
+         *
+         * @param sink the consumer of the generated chunks
+         */
+        void flush(Consumer<T> sink) {
+            if (!currentChunk.isEmpty()) {
+                emit(sink);
+                currentChunk.clear();
+                currentLen = 0;
+            }
         }
 
-        return chunks;
-    }
+        /**
+         * Emits the current chunk, describing it with the offsets of its span in the whole content.
+         *
+         * @param sink the consumer of the generated chunks
+         */
+        private void emit(Consumer<T> sink) {
+            int start = currentChunk.start(0);
+            int end = currentChunk.end(currentChunk.size() - 1);
+            var span = config.getTrimWhitespace()
+                    ? ChunkSpan.trimmed(chunkIndex++, source, start, end)
+                    : new ChunkSpan(chunkIndex++, source, start, end);
+
+            start = base + span.start();
+            end = base + span.end();
+            var metadata = new ChunkMetadata(start, end, currentLen, -1, Math.max(0, previousEnd - start), Float.NaN);
+
+            sink.accept(factory.create(span, currentChunk, metadata));
+            previousEnd = end;
+        }
 
-    /**
-     * Adds the chunk to the list of chunks.
-     *
-     * @param chunks the list of chunks
-     * @param currentChunk the current chunk
-     * @param delimiter the delimiter
-     * @param trimWhitespace whether to trim the whitespace
-     * @param index the index of the chunk
-     */
-    private void addChunk(
-            List<Chunk> chunks,
-            Deque<String> currentChunk,
-            String delimiter,
-            boolean trimWhitespace,
-            AtomicInteger index) {
-        String generatedSentence = joinSentences(currentChunk, delimiter, trimWhitespace);
-        Chunk chunk = Chunk.builder()
-                .id(index.getAndIncrement())
-                .content(generatedSentence)
-                .build();
-        chunks.add(chunk);
-    }
+        /**
+         * @param sourceLength the current length of the source
+         * @return the offset of the first sentence still needed by the merger, the source can be
+         *     discarded up to this position
+         */
+        int retainedFrom(int sourceLength) {
+            return currentChunk.isEmpty() ? sourceLength : currentChunk.start(0);
+        }
 
-    /**
-     * Adjusts the current chunk for overlap.
-     *
-     * @param currentChunk the current chunk
-     * @param currentLen the current length of the chunk
-     * @param chunkOverlap the overlap between chunks
-     * @param delimiterLen the length of the delimiter
-     * @return the adjusted length of the chunk
-     */
-    private int adjustCurrentChunkForOverlap(
-            Deque<String> currentChunk, int currentLen, int chunkOverlap, int delimiterLen) {
-        while (currentLen > chunkOverlap && !currentChunk.isEmpty()) {
-            currentLen -= currentChunk.removeFirst().length() + (currentChunk.isEmpty() ? 0 : delimiterLen);
+        /**
+         * Shifts the offsets of the pending sentences after discarding the start of the source.
+         *
+         * @param discarded the number of characters discarded from the start of the source
+         */
+        void shift(int discarded) {
+            currentChunk.shift(discarded);
+            base += discarded;
         }
-        return currentLen;
-    }
 
-    /**
-     * Joins the sentences into a single sentence.
-     *
-     * @param sentences the sentences to join
-     * @param delimiter the delimiter to join the sentences
-     * @param trimWhitespace whether to trim the whitespace
-     * @return the generated sentence
-     */
-    private String joinSentences(Deque<String> sentences, String delimiter, boolean trimWhitespace) {
-        String generatedSentence = String.join(delimiter, sentences);
-        return trimWhitespace ? generatedSentence.trim() : generatedSentence;
+        /** Adjusts the current chunk for overlap. */
+        private void adjustCurrentChunkForOverlap() {
+            while (currentLen > config.getChunkOverlap() && !currentChunk.isEmpty()) {
+                int removedLength = currentChunk.removeFirst();
+                currentLen -= removedLength + (currentChunk.isEmpty() ? 0 : delimiterLen);
+            }
+        }
     }
 }
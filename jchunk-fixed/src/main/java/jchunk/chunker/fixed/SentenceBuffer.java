@@ -0,0 +1,126 @@
+package jchunk.chunker.fixed;
+
+/**
+ * First-in first-out buffer of {@code [start, end)} sentence offsets, and their measured lengths,
+ * backed by primitive int arrays used as a growable ring, so adding or removing a sentence does not
+ * allocate.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+final class SentenceBuffer {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] starts = new int[INITIAL_CAPACITY];
+
+    private int[] ends = new int[INITIAL_CAPACITY];
+
+    private int[] lengths = new int[INITIAL_CAPACITY];
+
+    private int head = 0;
+
+    private int size = 0;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param i the position of the sentence in the buffer
+     * @return the start offset of the sentence
+     */
+    int start(int i) {
+        return starts[slot(i)];
+    }
+
+    /**
+     * @param i the position of the sentence in the buffer
+     * @return the end offset of the sentence
+     */
+    int end(int i) {
+        return ends[slot(i)];
+    }
+
+    /**
+     * Appends a sentence at the end of the buffer, its length being its number of characters.
+     *
+     * @param start the start offset of the sentence
+     * @param end the end offset of the sentence
+     */
+    void addLast(int start, int end) {
+        addLast(start, end, end - start);
+    }
+
+    /**
+     * Appends a sentence at the end of the buffer.
+     *
+     * @param start the start offset of the sentence
+     * @param end the end offset of the sentence
+     * @param length the measured length of the sentence
+     */
+    void addLast(int start, int end, int length) {
+        if (size == starts.length) {
+            grow();
+        }
+        int slot = slot(size);
+        starts[slot] = start;
+        ends[slot] = end;
+        lengths[slot] = length;
+        size++;
+    }
+
+    /**
+     * Removes the first sentence of the buffer.
+     *
+     * @return the measured length of the removed sentence
+     */
+    int removeFirst() {
+        assert size > 0 : "The buffer is empty";
+
+        int length = lengths[head];
+        head = (head + 1) & (starts.length - 1);
+        size--;
+        return length;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Moves every offset of the buffer back.
+     *
+     * @param delta the number of positions to move the offsets back
+     */
+    void shift(int delta) {
+        for (int i = 0; i < size; i++) {
+            int slot = slot(i);
+            starts[slot] -= delta;
+            ends[slot] -= delta;
+        }
+    }
+
+    private int slot(int i) {
+        return (head + i) & (starts.length - 1);
+    }
+
+    private void grow() {
+        int[] newStarts = new int[starts.length * 2];
+        int[] newEnds = new int[ends.length * 2];
+        int[] newLengths = new int[lengths.length * 2];
+        for (int i = 0; i < size; i++) {
+            newStarts[i] = start(i);
+            newEnds[i] = end(i);
+            newLengths[i] = lengths[slot(i)];
+        }
+        starts = newStarts;
+        ends = newEnds;
+        lengths = newLengths;
+        head = 0;
+    }
+}
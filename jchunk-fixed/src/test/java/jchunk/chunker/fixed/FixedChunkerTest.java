@@ -2,10 +2,26 @@ package jchunk.chunker.fixed;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import jchunk.chunker.Delimiter;
 import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.ChunkSpan;
+import jchunk.chunker.core.file.FileChunk;
+import jchunk.chunker.core.file.FileChunker;
+import jchunk.chunker.core.incremental.IncrementalChunker;
+import jchunk.chunker.core.incremental.TextEdit;
+import jchunk.chunker.core.length.LengthFunction;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 class FixedChunkerTest {
 
@@ -27,7 +43,11 @@ class FixedChunkerTest {
         List<Chunk> chunks = chunker.split(CONTENT);
 
         // then
-        assertThat(chunks).isNotNull().hasSize(1).containsExactlyElementsOf(expectedChunks);
+        assertThat(chunks)
+                .isNotNull()
+                .hasSize(1)
+                .usingRecursiveFieldByFieldElementComparatorOnFields("id", "content")
+                .containsExactlyElementsOf(expectedChunks);
     }
 
     @Test
@@ -44,7 +64,11 @@ class FixedChunkerTest {
         List<Chunk> chunks = chunker.split("This is an example. Let's split on periods. Okay?");
 
         // then
-        assertThat(chunks).isNotNull().hasSize(3).containsExactlyElementsOf(expectedChunks);
+        assertThat(chunks)
+                .isNotNull()
+                .hasSize(3)
+                .usingRecursiveFieldByFieldElementComparatorOnFields("id", "content")
+                .containsExactlyElementsOf(expectedChunks);
     }
 
     @Test
@@ -63,7 +87,59 @@ class FixedChunkerTest {
         List<Chunk> chunks = chunker.split(CONTENT);
 
         // then
-        assertThat(chunks).isNotNull().hasSize(3).containsExactlyElementsOf(expectedChunks);
+        assertThat(chunks)
+                .isNotNull()
+                .hasSize(3)
+                .usingRecursiveFieldByFieldElementComparatorOnFields("id", "content")
+                .containsExactlyElementsOf(expectedChunks);
+    }
+
+    @Test
+    void testSplitDescribesTheChunks() {
+        // given
+        Config config =
+                Config.builder().chunkSize(35).chunkOverlap(4).delimiter("").build();
+        chunker = new FixedChunker(config);
+
+        // when
+        List<Chunk> chunks = chunker.split(CONTENT);
+
+        // then
+        assertThat(chunks)
+                .extracting(chunk -> CONTENT.substring(
+                        chunk.metadata().start(), chunk.metadata().end()))
+                .containsExactlyElementsOf(chunks.stream().map(Chunk::content).toList());
+        assertThat(chunks).extracting(chunk -> chunk.metadata().length()).containsExactly(35, 35, 21);
+        assertThat(chunks).extracting(chunk -> chunk.metadata().overlap()).containsExactly(0, 4, 3);
+        assertThat(chunks).extracting(chunk -> chunk.metadata().level()).containsOnly(-1);
+    }
+
+    @Test
+    void testRechunkAnEditedContent() {
+        // given
+        Config config =
+                Config.builder().chunkSize(60).chunkOverlap(20).delimiter(".").build();
+        chunker = new FixedChunker(config);
+        var content = IntStream.range(0, 200)
+                .mapToObj(i -> "This is the sentence number " + i)
+                .collect(Collectors.joining(". "));
+        var previous = chunker.split(content);
+        var edit = TextEdit.between(content, content.replace("number 100.", "one hundred."));
+        var edited = edit.apply(content);
+
+        // when
+        var result = new IncrementalChunker(chunker).rechunk(previous, edited, edit);
+
+        // then
+        var expected = chunker.split(edited);
+        assertThat(result.chunks())
+                .extracting(Chunk::content)
+                .isEqualTo(expected.stream().map(Chunk::content).toList());
+        assertThat(result.chunks())
+                .extracting(Chunk::metadata)
+                .isEqualTo(expected.stream().map(Chunk::metadata).toList());
+        assertThat(result.added()).hasSizeLessThanOrEqualTo(3);
+        assertThat(result.chunks().subList(0, 90)).isEqualTo(previous.subList(0, 90));
     }
 
     @Test
@@ -86,7 +162,11 @@ class FixedChunkerTest {
         List<Chunk> chunks = chunker.split(CONTENT);
 
         // then
-        assertThat(chunks).isNotNull().hasSize(3).containsExactlyElementsOf(expectedChunks);
+        assertThat(chunks)
+                .isNotNull()
+                .hasSize(3)
+                .usingRecursiveFieldByFieldElementComparatorOnFields("id", "content")
+                .containsExactlyElementsOf(expectedChunks);
     }
 
     @Test
@@ -109,7 +189,11 @@ class FixedChunkerTest {
         List<Chunk> chunks = chunker.split(CONTENT);
 
         // then
-        assertThat(chunks).isNotNull().hasSize(2).containsExactlyElementsOf(expectedChunks);
+        assertThat(chunks)
+                .isNotNull()
+                .hasSize(2)
+                .usingRecursiveFieldByFieldElementComparatorOnFields("id", "content")
+                .containsExactlyElementsOf(expectedChunks);
     }
 
     @Test
@@ -176,6 +260,146 @@ class FixedChunkerTest {
         assertThat(sentences.getLast()).isEqualTo("unk up. It is the example text for this exercise");
     }
 
+    @ParameterizedTest
+    @EnumSource(Delimiter.class)
+    void testStreamProducesTheSameChunksAsSplit(Delimiter keepDelimiter) {
+        // given
+        Config config = Config.builder()
+                .chunkSize(35)
+                .chunkOverlap(10)
+                .delimiter("ch")
+                .keepDelimiter(keepDelimiter)
+                .build();
+        chunker = new FixedChunker(config);
+        String content = (CONTENT + " ").repeat(2_000);
+
+        // when
+        List<Chunk> streamed = chunker.stream(new StringReader(content)).toList();
+
+        // then
+        assertThat(streamed).isNotEmpty().containsExactlyElementsOf(chunker.split(content));
+    }
+
+    @Test
+    void testStreamWithBlankSeparator() {
+        // given
+        Config config =
+                Config.builder().chunkSize(35).chunkOverlap(4).delimiter("").build();
+        chunker = new FixedChunker(config);
+
+        // when
+        List<Chunk> streamed = chunker.stream(new StringReader(CONTENT)).toList();
+
+        // then
+        assertThat(streamed).containsExactlyElementsOf(chunker.split(CONTENT));
+    }
+
+    @Test
+    void testSplitSpans() {
+        // given
+        Config config =
+                Config.builder().chunkSize(35).chunkOverlap(4).delimiter(" ").build();
+        chunker = new FixedChunker(config);
+
+        // when
+        List<ChunkSpan> spans = chunker.splitSpans(CONTENT);
+
+        // then
+        assertThat(spans)
+                .map(ChunkSpan::toChunk)
+                .usingRecursiveFieldByFieldElementComparatorOnFields("id", "content", "metadata.start", "metadata.end")
+                .containsExactlyElementsOf(chunker.split(CONTENT));
+        assertThat(spans).allSatisfy(span -> assertThat(span.source()).isSameAs(CONTENT));
+        assertThat(spans.getFirst().start()).isZero();
+        assertThat(spans.getLast().end()).isEqualTo(CONTENT.length());
+    }
+
+    @Test
+    void testSplitSpansKeepsRepeatedDelimiters() {
+        // given
+        Config config =
+                Config.builder().chunkSize(20).chunkOverlap(0).delimiter(" ").build();
+        chunker = new FixedChunker(config);
+        String content = "first  second";
+
+        // when
+        List<ChunkSpan> spans = chunker.splitSpans(content);
+
+        // then
+        assertThat(chunker.split(content))
+                .usingRecursiveFieldByFieldElementComparatorOnFields("id", "content")
+                .containsExactly(new Chunk(0, "first second"));
+        assertThat(spans).singleElement().hasToString("first  second");
+    }
+
+    @Test
+    void testSplitWithCustomLengthFunction() {
+        // given
+        LengthFunction words = (text, start, end) ->
+                (int) Arrays.stream(text.subSequence(start, end).toString().split("\\s+"))
+                        .filter(word -> !word.isEmpty())
+                        .count();
+        Config config = Config.builder()
+                .chunkSize(6)
+                .chunkOverlap(0)
+                .delimiter("\n")
+                .lengthFunction(words)
+                .build();
+        chunker = new FixedChunker(config);
+
+        // when
+        List<Chunk> chunks = chunker.split("One two three\nFour five\nSix seven eight nine\nTen");
+
+        // then
+        assertThat(chunks)
+                .extracting(Chunk::content)
+                .containsExactly("One two three\nFour five", "Six seven eight nine\nTen");
+    }
+
+    @Test
+    void testSplitFileLocatesTheSpans(@TempDir Path directory) throws IOException {
+        // given
+        var chunker = new FixedChunker(
+                Config.builder().chunkSize(20).chunkOverlap(0).delimiter(" ").build());
+        var file = Files.writeString(directory.resolve("content.txt"), CONTENT);
+
+        // when
+        List<FileChunk> chunks = new FileChunker(chunker).split(file);
+
+        // then
+        assertThat(chunks)
+                .extracting(FileChunk::content)
+                .containsExactlyElementsOf(chunker.splitSpans(CONTENT).stream()
+                        .map(ChunkSpan::toString)
+                        .toList());
+        assertThat(chunks)
+                .allSatisfy(chunk -> assertThat(CONTENT.substring((int) chunk.charStart(), (int) chunk.charEnd()))
+                        .isEqualTo(chunk.content()));
+    }
+
+    @Test
+    void testSplitFileSpanningSeveralWindowsIsTheSameAsSplit(@TempDir Path directory) throws IOException {
+        // given
+        var chunker = new FixedChunker(
+                Config.builder().chunkSize(120).chunkOverlap(40).delimiter(". ").build());
+        var content = IntStream.range(0, 6000)
+                .mapToObj(i -> "Sentence number " + i + " of a file larger than a window")
+                .collect(Collectors.joining(". "));
+        var file = Files.writeString(directory.resolve("content.txt"), content);
+
+        // when
+        List<Chunk> chunks = new FileChunker(chunker, 1000)
+                .split(file).stream().map(FileChunk::toChunk).toList();
+
+        // then
+        var expected = chunker.split(content);
+        assertThat(chunks).containsExactlyElementsOf(expected);
+        assertThat(chunks)
+                .extracting(Chunk::metadata)
+                .containsExactlyElementsOf(
+                        expected.stream().map(Chunk::metadata).toList());
+    }
+
     // @formatter:on
 
 }
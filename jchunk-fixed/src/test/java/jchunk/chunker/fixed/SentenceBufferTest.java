@@ -0,0 +1,78 @@
+package jchunk.chunker.fixed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SentenceBufferTest {
+
+    @Test
+    void testFirstInFirstOut() {
+        // given
+        var buffer = new SentenceBuffer();
+        buffer.addLast(0, 4);
+        buffer.addLast(5, 7);
+
+        // when
+        int removedLength = buffer.removeFirst();
+
+        // then
+        assertThat(removedLength).isEqualTo(4);
+        assertThat(buffer.size()).isOne();
+        assertThat(buffer.start(0)).isEqualTo(5);
+        assertThat(buffer.end(0)).isEqualTo(7);
+    }
+
+    @Test
+    void testRemoveFirstReturnsTheMeasuredLength() {
+        // given
+        var buffer = new SentenceBuffer();
+        buffer.addLast(0, 40, 7);
+
+        // when
+        int removedLength = buffer.removeFirst();
+
+        // then
+        assertThat(removedLength).isEqualTo(7);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testGrowKeepsOrderAfterWrappingAround() {
+        // given
+        var buffer = new SentenceBuffer();
+        for (int i = 0; i < 10; i++) {
+            buffer.addLast(i, i + 1);
+        }
+        for (int i = 0; i < 8; i++) {
+            buffer.removeFirst();
+        }
+
+        // when
+        for (int i = 10; i < 50; i++) {
+            buffer.addLast(i, i + 1);
+        }
+
+        // then
+        assertThat(buffer.size()).isEqualTo(42);
+        for (int i = 0; i < buffer.size(); i++) {
+            assertThat(buffer.start(i)).isEqualTo(i + 8);
+            assertThat(buffer.end(i)).isEqualTo(i + 9);
+        }
+    }
+
+    @Test
+    void testShift() {
+        // given
+        var buffer = new SentenceBuffer();
+        buffer.addLast(10, 14);
+        buffer.addLast(15, 20);
+
+        // when
+        buffer.shift(10);
+
+        // then
+        assertThat(buffer.start(0)).isZero();
+        assertThat(buffer.end(1)).isEqualTo(10);
+    }
+}
@@ -0,0 +1,299 @@
+package jchunk.chunker.reactive;
+
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import jchunk.chunker.core.batch.Document;
+import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.IChunker;
+
+/**
+ * {@link ChunkingProcessor} exposes a chunker as a {@link Flow.Processor} of documents into chunks,
+ * honoring the demand of its subscriber.
+ *
+ * <p>A document is only requested from upstream once the subscriber requests a chunk and the
+ * chunks of the previous document are exhausted, and the chunks of a document are pulled from the
+ * lazy {@link IChunker#stream stream} of the chunker one at a time, as they are requested. A
+ * chunker able to work on bounded windows of text (e.g. the semantic chunker, which embeds the
+ * sentences in batches) never holds all the chunks of a document.
+ *
+ * <p>The chunks are emitted in the order of the documents, the ids of the chunks of every document
+ * start at 0. A chunker failing on a document, including a failed assertion on its content, cancels
+ * the upstream subscription and is signalled to the subscriber with {@code onError}, it is never
+ * thrown to the caller of {@code onNext} or {@code request}. A single subscriber is supported.
+ *
+ * <p>The chunks are produced in the thread that signals the demand or the document, unless an
+ * executor is provided.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public class ChunkingProcessor implements Flow.Processor<Document, Chunk> {
+
+    private final Function<Document, Stream<Chunk>> chunker;
+
+    private final Executor executor;
+
+    private final Queue<Document> documents = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong requested = new AtomicLong();
+
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private final AtomicReference<Flow.Subscriber<? super Chunk>> downstream = new AtomicReference<>();
+
+    private final AtomicReference<Throwable> requestError = new AtomicReference<>();
+
+    private volatile Flow.Subscription upstream;
+
+    private volatile boolean subscribed;
+
+    private volatile boolean upstreamDone;
+
+    private volatile Throwable upstreamError;
+
+    private volatile boolean cancelled;
+
+    // accessed only while draining
+
+    private Stream<Chunk> stream;
+
+    private Iterator<Chunk> chunks;
+
+    private Chunk next;
+
+    private boolean awaitingDocument;
+
+    private boolean terminated;
+
+    public ChunkingProcessor(IChunker chunker) {
+        this(chunker, Runnable::run);
+    }
+
+    /**
+     * @param chunker the chunker of every document
+     * @param executor the executor the chunks are produced and emitted on
+     */
+    public ChunkingProcessor(IChunker chunker, Executor executor) {
+        assert chunker != null : "The chunker cannot be null";
+        assert executor != null : "The executor cannot be null";
+
+        this.chunker = document -> chunker.stream(new StringReader(document.content()));
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Chunk> subscriber) {
+        assert subscriber != null : "The subscriber cannot be null";
+
+        if (!downstream.compareAndSet(null, subscriber)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {}
+
+                @Override
+                public void cancel() {}
+            });
+            subscriber.onError(new IllegalStateException("ChunkingProcessor supports a single subscriber"));
+            return;
+        }
+
+        subscriber.onSubscribe(new ChunkSubscription());
+        subscribed = true;
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (upstream != null || cancelled) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        drain();
+    }
+
+    @Override
+    public void onNext(Document document) {
+        documents.add(document);
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        upstreamError = error;
+        upstreamDone = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    /** Schedules a drain, unless one is already running, in which case it drains once more. */
+    private void drain() {
+        if (wip.getAndIncrement() == 0) {
+            executor.execute(this::drainLoop);
+        }
+    }
+
+    private void drainLoop() {
+        int missed = 1;
+        do {
+            if (!terminated) {
+                emit();
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Emits as many chunks as requested, pulling the next document once the current one is
+     * exhausted, and signals the end of the flow once every document is chunked.
+     */
+    private void emit() {
+        if (!subscribed) {
+            return;
+        }
+        var subscriber = downstream.get();
+
+        while (true) {
+            if (cancelled) {
+                terminate();
+                return;
+            }
+
+            var error = requestError.get();
+            if (error != null) {
+                fail(subscriber, error);
+                return;
+            }
+
+            if (chunks == null) {
+                var document = documents.poll();
+                if (document == null) {
+                    if (upstreamDone) {
+                        terminated = true;
+                        if (upstreamError != null) {
+                            subscriber.onError(upstreamError);
+                        } else {
+                            subscriber.onComplete();
+                        }
+                    } else if (requested.get() > 0 && upstream != null && !awaitingDocument) {
+                        awaitingDocument = true;
+                        upstream.request(1);
+                        continue;
+                    }
+                    return;
+                }
+
+                awaitingDocument = false;
+                try {
+                    stream = chunker.apply(document);
+                    chunks = stream.iterator();
+                } catch (Throwable e) {
+                    fail(subscriber, e);
+                    return;
+                }
+            }
+
+            if (next == null) {
+                // without demand, a chunk is only pulled ahead to find out if the flow is over
+                if (requested.get() == 0 && !(upstreamDone && documents.isEmpty())) {
+                    return;
+                }
+                if (!pull(subscriber)) {
+                    return;
+                }
+                if (next == null) {
+                    closeStream();
+                    continue;
+                }
+            }
+
+            if (requested.get() == 0) {
+                return;
+            }
+
+            if (requested.get() != Long.MAX_VALUE) {
+                requested.decrementAndGet();
+            }
+            var chunk = next;
+            next = null;
+            subscriber.onNext(chunk);
+        }
+    }
+
+    /**
+     * Pulls the next chunk of the current document.
+     *
+     * @param subscriber the subscriber the failure of the chunker is signalled to
+     * @return whether the chunker did not fail, {@code next} is {@code null} if the document is
+     *     exhausted
+     */
+    private boolean pull(Flow.Subscriber<? super Chunk> subscriber) {
+        try {
+            next = chunks.hasNext() ? chunks.next() : null;
+            return true;
+        } catch (Throwable e) {
+            fail(subscriber, e);
+            return false;
+        }
+    }
+
+    private void fail(Flow.Subscriber<? super Chunk> subscriber, Throwable error) {
+        terminate();
+        subscriber.onError(error);
+    }
+
+    private void terminate() {
+        terminated = true;
+        closeStream();
+        documents.clear();
+        if (upstream != null) {
+            upstream.cancel();
+        }
+    }
+
+    private void closeStream() {
+        if (stream != null) {
+            stream.close();
+        }
+        stream = null;
+        chunks = null;
+        next = null;
+    }
+
+    /** The subscription of the subscriber of the chunks. */
+    private final class ChunkSubscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                requestError.compareAndSet(
+                        null, new IllegalArgumentException("The number of requested chunks must be positive"));
+            } else {
+                requested.accumulateAndGet(n, (current, added) -> {
+                    long total = current + added;
+                    return total < 0 ? Long.MAX_VALUE : total;
+                });
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+    }
+}
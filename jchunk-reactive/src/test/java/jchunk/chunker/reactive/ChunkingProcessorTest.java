@@ -0,0 +1,308 @@
+package jchunk.chunker.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import jchunk.chunker.core.batch.Document;
+import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.IChunker;
+import org.junit.jupiter.api.Test;
+
+class ChunkingProcessorTest {
+
+    private static final IChunker WORD_CHUNKER = content -> {
+        var chunks = new ArrayList<Chunk>();
+        var words = content.split(" ");
+        for (int i = 0; i < words.length; i++) {
+            if (words[i].equals("boom")) {
+                throw new IllegalArgumentException("boom");
+            }
+            chunks.add(new Chunk(i, words[i]));
+        }
+        return chunks;
+    };
+
+    @Test
+    void testEmitsTheChunksOfEveryDocumentInOrder() {
+        // given
+        var publisher = new DocumentPublisher(new Document("a", "one two"), new Document("b", "three"));
+        var processor = new ChunkingProcessor(WORD_CHUNKER);
+        var subscriber = new ChunkSubscriber();
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+
+        // when
+        subscriber.request(Long.MAX_VALUE);
+
+        // then
+        assertThat(subscriber.chunks).containsExactly(new Chunk(0, "one"), new Chunk(1, "two"), new Chunk(0, "three"));
+        assertThat(subscriber.completed).isTrue();
+        assertThat(subscriber.error).isNull();
+    }
+
+    @Test
+    void testHonorsTheDemandOfTheSubscriber() {
+        // given
+        var publisher = new DocumentPublisher(
+                new Document("a", "one two three"), new Document("b", "four"), new Document("c", "five"));
+        var processor = new ChunkingProcessor(WORD_CHUNKER);
+        var subscriber = new ChunkSubscriber();
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+
+        // when
+        subscriber.request(2);
+
+        // then
+        assertThat(subscriber.chunks).extracting(Chunk::content).containsExactly("one", "two");
+        assertThat(publisher.requested).isEqualTo(1);
+
+        // when
+        subscriber.request(2);
+
+        // then
+        assertThat(subscriber.chunks).extracting(Chunk::content).containsExactly("one", "two", "three", "four");
+        assertThat(publisher.requested).isEqualTo(2);
+        assertThat(subscriber.completed).isFalse();
+    }
+
+    @Test
+    void testCompletesWithoutDemandOnceTheChunksAreExhausted() {
+        // given
+        var publisher = new DocumentPublisher(new Document("a", "one two"));
+        var processor = new ChunkingProcessor(WORD_CHUNKER);
+        var subscriber = new ChunkSubscriber();
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+
+        // when
+        subscriber.request(2);
+
+        // then
+        assertThat(subscriber.chunks).hasSize(2);
+        assertThat(subscriber.completed).isTrue();
+    }
+
+    @Test
+    void testChunkerFailuresCancelTheUpstream() {
+        // given
+        var publisher = new DocumentPublisher(new Document("a", "one boom"), new Document("b", "two"));
+        var processor = new ChunkingProcessor(WORD_CHUNKER);
+        var subscriber = new ChunkSubscriber();
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+
+        // when
+        subscriber.request(Long.MAX_VALUE);
+
+        // then
+        assertThat(subscriber.chunks).isEmpty();
+        assertThat(subscriber.error)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("boom");
+        assertThat(publisher.cancelled).isTrue();
+        assertThat(subscriber.completed).isFalse();
+    }
+
+    @Test
+    void testFailedAssertionsAreSignalledAsErrors() {
+        // given
+        IChunker chunker = content -> {
+            assert content.contains(" ") : "The content must have more than one word";
+            return WORD_CHUNKER.split(content);
+        };
+        var publisher = new DocumentPublisher(new Document("a", "one two"), new Document("b", "three"));
+        var processor = new ChunkingProcessor(chunker);
+        var subscriber = new ChunkSubscriber();
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+
+        // when
+        subscriber.request(Long.MAX_VALUE);
+
+        // then
+        assertThat(subscriber.chunks).extracting(Chunk::content).containsExactly("one", "two");
+        assertThat(subscriber.error)
+                .isInstanceOf(AssertionError.class)
+                .hasMessage("The content must have more than one word");
+        assertThat(publisher.cancelled).isTrue();
+        assertThat(subscriber.completed).isFalse();
+    }
+
+    @Test
+    void testCancelStopsTheFlow() {
+        // given
+        var publisher = new DocumentPublisher(new Document("a", "one two"), new Document("b", "three"));
+        var processor = new ChunkingProcessor(WORD_CHUNKER);
+        var subscriber = new ChunkSubscriber();
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+        subscriber.request(1);
+
+        // when
+        subscriber.subscription.cancel();
+        subscriber.request(5);
+
+        // then
+        assertThat(subscriber.chunks).extracting(Chunk::content).containsExactly("one");
+        assertThat(publisher.cancelled).isTrue();
+        assertThat(subscriber.completed).isFalse();
+    }
+
+    @Test
+    void testNonPositiveRequestsAreSignalledAsErrors() {
+        // given
+        var publisher = new DocumentPublisher(new Document("a", "one"));
+        var processor = new ChunkingProcessor(WORD_CHUNKER);
+        var subscriber = new ChunkSubscriber();
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+
+        // when
+        subscriber.request(0);
+
+        // then
+        assertThat(subscriber.error).isInstanceOf(IllegalArgumentException.class);
+        assertThat(publisher.cancelled).isTrue();
+    }
+
+    @Test
+    void testASecondSubscriberIsRejected() {
+        // given
+        var processor = new ChunkingProcessor(WORD_CHUNKER);
+        processor.subscribe(new ChunkSubscriber());
+        var second = new ChunkSubscriber();
+
+        // when
+        processor.subscribe(second);
+
+        // then
+        assertThat(second.subscription).isNotNull();
+        assertThat(second.error)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("ChunkingProcessor supports a single subscriber");
+    }
+
+    @Test
+    void testChunksAsynchronousPublishers() throws InterruptedException {
+        // given
+        var done = new CountDownLatch(1);
+        var received = new AtomicInteger();
+        try (var executor = Executors.newFixedThreadPool(2);
+                var publisher = new SubmissionPublisher<Document>(executor, 2)) {
+            var processor = new ChunkingProcessor(WORD_CHUNKER, executor);
+            publisher.subscribe(processor);
+            processor.subscribe(new ChunkSubscriber() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    super.onSubscribe(subscription);
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(Chunk chunk) {
+                    received.incrementAndGet();
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onComplete() {
+                    done.countDown();
+                }
+            });
+
+            // when
+            for (int i = 0; i < 50; i++) {
+                publisher.submit(new Document(String.valueOf(i), "one two three"));
+            }
+            publisher.close();
+
+            // then
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(received).hasValue(150);
+        }
+    }
+
+    /** Publishes the documents one by one, as they are requested. */
+    private static class DocumentPublisher implements Flow.Publisher<Document> {
+
+        private final List<Document> documents;
+
+        private int requested = 0;
+
+        private boolean cancelled = false;
+
+        DocumentPublisher(Document... documents) {
+            this.documents = List.of(documents);
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super Document> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private int next = 0;
+
+                private boolean completed = false;
+
+                @Override
+                public void request(long n) {
+                    for (long i = 0; i < n && next < documents.size() && !cancelled; i++) {
+                        requested++;
+                        subscriber.onNext(documents.get(next++));
+                    }
+                    if (next == documents.size() && !cancelled && !completed) {
+                        completed = true;
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+    }
+
+    /** Records the signals it receives, requesting only what the test asks for. */
+    private static class ChunkSubscriber implements Flow.Subscriber<Chunk> {
+
+        protected Flow.Subscription subscription;
+
+        private final List<Chunk> chunks = new ArrayList<>();
+
+        private Throwable error;
+
+        private boolean completed = false;
+
+        void request(long n) {
+            subscription.request(n);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Chunk chunk) {
+            chunks.add(chunk);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package jchunk.chunker.recursive;
 import java.util.ArrayList;
 import java.util.List;
 import jchunk.chunker.Delimiter;
+import jchunk.chunker.core.length.LengthFunction;
 
 /**
  * {@link Config} is a class that holds the configuration for the {@link RecursiveCharacterChunker}.
@@ -10,7 +11,17 @@ import jchunk.chunker.Delimiter;
  * @author Pablo Sanchidrian Herrera
  */
 public record Config(
-        int chunkSize, int chunkOverlap, List<String> delimiters, Delimiter keepDelimiter, boolean trimWhiteSpace) {
+        int chunkSize,
+        int chunkOverlap,
+        List<String> delimiters,
+        Delimiter keepDelimiter,
+        boolean trimWhiteSpace,
+        LengthFunction lengthFunction) {
+
+    public Config(
+            int chunkSize, int chunkOverlap, List<String> delimiters, Delimiter keepDelimiter, boolean trimWhiteSpace) {
+        this(chunkSize, chunkOverlap, delimiters, keepDelimiter, trimWhiteSpace, LengthFunction.characters());
+    }
 
     /**
      * @return the default config
@@ -35,6 +46,8 @@ public record Config(
 
         private boolean trimWhitespace = true;
 
+        private LengthFunction lengthFunction = LengthFunction.characters();
+
         public Builder chunkSize(int chunkSize) {
             this.chunkSize = chunkSize;
             return this;
@@ -60,12 +73,25 @@ public record Config(
             return this;
         }
 
+        /**
+         * Sets the function measuring the chunk size and overlap, e.g. a tokenizer to express them in
+         * model tokens. Characters are counted by default.
+         *
+         * @param lengthFunction the length function
+         * @return the builder
+         */
+        public Builder lengthFunction(LengthFunction lengthFunction) {
+            this.lengthFunction = lengthFunction;
+            return this;
+        }
+
         public Config build() {
             assert chunkSize > 0 : "Chunk size must be greater than 0";
             assert chunkOverlap >= 0 : "Chunk overlap must be greater than or equal to 0";
             assert chunkSize > chunkOverlap : "Chunk size must be greater than chunk overlap";
+            assert lengthFunction != null : "Length function cannot be null";
 
-            return new Config(chunkSize, chunkOverlap, delimiters, keepDelimiter, trimWhitespace);
+            return new Config(chunkSize, chunkOverlap, delimiters, keepDelimiter, trimWhitespace, lengthFunction);
         }
     }
 }
@@ -0,0 +1,112 @@
+package jchunk.chunker.recursive;
+
+import java.util.regex.Pattern;
+
+/**
+ * Matcher of a single delimiter, compiled once when the chunker is created. Delimiters without
+ * regex metacharacters are matched with a plain index search, the rest are precompiled into a
+ * {@link Pattern}.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+sealed interface DelimiterMatcher {
+
+    String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    /**
+     * Compiles the delimiter into the cheapest matcher able to find it.
+     *
+     * @param delimiter the delimiter, either a literal or a regex
+     * @return the matcher of the delimiter
+     */
+    static DelimiterMatcher of(String delimiter) {
+        for (int i = 0; i < delimiter.length(); i++) {
+            if (REGEX_METACHARACTERS.indexOf(delimiter.charAt(i)) >= 0) {
+                return new Regex(delimiter, Pattern.compile(delimiter));
+            }
+        }
+        return new Literal(delimiter);
+    }
+
+    /** {@return the delimiter as it was configured} */
+    String delimiter();
+
+    /** {@return whether the delimiter is empty, which splits the content into characters} */
+    default boolean isEmpty() {
+        return delimiter().isEmpty();
+    }
+
+    /**
+     * @param content the content to look into
+     * @param start the start of the region to look into
+     * @param end the end of the region to look into
+     * @return whether the delimiter is found in the {@code [start, end)} region of the content
+     */
+    boolean find(String content, int start, int end);
+
+    /**
+     * Finds every non-overlapping match of the delimiter in the {@code [start, end)} region of the
+     * content, from left to right.
+     *
+     * @param content the content to look into
+     * @param start the start of the region to look into
+     * @param end the end of the region to look into
+     * @param consumer the consumer of the {@code [start, end)} offsets of every match
+     */
+    void forEachMatch(String content, int start, int end, MatchConsumer consumer);
+
+    /** Receives the {@code [start, end)} offsets of the matches of a delimiter. */
+    @FunctionalInterface
+    interface MatchConsumer {
+
+        void accept(int start, int end);
+    }
+
+    /**
+     * Delimiter matched literally.
+     *
+     * @param delimiter the delimiter
+     */
+    record Literal(String delimiter) implements DelimiterMatcher {
+
+        @Override
+        public boolean find(String content, int start, int end) {
+            return delimiter.isEmpty() ? start < end : content.indexOf(delimiter, start, end) >= 0;
+        }
+
+        @Override
+        public void forEachMatch(String content, int start, int end, MatchConsumer consumer) {
+            if (delimiter.isEmpty()) {
+                return;
+            }
+
+            int match = content.indexOf(delimiter, start, end);
+            while (match >= 0) {
+                consumer.accept(match, match + delimiter.length());
+                match = content.indexOf(delimiter, match + delimiter.length(), end);
+            }
+        }
+    }
+
+    /**
+     * Delimiter matched as a precompiled regex.
+     *
+     * @param delimiter the delimiter
+     * @param pattern the compiled delimiter
+     */
+    record Regex(String delimiter, Pattern pattern) implements DelimiterMatcher {
+
+        @Override
+        public boolean find(String content, int start, int end) {
+            return pattern.matcher(content).region(start, end).find();
+        }
+
+        @Override
+        public void forEachMatch(String content, int start, int end, MatchConsumer consumer) {
+            var matcher = pattern.matcher(content).region(start, end);
+            while (matcher.find()) {
+                consumer.accept(matcher.start(), matcher.end());
+            }
+        }
+    }
+}
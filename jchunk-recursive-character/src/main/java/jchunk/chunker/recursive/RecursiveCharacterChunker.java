@@ -1,189 +1,383 @@
 package jchunk.chunker.recursive;
 
+import java.io.Reader;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
-import java.util.regex.Pattern;
-import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import jchunk.chunker.Delimiter;
 import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.ChunkMetadata;
+import jchunk.chunker.core.chunk.ChunkSpan;
 import jchunk.chunker.core.chunk.IChunker;
+import jchunk.chunker.core.chunk.ISpanChunker;
+import jchunk.chunker.core.length.LengthFunction;
+import jchunk.chunker.core.stream.ChunkStreams;
+import jchunk.chunker.core.stream.TextWindowReader;
 
 /**
  * {@link RecursiveCharacterChunker} is a class that implements the {@link IChunker} interface and
  * splits a text into chunks recursively with the given separators.
  *
+ * <p>Splits are handled as {@code [start, end)} offsets over the content, so the text is only
+ * copied once per generated chunk. The delimiters are compiled once into {@link DelimiterMatcher
+ * matchers} when the chunker is created, and every region keeps track of the delimiters it can
+ * still use with a bit set over them. The recursion is unrolled into a stack of pending tasks.
+ *
+ * <p>Sizes are measured with the {@link LengthFunction} of the config. Every split is measured once
+ * when it is found, and its length travels with its offsets until it is merged.
+ *
+ * <p>Every chunk carries its {@link ChunkMetadata}: its offsets in the content (the ones of its
+ * span), its length as measured while merging it, the position of the delimiter it was split by
+ * (the number of delimiters when it was sliced by characters) and the characters it shares with
+ * the previous chunk.
+ *
  * @author Pablo Sanchidrian Herrera
  */
-public class RecursiveCharacterChunker implements IChunker {
+public class RecursiveCharacterChunker implements ISpanChunker {
 
     private static final Logger logger = Logger.getLogger(RecursiveCharacterChunker.class.getName());
 
     private static final String LONGER_THAN_THE_SPECIFIED =
             "Created a chunk of size %d, which is longer than the specified %d";
 
+    private static final int WINDOW_CHUNKS = 16;
+
     private final Config config;
 
+    private final List<DelimiterMatcher> matchers;
+
+    private final LengthFunction lengthFunction;
+
     public RecursiveCharacterChunker() {
         this(Config.defaultConfig());
     }
 
     public RecursiveCharacterChunker(Config config) {
         this.config = config;
+        this.matchers = config.delimiters().stream().map(DelimiterMatcher::of).toList();
+        this.lengthFunction = config.lengthFunction();
     }
 
     @Override
     public List<Chunk> split(String content) {
-        return splitContent(content, config.delimiters(), new AtomicInteger(0));
+        return splitContent(content, this::createChunk);
+    }
+
+    @Override
+    public List<ChunkSpan> splitSpans(String content) {
+        return splitContent(content, RecursiveCharacterChunker::createSpan);
+    }
+
+    /** {@return the bit set selecting every delimiter of the config} */
+    private BitSet allDelimiters() {
+        var delimiters = new BitSet(matchers.size());
+        delimiters.set(0, matchers.size());
+        return delimiters;
+    }
+
+    /**
+     * Splits the content read from the reader into chunks. The reader is consumed in windows cut at
+     * the last occurrence of the first delimiter (in the config order) found in the window, and every
+     * window is split on its own.
+     *
+     * @param reader the source of the content to be split, it is not closed by this method
+     * @return a lazy stream of chunks
+     */
+    @Override
+    public Stream<Chunk> stream(Reader reader) {
+        var windowSize = Math.max(TextWindowReader.DEFAULT_WINDOW_SIZE, config.chunkSize() * WINDOW_CHUNKS);
+        var windows = new TextWindowReader(reader, windowSize, this::lastBoundary);
+
+        return ChunkStreams.windowed(windows, this::split);
+    }
+
+    /**
+     * Finds the last position of the text where it can be cut, using the first delimiter of the list
+     * that matches the text.
+     *
+     * @param text the text to look into
+     * @return the cut position, or -1 if none of the delimiters matches the text
+     */
+    @Override
+    public int lastBoundary(String text) {
+        var boundary = new int[] {-1};
+        for (DelimiterMatcher matcher : matchers) {
+            if (matcher.isEmpty()) {
+                continue;
+            }
+
+            matcher.forEachMatch(
+                    text,
+                    0,
+                    text.length(),
+                    (start, end) -> boundary[0] = config.keepDelimiter() == Delimiter.START ? start : end);
+
+            if (boundary[0] > 0) {
+                return boundary[0];
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Splits the content into chunks. The recursion over the delimiters is driven by an explicit
+     * stack of {@link Task tasks}, so deeply nested regions do not grow the call stack, and every
+     * chunk is added to a single list as soon as it is created.
+     *
+     * @param content the content to split
+     * @param factory the factory of the generated chunks
+     * @return the list of chunks
+     */
+    private <T> List<T> splitContent(String content, ChunkFactory<T> factory) {
+        var chunks = new ChunkCollector<>(content, factory);
+        Deque<Task> tasks = new ArrayDeque<>();
+        tasks.push(new Region(0, content.length(), allDelimiters()));
+
+        while (!tasks.isEmpty()) {
+            switch (tasks.pop()) {
+                case Region region -> splitRegion(content, region, tasks, chunks);
+                case Sentences sentences -> mergeSentences(
+                        sentences.sentences(), sentences.delimiter(), sentences.level(), chunks);
+                case Oversized oversized -> chunks.add(
+                        List.of(oversized.split()),
+                        oversized.delimiter(),
+                        oversized.split()[2],
+                        oversized.level());
+            }
+        }
+
+        return chunks.chunks;
     }
 
     /**
-     * Splits the content into chunks.
+     * Splits a region of the content with its best matching delimiter. The resulting work (merging
+     * the splits that fit in a chunk and splitting further the ones that do not) is pushed to the
+     * stack so that it is processed next, in the content order.
      *
      * @param content the content to split
-     * @param delimiters the list of delimiters to split the content
-     * @param index the index of the chunk
-     * @return the list of chunks {@link Chunk}
+     * @param region the region to split
+     * @param tasks the stack of pending tasks
+     * @param chunks the collector of the generated chunks
      */
     @SuppressWarnings("java:S3776")
-    private List<Chunk> splitContent(String content, List<String> delimiters, AtomicInteger index) {
-        var newDelimiters = new ArrayList<>(delimiters);
-        var delimiter = getBestMatchingDelimiter(content, newDelimiters);
+    private <T> void splitRegion(String content, Region region, Deque<Task> tasks, ChunkCollector<T> chunks) {
+        var best = getBestMatchingDelimiter(content, region.start(), region.end(), region.delimiters());
+        if (best < 0 || matchers.get(best).isEmpty()) {
+            mergeCharacters(content, region.start(), region.end(), best < 0 ? matchers.size() : best, chunks);
+            return;
+        }
 
-        var splits = splitWithDelimiter(content, delimiter);
+        var matcher = matchers.get(best);
+        var newDelimiters = (BitSet) region.delimiters().clone();
+        newDelimiters.clear(best);
+        var delimiterToUse = config.keepDelimiter() != Delimiter.NONE ? "" : matcher.delimiter();
 
-        var goodSplits = new ArrayList<String>();
-        var delimiterToUse = config.keepDelimiter() != Delimiter.NONE ? "" : delimiter;
+        var splits = splitWithDelimiter(content, region.start(), region.end(), matcher);
 
-        var chunks = new ArrayList<Chunk>();
+        var work = new ArrayList<Task>();
+        var goodSplits = new ArrayList<int[]>();
 
-        for (String split : splits) {
-            if (split.length() < config.chunkSize()) {
+        for (int[] split : splits) {
+            if (split[2] < config.chunkSize()) {
                 goodSplits.add(split);
             } else {
                 if (!goodSplits.isEmpty()) {
-                    var generatedChunks = mergeSentences(goodSplits, delimiterToUse, index);
-                    chunks.addAll(generatedChunks);
-                    goodSplits.clear();
+                    work.add(new Sentences(goodSplits, delimiterToUse, best));
+                    goodSplits = new ArrayList<>();
                 }
 
                 if (newDelimiters.isEmpty()) {
-                    Chunk chunk = Chunk.builder()
-                            .id(index.getAndIncrement())
-                            .content(config.trimWhiteSpace() ? split.trim() : split)
-                            .build();
-                    chunks.add(chunk);
+                    work.add(new Oversized(split, delimiterToUse, best));
                 } else {
-                    List<Chunk> generatedChunks = splitContent(split, newDelimiters, index);
-                    chunks.addAll(generatedChunks);
+                    work.add(new Region(split[0], split[1], newDelimiters));
                 }
             }
         }
 
         if (!goodSplits.isEmpty()) {
-            List<Chunk> generatedChunks = mergeSentences(goodSplits, delimiterToUse, index);
-            chunks.addAll(generatedChunks);
+            work.add(new Sentences(goodSplits, delimiterToUse, best));
         }
 
-        return chunks;
+        for (int i = work.size() - 1; i >= 0; i--) {
+            tasks.push(work.get(i));
+        }
     }
 
     /**
-     * Get the best matching delimiter from right to left in the delimiter list from the given config
+     * Get the best matching delimiter, the first one in the config order that is found in the region
      *
      * @param content the content to split
-     * @param delimiters the list of delimiters to check
-     * @return the best matching delimiter and modifies the reference value of the given list
+     * @param start the start of the region to look into
+     * @param end the end of the region to look into
+     * @param delimiters the bit set of the delimiters to check
+     * @return the position of the best matching delimiter in the config, or -1 if none is found
      */
-    private String getBestMatchingDelimiter(String content, List<String> delimiters) {
-        for (Iterator<String> iterator = delimiters.iterator(); iterator.hasNext(); ) {
-            String delimiter = iterator.next();
-
-            if (delimiter.isEmpty()) {
-                delimiters.clear();
-                return delimiter;
-            }
+    private int getBestMatchingDelimiter(String content, int start, int end, BitSet delimiters) {
+        for (int i = delimiters.nextSetBit(0); i >= 0; i = delimiters.nextSetBit(i + 1)) {
+            var matcher = matchers.get(i);
 
-            if (Pattern.compile(delimiter).matcher(content).find()) {
-                iterator.remove();
-                return delimiter;
+            if (matcher.isEmpty() || matcher.find(content, start, end)) {
+                return i;
             }
         }
 
-        return "";
+        return -1;
     }
 
     /**
-     * Splits the content into sentences using the delimiter.
+     * Splits the {@code [start, end)} region of the content into sentences using the delimiter. Blank
+     * sentences are discarded.
+     *
+     * <ul>
+     *   <li>{@link Delimiter#START}: the delimiter is kept at the start of the next sentence
+     *   <li>{@link Delimiter#END}: the delimiter is kept at the end of the previous sentence
+     *   <li>{@link Delimiter#NONE}: the delimiter is dropped
+     * </ul>
      *
      * @param content the content to split
-     * @param delimiter the delimiter to split the content.
-     * @return a list of split sentences
+     * @param start the start of the region to split
+     * @param end the end of the region to split
+     * @param delimiter the matcher of a non-empty delimiter to split the content.
+     * @return a list of {@code [start, end)} offsets of the split sentences, followed by their length
      */
-    private List<String> splitWithDelimiter(String content, String delimiter) {
-        if (delimiter.isEmpty()) {
-            return content.chars().mapToObj(c -> String.valueOf((char) c)).toList();
-        }
+    private List<int[]> splitWithDelimiter(String content, int start, int end, DelimiterMatcher delimiter) {
+        var splits = new ArrayList<int[]>();
+        var keepDelimiter = config.keepDelimiter();
+        var splitStart = new int[] {start};
+
+        delimiter.forEachMatch(content, start, end, (matchStart, matchEnd) -> {
+            if (matchStart == matchEnd) {
+                return;
+            }
 
-        String withDelimiter = "((?<=%1$s)|(?=%1$s))";
-        List<String> preSplits = new ArrayList<>(List.of(content.split(String.format(withDelimiter, delimiter))));
+            var splitEnd = keepDelimiter == Delimiter.END ? matchEnd : matchStart;
+            addIfNotBlank(splits, content, splitStart[0], splitEnd);
+            splitStart[0] = keepDelimiter == Delimiter.START ? matchStart : matchEnd;
+        });
+        addIfNotBlank(splits, content, splitStart[0], end);
+
+        return splits;
+    }
 
-        return config.keepDelimiter() == Delimiter.START
-                ? splitWithDelimiterStart(preSplits)
-                : splitWithDelimiterEnd(preSplits);
+    private void addIfNotBlank(List<int[]> splits, String content, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(content.charAt(i))) {
+                splits.add(new int[] {start, end, lengthFunction.length(content, start, end)});
+                return;
+            }
+        }
     }
 
     /**
-     * Splits the content into sentences using the delimiter at the start of each sentence. {@link
-     * Delimiter#START}
+     * Splits the {@code [start, end)} region of the content by characters, the last resort when no
+     * delimiter matches. Every chunk takes the longest slice measuring at most {@code chunkSize}
+     * (and at least one character), and starts with the longest tail of the previous one measuring at
+     * most {@code chunkOverlap}, so chunks are sliced straight out of the region instead of handling
+     * every character as a sentence. When lengths are counted in characters this is a fixed stride of
+     * {@code chunkSize - chunkOverlap}.
      *
-     * @param preSplits pre-splits by the delimiter
-     * @return the list of split sentences
+     * @param content the content to split
+     * @param start the start of the region to split
+     * @param end the end of the region to split
+     * @param level the position of the delimiter the region is split by
+     * @param chunks the collector of the generated chunks
      */
-    private List<String> splitWithDelimiterStart(List<String> preSplits) {
-        var splits = new ArrayList<String>();
-
-        splits.add(preSplits.getFirst());
-        IntStream.range(1, preSplits.size() - 1)
-                .filter(i -> i % 2 == 1)
-                .forEach(i -> splits.add(preSplits.get(i).concat(preSplits.get(i + 1))));
+    private <T> void mergeCharacters(String content, int start, int end, int level, ChunkCollector<T> chunks) {
+        if (start == end) {
+            return;
+        }
 
-        return splits.stream().filter(s -> !s.isBlank()).toList();
+        for (int from = start; ; ) {
+            var to = longestSliceEnd(content, from, end);
+            chunks.add(List.<int[]>of(new int[] {from, to}), "", lengthFunction.length(content, from, to), level);
+            if (to == end) {
+                return;
+            }
+            from = Math.max(from + 1, shortestOverlapStart(content, from, to));
+        }
     }
 
     /**
-     * Splits the content into sentences using the delimiter at the end of each sentence. {@link
-     * Delimiter#END}
+     * Finds the end of the longest slice starting at {@code from} that fits in a chunk. The slice is
+     * grown exponentially and then narrowed with a binary search, so the length function is only
+     * applied to about twice the text of the slice.
      *
-     * @param preSplits the pre-splits by the delimiter
-     * @return the list of split sentences
+     * @param content the content to slice
+     * @param from the start of the slice
+     * @param end the end of the region the slice belongs to
+     * @return the end of the slice, at least {@code from + 1}
      */
-    private List<String> splitWithDelimiterEnd(List<String> preSplits) {
-        var splits = new ArrayList<String>();
+    private int longestSliceEnd(String content, int from, int end) {
+        var fits = from + 1;
+        var overflows = end + 1;
+        for (long size = 2; fits < end; size <<= 1) {
+            var candidate = (int) Math.min(end, from + size);
+            if (lengthFunction.length(content, from, candidate) > config.chunkSize()) {
+                overflows = candidate;
+                break;
+            }
+            fits = candidate;
+        }
 
-        IntStream.range(0, preSplits.size() - 1)
-                .filter(i -> i % 2 == 0)
-                .forEach(i -> splits.add(preSplits.get(i).concat(preSplits.get(i + 1))));
-        splits.add(preSplits.getLast());
+        while (overflows - fits > 1) {
+            var middle = (fits + overflows) >>> 1;
+            if (lengthFunction.length(content, from, middle) <= config.chunkSize()) {
+                fits = middle;
+            } else {
+                overflows = middle;
+            }
+        }
+        return fits;
+    }
 
-        return splits.stream().filter(s -> !s.isBlank()).toList();
+    /**
+     * Finds the start of the longest tail of the {@code [from, to)} slice that fits in the overlap.
+     *
+     * @param content the content to slice
+     * @param from the start of the slice
+     * @param to the end of the slice
+     * @return the start of the tail, {@code to} when there is no overlap
+     */
+    private int shortestOverlapStart(String content, int from, int to) {
+        var fits = to;
+        var overflows = from - 1;
+        for (long size = 1; fits > from; size <<= 1) {
+            var candidate = (int) Math.max(from, to - size);
+            if (lengthFunction.length(content, candidate, to) > config.chunkOverlap()) {
+                overflows = candidate;
+                break;
+            }
+            fits = candidate;
+        }
+
+        while (fits - overflows > 1) {
+            var middle = (fits + overflows) >>> 1;
+            if (lengthFunction.length(content, middle, to) <= config.chunkOverlap()) {
+                fits = middle;
+            } else {
+                overflows = middle;
+            }
+        }
+        return fits;
     }
 
     /**
      * Merges the sentences into chunks.
      *
-     * @param sentences the sentences to merge
-     * @return list of chunks
+     * @param sentences the {@code [start, end)} offsets of the sentences to merge, followed by their
+     *     length
+     * @param delimiter the delimiter to join the sentences
+     * @param level the position of the delimiter the sentences were split by
+     * @param chunks the collector of the generated chunks
      */
-    private List<Chunk> mergeSentences(List<String> sentences, String delimiter, AtomicInteger index) {
-
+    private <T> void mergeSentences(List<int[]> sentences, String delimiter, int level, ChunkCollector<T> chunks) {
         var currentLen = 0;
-        var delimiterLen = delimiter.length();
-        var chunks = new ArrayList<Chunk>();
-        var currentChunk = new LinkedList<String>();
+        var delimiterLen = lengthFunction.length(delimiter);
+        var currentChunk = new ArrayDeque<int[]>();
 
-        for (String sentence : sentences) {
-            int sentenceLength = sentence.length();
+        for (int[] sentence : sentences) {
+            int sentenceLength = sentence[2];
 
             if (currentLen + sentenceLength + (currentChunk.isEmpty() ? 0 : delimiterLen) > config.chunkSize()) {
 
@@ -193,7 +387,7 @@ public class RecursiveCharacterChunker implements IChunker {
                 }
 
                 if (!currentChunk.isEmpty()) {
-                    addChunk(chunks, currentChunk, delimiter, index);
+                    chunks.add(currentChunk, delimiter, currentLen, level);
                     currentLen = adjustCurrentChunkForOverlap(currentChunk, currentLen, delimiterLen);
                 }
             }
@@ -203,27 +397,8 @@ public class RecursiveCharacterChunker implements IChunker {
         }
 
         if (!currentChunk.isEmpty()) {
-            addChunk(chunks, currentChunk, delimiter, index);
+            chunks.add(currentChunk, delimiter, currentLen, level);
         }
-
-        return chunks;
-    }
-
-    /**
-     * Adds the chunk to the list of chunks.
-     *
-     * @param chunks the list of chunks
-     * @param currentChunk the current chunk
-     * @param delimiter the delimiter
-     * @param index the index of the chunk
-     */
-    private void addChunk(List<Chunk> chunks, Deque<String> currentChunk, String delimiter, AtomicInteger index) {
-        var generatedSentence = joinSentences(new ArrayList<>(currentChunk), delimiter);
-        var chunk = Chunk.builder()
-                .id(index.getAndIncrement())
-                .content(generatedSentence)
-                .build();
-        chunks.add(chunk);
     }
 
     /**
@@ -234,26 +409,154 @@ public class RecursiveCharacterChunker implements IChunker {
      * @param delimiterLen the length of the delimiter
      * @return the adjusted length of the chunk
      */
-    private int adjustCurrentChunkForOverlap(Deque<String> currentChunk, int currentLen, int delimiterLen) {
+    private int adjustCurrentChunkForOverlap(Deque<int[]> currentChunk, int currentLen, int delimiterLen) {
         while (currentLen > config.chunkOverlap() && !currentChunk.isEmpty()) {
-            currentLen -= currentChunk.removeFirst().length() + (currentChunk.isEmpty() ? 0 : delimiterLen);
+            var removed = currentChunk.removeFirst();
+            currentLen -= removed[2] + (currentChunk.isEmpty() ? 0 : delimiterLen);
         }
         return currentLen;
     }
 
     /**
-     * Joins the sentences into a single sentence.
+     * Creates a chunk joining the sentences with the delimiter.
      *
-     * @param sentences the sentences to join
+     * @param span the span covering the sentences
+     * @param sentences the {@code [start, end)} offsets of the sentences
+     * @param delimiter the delimiter to join the sentences
+     * @param metadata the metadata of the chunk
+     * @return the chunk
+     */
+    private Chunk createChunk(ChunkSpan span, Collection<int[]> sentences, String delimiter, ChunkMetadata metadata) {
+        return Chunk.builder()
+                .id(span.id())
+                .content(joinSentences(span.source(), sentences, delimiter))
+                .metadata(metadata)
+                .build();
+    }
+
+    /**
+     * Creates a span covering the sentences.
+     *
+     * @param span the span covering the sentences
+     * @param sentences the {@code [start, end)} offsets of the sentences
+     * @param delimiter the delimiter the sentences were split by
+     * @param metadata the metadata of the chunk, the span holds its own offsets
+     * @return the span
+     */
+    private static ChunkSpan createSpan(
+            ChunkSpan span, Collection<int[]> sentences, String delimiter, ChunkMetadata metadata) {
+        return span;
+    }
+
+    /**
+     * Joins the sentences into a single sentence, copying them straight from the source.
+     *
+     * @param source the content the sentences belong to
+     * @param sentences the {@code [start, end)} offsets of the sentences to join
      * @param delimiter the delimiter to join the sentences
      * @return the generated sentence
      */
-    private String joinSentences(List<String> sentences, String delimiter) {
-        var generatedSentence = String.join(delimiter, sentences);
+    private String joinSentences(CharSequence source, Collection<int[]> sentences, String delimiter) {
+        var length = delimiter.length() * (sentences.size() - 1);
+        for (int[] sentence : sentences) {
+            length += sentence[1] - sentence[0];
+        }
+
+        var builder = new StringBuilder(length);
+        var first = true;
+        for (int[] sentence : sentences) {
+            if (!first) {
+                builder.append(delimiter);
+            }
+            builder.append(source, sentence[0], sentence[1]);
+            first = false;
+        }
+
+        var generatedSentence = builder.toString();
         if (config.trimWhiteSpace()) {
             generatedSentence = generatedSentence.trim();
         }
 
         return generatedSentence;
     }
+
+    /** Creates the chunk representation out of the span, the sentences and the metadata of a chunk. */
+    @FunctionalInterface
+    private interface ChunkFactory<T> {
+
+        T create(ChunkSpan span, Collection<int[]> sentences, String delimiter, ChunkMetadata metadata);
+    }
+
+    /** Collects the generated chunks, numbering them in creation order. */
+    private final class ChunkCollector<T> {
+
+        private final String content;
+
+        private final ChunkFactory<T> factory;
+
+        private final List<T> chunks = new ArrayList<>();
+
+        private int previousEnd = 0;
+
+        ChunkCollector(String content, ChunkFactory<T> factory) {
+            this.content = content;
+            this.factory = factory;
+        }
+
+        /**
+         * Adds the chunk made of the sentences.
+         *
+         * @param sentences the {@code [start, end)} offsets of the sentences
+         * @param delimiter the delimiter to join the sentences
+         * @param length the measured length of the chunk
+         * @param level the position of the delimiter the sentences were split by
+         */
+        void add(Collection<int[]> sentences, String delimiter, int length, int level) {
+            var start = sentences.iterator().next()[0];
+            var end = start;
+            for (int[] sentence : sentences) {
+                end = sentence[1];
+            }
+
+            var id = chunks.size();
+            var span = config.trimWhiteSpace()
+                    ? ChunkSpan.trimmed(id, content, start, end)
+                    : new ChunkSpan(id, content, start, end);
+            var overlap = Math.max(0, previousEnd - span.start());
+            var metadata = new ChunkMetadata(span.start(), span.end(), length, level, overlap, Float.NaN);
+
+            chunks.add(factory.create(span, sentences, delimiter, metadata));
+            previousEnd = span.end();
+        }
+    }
+
+    /** Pending work of the splitting engine. */
+    private sealed interface Task {}
+
+    /**
+     * A region of the content to be split.
+     *
+     * @param start the start of the region
+     * @param end the end of the region
+     * @param delimiters the delimiters that can still be used to split the region, never modified
+     */
+    private record Region(int start, int end, BitSet delimiters) implements Task {}
+
+    /**
+     * Sentences that fit in a chunk, to be merged.
+     *
+     * @param sentences the {@code [start, end)} offsets of the sentences, followed by their length
+     * @param delimiter the delimiter to join the sentences
+     * @param level the position of the delimiter the sentences were split by
+     */
+    private record Sentences(List<int[]> sentences, String delimiter, int level) implements Task {}
+
+    /**
+     * A split that does not fit in a chunk and cannot be split any further, it becomes a chunk as is.
+     *
+     * @param split the {@code [start, end)} offsets of the split
+     * @param delimiter the delimiter of the split
+     * @param level the position of the delimiter the split was found by
+     */
+    private record Oversized(int[] split, String delimiter, int level) implements Task {}
 }
@@ -0,0 +1,54 @@
+package jchunk.chunker.recursive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DelimiterMatcherTest {
+
+    @Test
+    void testDelimitersWithoutMetacharactersAreLiterals() {
+        assertThat(DelimiterMatcher.of("\n\n")).isInstanceOf(DelimiterMatcher.Literal.class);
+        assertThat(DelimiterMatcher.of("")).isInstanceOf(DelimiterMatcher.Literal.class);
+        assertThat(DelimiterMatcher.of("\\. ")).isInstanceOf(DelimiterMatcher.Regex.class);
+        assertThat(DelimiterMatcher.of("#{1,6} ")).isInstanceOf(DelimiterMatcher.Regex.class);
+    }
+
+    @Test
+    void testLiteralMatchesWithinTheRegion() {
+        // given
+        var matcher = DelimiterMatcher.of("--");
+        var content = "a--b----c--";
+
+        // when
+        List<int[]> matches = matches(matcher, content, 1, 9);
+
+        // then
+        assertThat(matches).containsExactly(new int[] {1, 3}, new int[] {4, 6}, new int[] {6, 8});
+        assertThat(matcher.find(content, 0, 2)).isFalse();
+        assertThat(matcher.find(content, 9, 11)).isTrue();
+    }
+
+    @Test
+    void testRegexMatchesWithinTheRegion() {
+        // given
+        var matcher = DelimiterMatcher.of("[.!?] ");
+        var content = "One. Two! Three? Four.";
+
+        // when
+        List<int[]> matches = matches(matcher, content, 0, content.length());
+
+        // then
+        assertThat(matches).containsExactly(new int[] {3, 5}, new int[] {8, 10}, new int[] {15, 17});
+        assertThat(matcher.find(content, 17, content.length())).isFalse();
+    }
+
+    private static List<int[]> matches(DelimiterMatcher matcher, String content, int start, int end) {
+        var matches = new ArrayList<int[]>();
+        matcher.forEachMatch(
+                content, start, end, (matchStart, matchEnd) -> matches.add(new int[] {matchStart, matchEnd}));
+        return matches;
+    }
+}
@@ -2,9 +2,23 @@ package jchunk.chunker.recursive;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import jchunk.chunker.Delimiter;
 import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.ChunkSpan;
+import jchunk.chunker.core.file.FileChunk;
+import jchunk.chunker.core.file.FileChunker;
+import jchunk.chunker.core.incremental.IncrementalChunker;
+import jchunk.chunker.core.incremental.TextEdit;
+import jchunk.chunker.core.length.LengthFunction;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class RecursiveCharacterChunkerTest {
 
@@ -75,4 +89,220 @@ class RecursiveCharacterChunkerTest {
             assertThat(chunks.get(i).content()).isEqualTo(expectedChunks.get(i).content());
         }
     }
+
+    @Test
+    void testStream() {
+        Config config = Config.builder().chunkSize(65).chunkOverlap(0).build();
+        RecursiveCharacterChunker chunker = new RecursiveCharacterChunker(config);
+
+        List<Chunk> chunks = chunker.stream(new StringReader(content)).toList();
+
+        assertThat(chunks).isNotEmpty().containsExactlyElementsOf(chunker.split(content));
+    }
+
+    @Test
+    void testStreamWithSeveralWindows() {
+        Config config = Config.builder().chunkSize(65).chunkOverlap(0).build();
+        RecursiveCharacterChunker chunker = new RecursiveCharacterChunker(config);
+        String longContent = content.repeat(200);
+
+        List<Chunk> chunks = chunker.stream(new StringReader(longContent)).toList();
+
+        assertThat(chunks).isNotEmpty();
+        for (int i = 0; i < chunks.size(); i++) {
+            assertThat(chunks.get(i).id()).isEqualTo(i);
+            assertThat(chunks.get(i).content()).hasSizeLessThanOrEqualTo(65);
+        }
+    }
+
+    @Test
+    void testSplitSpans() {
+        Config config = Config.builder().chunkSize(65).chunkOverlap(0).build();
+        RecursiveCharacterChunker chunker = new RecursiveCharacterChunker(config);
+
+        List<ChunkSpan> spans = chunker.splitSpans(content);
+
+        assertThat(spans)
+                .map(ChunkSpan::toChunk)
+                .usingRecursiveFieldByFieldElementComparatorOnFields("id", "content", "metadata.start", "metadata.end")
+                .containsExactlyElementsOf(chunker.split(content));
+        for (ChunkSpan span : spans) {
+            assertThat(content.substring(span.start(), span.end())).isEqualTo(span.toString());
+        }
+    }
+
+    @Test
+    void testSplitWithDelimiterNone() {
+        Config config = Config.builder()
+                .chunkSize(20)
+                .chunkOverlap(0)
+                .keepDelimiter(Delimiter.NONE)
+                .build();
+        RecursiveCharacterChunker chunker = new RecursiveCharacterChunker(config);
+
+        List<Chunk> chunks = chunker.split("This is an example of splitting without delimiters");
+
+        assertThat(chunks)
+                .extracting(Chunk::content)
+                .containsExactly("This is an example", "of splitting without", "delimiters");
+    }
+
+    @Test
+    void testSplitWithMoreThan64Delimiters() {
+        // given
+        var delimiters = new ArrayList<String>();
+        for (int i = 0; i < 70; i++) {
+            delimiters.add("<" + i + ">");
+        }
+        delimiters.add(" ");
+        Config config = Config.builder()
+                .chunkSize(12)
+                .chunkOverlap(0)
+                .separators(delimiters)
+                .keepDelimiter(Delimiter.NONE)
+                .build();
+        RecursiveCharacterChunker chunker = new RecursiveCharacterChunker(config);
+
+        // when
+        List<Chunk> chunks = chunker.split("first part<69>second part<69>third part");
+
+        // then
+        assertThat(chunks).extracting(Chunk::content).containsExactly("first part", "second part", "third part");
+    }
+
+    @Test
+    void testSplitFileLocatesTheSpans(@TempDir Path directory) throws IOException {
+        // given
+        var chunker = new RecursiveCharacterChunker(
+                Config.builder().chunkSize(65).chunkOverlap(0).build());
+        var file = Files.writeString(directory.resolve("content.txt"), content);
+
+        // when
+        List<FileChunk> chunks = new FileChunker(chunker).split(file);
+
+        // then
+        assertThat(chunks)
+                .extracting(FileChunk::content)
+                .containsExactlyElementsOf(chunker.splitSpans(content).stream()
+                        .map(ChunkSpan::toString)
+                        .toList());
+        assertThat(chunks)
+                .allSatisfy(chunk -> assertThat(content.substring((int) chunk.charStart(), (int) chunk.charEnd()))
+                        .isEqualTo(chunk.content()));
+    }
+
+    @Test
+    void testSplitWithCustomLengthFunction() {
+        // given
+        LengthFunction words = (text, start, end) ->
+                (int) Arrays.stream(text.subSequence(start, end).toString().split("\\s+"))
+                        .filter(word -> !word.isEmpty())
+                        .count();
+        var config = Config.builder()
+                .chunkSize(5)
+                .chunkOverlap(0)
+                .keepDelimiter(Delimiter.NONE)
+                .lengthFunction(words)
+                .build();
+        var chunker = new RecursiveCharacterChunker(config);
+
+        // when
+        List<Chunk> chunks = chunker.split("This is an example of splitting with a word budget");
+
+        // then
+        assertThat(chunks)
+                .extracting(Chunk::content)
+                .containsExactly("This is an example of", "splitting with a word budget");
+    }
+
+    @Test
+    void testSplitByCharactersWithCustomLengthFunction() {
+        // given
+        LengthFunction wideDigits = (text, start, end) -> {
+            int length = 0;
+            for (int i = start; i < end; i++) {
+                length += Character.isDigit(text.charAt(i)) ? 2 : 1;
+            }
+            return length;
+        };
+        var config = Config.builder()
+                .chunkSize(6)
+                .chunkOverlap(2)
+                .separators(List.of(""))
+                .lengthFunction(wideDigits)
+                .build();
+        var chunker = new RecursiveCharacterChunker(config);
+
+        // when
+        List<Chunk> chunks = chunker.split("ab12cdef34");
+
+        // then
+        assertThat(chunks).extracting(Chunk::content).containsExactly("ab12", "2cdef", "ef34");
+        assertThat(chunks).extracting(chunk -> chunk.metadata().length()).containsExactly(6, 6, 6);
+        assertThat(chunks).extracting(chunk -> chunk.metadata().overlap()).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void testSplitDescribesTheChunks() {
+        // given
+        var config = Config.builder()
+                .chunkSize(8)
+                .chunkOverlap(0)
+                .keepDelimiter(Delimiter.NONE)
+                .build();
+        var chunker = new RecursiveCharacterChunker(config);
+        var text = "aaa bbb\n\nccc ddd eee";
+
+        // when
+        List<Chunk> chunks = chunker.split(text);
+
+        // then
+        assertThat(chunks).extracting(Chunk::content).containsExactly("aaa bbb", "ccc ddd", "eee");
+        assertThat(chunks)
+                .extracting(chunk -> text.substring(
+                        chunk.metadata().start(), chunk.metadata().end()))
+                .containsExactly("aaa bbb", "ccc ddd", "eee");
+        assertThat(chunks).extracting(chunk -> chunk.metadata().level()).containsExactly(0, 2, 2);
+        assertThat(chunks).extracting(chunk -> chunk.metadata().length()).containsExactly(7, 7, 3);
+    }
+
+    @Test
+    void testRechunkAnEditedContent() {
+        // given
+        var config = Config.builder().chunkSize(65).chunkOverlap(10).build();
+        var chunker = new RecursiveCharacterChunker(config);
+        var previous = chunker.split(content);
+        var edit = TextEdit.between(content, content.replace("rarely true", "not always true"));
+        var edited = edit.apply(content);
+
+        // when
+        var result = new IncrementalChunker(chunker).rechunk(previous, edited, edit);
+
+        // then
+        assertThat(result.chunks())
+                .extracting(Chunk::content)
+                .isEqualTo(chunker.split(edited).stream().map(Chunk::content).toList());
+        assertThat(result.added()).hasSizeLessThan(previous.size() / 2);
+        assertThat(result.chunks().getLast())
+                .isEqualTo(previous.getLast().renumber(previous.getLast().id(), edit.delta()));
+    }
+
+    @Test
+    void testSplitLongContentWithoutDelimiters() {
+        // given
+        var config = Config.builder().chunkSize(100).chunkOverlap(20).build();
+        var chunker = new RecursiveCharacterChunker(config);
+        var blob = "0123456789".repeat(100_000);
+
+        // when
+        List<Chunk> chunks = chunker.split(blob);
+
+        // then
+        assertThat(chunks).hasSize(12_500);
+        assertThat(chunks.subList(0, chunks.size() - 1))
+                .allSatisfy(chunk -> assertThat(chunk.content()).hasSize(100));
+        assertThat(chunks.get(1).content()).startsWith(chunks.get(0).content().substring(80));
+        assertThat(chunks.getLast().id()).isEqualTo(12_499);
+        assertThat(chunks.getLast().content()).isEqualTo(blob.substring(blob.length() - 80));
+    }
 }
@@ -0,0 +1,283 @@
+package jchunk.chunker.semantic;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.ChunkMetadata;
+import jchunk.chunker.core.length.LengthFunction;
+
+/**
+ * Enforces the {@link Config#minChunkSize()} and {@link Config#maxChunkSize()} of the semantic
+ * chunks, as the segments closed by the break points are added in the content order.
+ *
+ * <p>A segment longer than the maximum is split at the lowest similarity between its consecutive
+ * sentences, and each side again until every piece fits (or is a single sentence). The splits are
+ * read from a Cartesian tree of the similarities, so a segment is split in linear time whatever its
+ * length.
+ *
+ * <p>A piece shorter than the minimum is merged with the neighbour it is more similar to, as long
+ * as the merged piece does not exceed the maximum. The last two pieces are held back until the next
+ * one is known, every other piece is emitted right away.
+ *
+ * <p>Sizes are measured with the {@link Config#lengthFunction()}: every sentence is measured once
+ * and a piece measures the sum of its sentences and of the spaces joining them.
+ *
+ * <p>Every chunk carries its {@link ChunkMetadata}: its length, the similarity at the break point
+ * that opened it and, when the sentences come from a {@link SentenceTable}, its offsets in the
+ * content.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+final class ChunkSizeLimiter {
+
+    private static final String SEPARATOR = " ";
+
+    private final LengthFunction lengthFunction;
+
+    private final int minChunkSize;
+
+    private final int maxChunkSize;
+
+    private final int separatorLength;
+
+    private final SentenceTable offsets;
+
+    private final Deque<Piece> held = new ArrayDeque<>(3);
+
+    private int chunkIndex = 0;
+
+    ChunkSizeLimiter(Config config) {
+        this(config, null);
+    }
+
+    /**
+     * @param config the config of the chunker
+     * @param offsets the table the sentences are numbered after, {@code null} if their offsets are
+     *     unknown
+     */
+    ChunkSizeLimiter(Config config, SentenceTable offsets) {
+        this.offsets = offsets;
+        this.lengthFunction = config.lengthFunction();
+        this.minChunkSize = config.minChunkSize();
+        this.maxChunkSize = config.maxChunkSize();
+        this.separatorLength = lengthFunction.length(SEPARATOR);
+    }
+
+    /**
+     * @param config the config of the chunker
+     * @return whether the config constrains the size of the chunks at all
+     */
+    static boolean isEnabled(Config config) {
+        return config.minChunkSize() > 0 || config.maxChunkSize() < Integer.MAX_VALUE;
+    }
+
+    /**
+     * Adds the next segment of sentences, emitting the chunks that are already settled.
+     *
+     * @param sentences the sentences of the segment, not modified afterwards by the caller
+     * @param firstSentence the index of the first sentence of the segment, in the whole content
+     * @param similarities the similarities between the consecutive sentences of the segment, the
+     *     {@code j}-th one (from {@code offset}) being the one between the sentences {@code j} and
+     *     {@code j + 1}
+     * @param offset the position of the first similarity of the segment in the array
+     * @param leadingSimilarity the similarity between the last sentence of the previous segment and
+     *     the first one of this segment, {@link Double#NaN} if there is none
+     * @param sink the consumer of the generated chunks
+     */
+    void add(
+            List<String> sentences,
+            int firstSentence,
+            double[] similarities,
+            int offset,
+            double leadingSimilarity,
+            Consumer<Chunk> sink) {
+        if (maxChunkSize == Integer.MAX_VALUE && minChunkSize == 0) {
+            var content = String.join(SEPARATOR, sentences);
+            emit(content, firstSentence, sentences.size(), lengthFunction.length(content), leadingSimilarity, sink);
+            return;
+        }
+
+        var n = sentences.size();
+        var prefix = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            prefix[i + 1] = prefix[i] + lengthFunction.length(sentences.get(i));
+        }
+
+        if (length(prefix, 0, n) <= maxChunkSize) {
+            offer(new Piece(sentences, firstSentence, length(prefix, 0, n), leadingSimilarity), sink);
+            return;
+        }
+
+        var tree = CartesianTree.of(similarities, offset, n - 1);
+        Deque<Range> ranges = new ArrayDeque<>();
+        ranges.push(new Range(tree.root(), 0, n, leadingSimilarity));
+
+        while (!ranges.isEmpty()) {
+            var range = ranges.pop();
+            var length = length(prefix, range.from(), range.to());
+            if (length <= maxChunkSize || range.to() - range.from() == 1) {
+                var piece = new Piece(
+                        sentences.subList(range.from(), range.to()),
+                        firstSentence + range.from(),
+                        length,
+                        range.leading());
+                offer(piece, sink);
+                continue;
+            }
+
+            var split = range.node();
+            ranges.push(new Range(tree.right(split), split + 1, range.to(), similarities[offset + split]));
+            ranges.push(new Range(tree.left(split), range.from(), split + 1, range.leading()));
+        }
+    }
+
+    /**
+     * Emits the pieces held back, merging the last one with the previous one if it is too short.
+     *
+     * @param sink the consumer of the generated chunks
+     */
+    void finish(Consumer<Chunk> sink) {
+        if (held.size() == 2 && held.getLast().length() < minChunkSize) {
+            var last = held.removeLast();
+            var previous = held.removeLast();
+            if (mergedLength(previous, last) <= maxChunkSize) {
+                held.addLast(merge(previous, last));
+            } else {
+                held.addLast(previous);
+                held.addLast(last);
+            }
+        }
+
+        while (!held.isEmpty()) {
+            emit(held.removeFirst(), sink);
+        }
+    }
+
+    /**
+     * Holds the piece back, first merging the last piece held with its more similar neighbour if it
+     * is too short, then emits the pieces that cannot be merged anymore.
+     *
+     * @param piece the next piece
+     * @param sink the consumer of the generated chunks
+     */
+    private void offer(Piece piece, Consumer<Chunk> sink) {
+        if (!held.isEmpty() && held.getLast().length() < minChunkSize) {
+            var last = held.removeLast();
+            var previous = held.peekLast();
+
+            var fitsLeft = previous != null && mergedLength(previous, last) <= maxChunkSize;
+            var fitsRight = mergedLength(last, piece) <= maxChunkSize;
+
+            if (fitsLeft && (!fitsRight || Double.compare(last.leading(), piece.leading()) >= 0)) {
+                held.addLast(merge(held.removeLast(), last));
+                held.addLast(piece);
+            } else if (fitsRight) {
+                held.addLast(merge(last, piece));
+            } else {
+                held.addLast(last);
+                held.addLast(piece);
+            }
+        } else {
+            held.addLast(piece);
+        }
+
+        while (held.size() > 2) {
+            emit(held.removeFirst(), sink);
+        }
+    }
+
+    private void emit(Piece piece, Consumer<Chunk> sink) {
+        var sentences = piece.sentences();
+        var content = String.join(SEPARATOR, sentences);
+        emit(content, piece.first(), sentences.size(), piece.length(), piece.leading(), sink);
+    }
+
+    private void emit(String content, int first, int count, long length, double leading, Consumer<Chunk> sink) {
+        var start = offsets == null ? -1 : offsets.start(first);
+        var end = offsets == null ? -1 : offsets.end(first + count - 1);
+        var metadata = new ChunkMetadata(start, end, (int) Math.min(length, Integer.MAX_VALUE), -1, 0, (float) leading);
+        sink.accept(new Chunk(chunkIndex++, content, metadata));
+    }
+
+    private Piece merge(Piece first, Piece second) {
+        var sentences = new ArrayList<String>(
+                first.sentences().size() + second.sentences().size());
+        sentences.addAll(first.sentences());
+        sentences.addAll(second.sentences());
+        return new Piece(sentences, first.first(), mergedLength(first, second), first.leading());
+    }
+
+    private long mergedLength(Piece first, Piece second) {
+        return first.length() + separatorLength + second.length();
+    }
+
+    private long length(long[] prefix, int from, int to) {
+        return prefix[to] - prefix[from] + (long) (to - from - 1) * separatorLength;
+    }
+
+    /**
+     * Consecutive sentences that end up in the same chunk unless merged with a neighbour.
+     *
+     * @param sentences the sentences
+     * @param first the index of the first sentence, in the whole content
+     * @param length the length of the sentences joined
+     * @param leading the similarity with the last sentence of the previous piece
+     */
+    private record Piece(List<String> sentences, int first, long length, double leading) {}
+
+    /**
+     * Range of sentences of a segment still to be checked against the maximum.
+     *
+     * @param node the node of the lowest similarity inside the range, -1 for a single sentence
+     * @param from the first sentence, inclusive
+     * @param to the last sentence, exclusive
+     * @param leading the similarity with the sentence before the range
+     */
+    private record Range(int node, int from, int to, double leading) {}
+
+    /**
+     * Cartesian tree of a run of similarities: the root is the lowest similarity, the left subtree
+     * is the tree of the similarities before it and the right subtree the tree of the ones after it.
+     * Ties are resolved in favour of the first similarity.
+     *
+     * @param root the position of the root, -1 if there are no similarities
+     * @param left the position of the left child of every node, -1 if there is none
+     * @param right the position of the right child of every node, -1 if there is none
+     */
+    private record CartesianTree(int root, int[] left, int[] right) {
+
+        static CartesianTree of(double[] similarities, int offset, int size) {
+            var left = new int[size];
+            var right = new int[size];
+            var stack = new int[size];
+            var top = -1;
+
+            for (int j = 0; j < size; j++) {
+                right[j] = -1;
+
+                var last = -1;
+                while (top >= 0 && Double.compare(similarities[offset + stack[top]], similarities[offset + j]) > 0) {
+                    last = stack[top--];
+                }
+                left[j] = last;
+                if (top >= 0) {
+                    right[stack[top]] = j;
+                }
+                stack[++top] = j;
+            }
+
+            return new CartesianTree(top >= 0 ? stack[0] : -1, left, right);
+        }
+
+        int left(int node) {
+            return left[node];
+        }
+
+        int right(int node) {
+            return right[node];
+        }
+    }
+}
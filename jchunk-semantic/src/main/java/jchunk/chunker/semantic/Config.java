@@ -1,11 +1,67 @@
 package jchunk.chunker.semantic;
 
+import jchunk.chunker.core.length.LengthFunction;
+import jchunk.chunker.semantic.segmenter.SentenceSegmenter;
+
 /**
  * Configuration for the semantic chunker
  *
+ * @param sentenceSplittingStrategy the strategy to split the content into sentences
+ * @param sentenceSegmenter the segmenter splitting the content into sentences, the one of the
+ *     strategy unless a custom one is configured
+ * @param percentile the percentile of the similarities used as break point threshold
+ * @param bufferSize the number of sentences combined around every sentence
+ * @param embeddingMode what is embedded for every sentence
+ * @param thresholdStrategy how the threshold is computed while streaming
+ * @param thresholdWindow the number of similarities the streaming threshold is computed over, no
+ *     chunk is emitted until that many similarities are known (or the content ends), so it bounds the latency of the first chunk
+ * @param embeddingBatchSize the number of sentences embedded together while streaming
+ * @param minChunkSize the length under which a chunk is merged with its more similar neighbour, 0
+ *     to keep every chunk as found
+ * @param maxChunkSize the length over which a chunk is split at its least similar sentences, {@link
+ *     Integer#MAX_VALUE} to keep every chunk as found
+ * @param lengthFunction the function measuring the chunk sizes
  * @author Pablo Sanchidrian Herrera
  */
-public record Config(SentenceSplittingStrategy sentenceSplittingStrategy, int percentile, int bufferSize) {
+public record Config(
+        SentenceSplittingStrategy sentenceSplittingStrategy,
+        SentenceSegmenter sentenceSegmenter,
+        int percentile,
+        int bufferSize,
+        EmbeddingMode embeddingMode,
+        ThresholdStrategy thresholdStrategy,
+        int thresholdWindow,
+        int embeddingBatchSize,
+        int minChunkSize,
+        int maxChunkSize,
+        LengthFunction lengthFunction) {
+
+    private static final int DEFAULT_THRESHOLD_WINDOW = 64;
+
+    private static final int DEFAULT_EMBEDDING_BATCH_SIZE = 32;
+
+    /**
+     * Config with the given sentence splitting, percentile and buffer size, and the defaults of the
+     * {@link Builder} for the rest of the settings.
+     *
+     * @param sentenceSplittingStrategy the strategy to split the content into sentences
+     * @param percentile the percentile of the similarities used as break point threshold
+     * @param bufferSize the number of sentences combined around every sentence
+     */
+    public Config(SentenceSplittingStrategy sentenceSplittingStrategy, int percentile, int bufferSize) {
+        this(
+                sentenceSplittingStrategy,
+                sentenceSplittingStrategy.getSegmenter(),
+                percentile,
+                bufferSize,
+                EmbeddingMode.SENTENCE,
+                ThresholdStrategy.SLIDING_WINDOW,
+                DEFAULT_THRESHOLD_WINDOW,
+                DEFAULT_EMBEDDING_BATCH_SIZE,
+                0,
+                Integer.MAX_VALUE,
+                LengthFunction.characters());
+    }
 
     /**
      * @return the default config
@@ -22,15 +78,44 @@ public record Config(SentenceSplittingStrategy sentenceSplittingStrategy, int pe
 
         private SentenceSplittingStrategy sentenceSplittingStrategy = SentenceSplittingStrategy.DEFAULT;
 
+        private SentenceSegmenter sentenceSegmenter;
+
         private int percentile = 95;
 
         private int bufferSize = 1;
 
+        private EmbeddingMode embeddingMode = EmbeddingMode.SENTENCE;
+
+        private ThresholdStrategy thresholdStrategy = ThresholdStrategy.SLIDING_WINDOW;
+
+        private int thresholdWindow = DEFAULT_THRESHOLD_WINDOW;
+
+        private int embeddingBatchSize = DEFAULT_EMBEDDING_BATCH_SIZE;
+
+        private int minChunkSize = 0;
+
+        private int maxChunkSize = Integer.MAX_VALUE;
+
+        private LengthFunction lengthFunction = LengthFunction.characters();
+
         public Builder sentenceSplittingStrategy(SentenceSplittingStrategy sentenceSplittingStrategy) {
             this.sentenceSplittingStrategy = sentenceSplittingStrategy;
             return this;
         }
 
+        /**
+         * Sets a custom segmenter, e.g. a {@link
+         * jchunk.chunker.semantic.segmenter.RuleBasedSentenceSegmenter}, which takes precedence over
+         * the sentence splitting strategy.
+         *
+         * @param sentenceSegmenter the segmenter splitting the content into sentences
+         * @return the builder
+         */
+        public Builder sentenceSegmenter(SentenceSegmenter sentenceSegmenter) {
+            this.sentenceSegmenter = sentenceSegmenter;
+            return this;
+        }
+
         public Builder percentile(int percentile) {
             this.percentile = percentile;
             return this;
@@ -41,8 +126,87 @@ public record Config(SentenceSplittingStrategy sentenceSplittingStrategy, int pe
             return this;
         }
 
+        public Builder embeddingMode(EmbeddingMode embeddingMode) {
+            this.embeddingMode = embeddingMode;
+            return this;
+        }
+
+        public Builder thresholdStrategy(ThresholdStrategy thresholdStrategy) {
+            this.thresholdStrategy = thresholdStrategy;
+            return this;
+        }
+
+        public Builder thresholdWindow(int thresholdWindow) {
+            this.thresholdWindow = thresholdWindow;
+            return this;
+        }
+
+        public Builder embeddingBatchSize(int embeddingBatchSize) {
+            this.embeddingBatchSize = embeddingBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the length under which a chunk is merged with the neighbour it is more similar to, as
+         * long as the merged chunk does not exceed the maximum chunk size.
+         *
+         * @param minChunkSize the minimum chunk size
+         * @return the builder
+         */
+        public Builder minChunkSize(int minChunkSize) {
+            this.minChunkSize = minChunkSize;
+            return this;
+        }
+
+        /**
+         * Sets the length over which a chunk is split at the lowest similarity between its sentences,
+         * until every chunk fits (or is a single sentence).
+         *
+         * @param maxChunkSize the maximum chunk size
+         * @return the builder
+         */
+        public Builder maxChunkSize(int maxChunkSize) {
+            this.maxChunkSize = maxChunkSize;
+            return this;
+        }
+
+        /**
+         * Sets the function measuring the chunk sizes, e.g. a {@link
+         * jchunk.chunker.semantic.embedder.TokenLengthFunction} to fit the chunks in the context of a
+         * model. Characters are counted by default.
+         *
+         * @param lengthFunction the length function
+         * @return the builder
+         */
+        public Builder lengthFunction(LengthFunction lengthFunction) {
+            this.lengthFunction = lengthFunction;
+            return this;
+        }
+
         public Config build() {
-            return new Config(sentenceSplittingStrategy, percentile, bufferSize);
+            assert sentenceSegmenter != null || sentenceSplittingStrategy != null
+                    : "The sentence splitting strategy cannot be null";
+            assert embeddingMode != null : "The embedding mode cannot be null";
+            assert thresholdStrategy != null : "The threshold strategy cannot be null";
+            assert thresholdWindow > 0 : "The threshold window must be greater than 0";
+            assert embeddingBatchSize > 0 : "The embedding batch size must be greater than 0";
+            assert minChunkSize >= 0 : "The min chunk size must be greater than or equal to 0";
+            assert maxChunkSize > 0 : "The max chunk size must be greater than 0";
+            assert minChunkSize <= maxChunkSize : "The min chunk size cannot be greater than the max chunk size";
+            assert lengthFunction != null : "The length function cannot be null";
+
+            return new Config(
+                    sentenceSplittingStrategy,
+                    sentenceSegmenter != null ? sentenceSegmenter : sentenceSplittingStrategy.getSegmenter(),
+                    percentile,
+                    bufferSize,
+                    embeddingMode,
+                    thresholdStrategy,
+                    thresholdWindow,
+                    embeddingBatchSize,
+                    minChunkSize,
+                    maxChunkSize,
+                    lengthFunction);
         }
     }
 }
@@ -0,0 +1,107 @@
+package jchunk.chunker.semantic;
+
+import java.util.List;
+
+/**
+ * Row-major matrix holding the embeddings of the sentences in a single contiguous float array, so
+ * the similarity computation walks memory sequentially instead of chasing one array per sentence.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+final class EmbeddingMatrix {
+
+    private final float[] values;
+
+    private final int rows;
+
+    private final int dimension;
+
+    private EmbeddingMatrix(float[] values, int rows, int dimension) {
+        this.values = values;
+        this.rows = rows;
+        this.dimension = dimension;
+    }
+
+    /**
+     * Copies the embeddings into a matrix, one row per embedding.
+     *
+     * @param embeddings the embeddings, all of them of the same dimension
+     * @return the matrix of embeddings
+     */
+    static EmbeddingMatrix of(List<float[]> embeddings) {
+        assert embeddings != null : "The list of embeddings cannot be null";
+
+        var rows = embeddings.size();
+        var dimension = rows == 0 ? 0 : embeddings.getFirst().length;
+        var values = new float[rows * dimension];
+
+        for (int i = 0; i < rows; i++) {
+            var embedding = embeddings.get(i);
+            assert embedding != null : "The sentence embeddings cannot be null";
+            assert embedding.length == dimension : "The sentence embeddings must have the same size";
+            System.arraycopy(embedding, 0, values, i * dimension, dimension);
+        }
+
+        return new EmbeddingMatrix(values, rows, dimension);
+    }
+
+    /**
+     * Aggregates every row with the rows around it, computing the sums with a rolling sum, so every
+     * row is added and subtracted once regardless of the window size.
+     *
+     * @param radius the number of rows to aggregate before and after every row
+     * @return the matrix whose i-th row is the sum of the rows {@code [i - radius, i + radius]}
+     */
+    EmbeddingMatrix windowSums(int radius) {
+        assert radius >= 0 : "The radius cannot be negative";
+
+        var sums = new float[values.length];
+        var sum = new double[dimension];
+
+        for (int i = 0; i < Math.min(radius, rows); i++) {
+            accumulate(sum, i, 1);
+        }
+
+        for (int i = 0; i < rows; i++) {
+            if (i + radius < rows) {
+                accumulate(sum, i + radius, 1);
+            }
+            for (int j = 0; j < dimension; j++) {
+                sums[offset(i) + j] = (float) sum[j];
+            }
+            if (i - radius >= 0) {
+                accumulate(sum, i - radius, -1);
+            }
+        }
+
+        return new EmbeddingMatrix(sums, rows, dimension);
+    }
+
+    private void accumulate(double[] sum, int row, int sign) {
+        var offset = offset(row);
+        for (int j = 0; j < dimension; j++) {
+            sum[j] += sign * values[offset + j];
+        }
+    }
+
+    /** {@return the backing array of the matrix, the rows are laid out one after the other} */
+    float[] values() {
+        return values;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    int dimension() {
+        return dimension;
+    }
+
+    /**
+     * @param row the index of the row
+     * @return the offset of the row in the backing array
+     */
+    int offset(int row) {
+        return row * dimension;
+    }
+}
@@ -0,0 +1,24 @@
+package jchunk.chunker.semantic;
+
+/**
+ * Enum to represent what is embedded to compare every sentence with the next one
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public enum EmbeddingMode {
+
+    /** The sentence on its own */
+    SENTENCE,
+
+    /**
+     * The sentence combined with the {@link Config#bufferSize()} sentences before and after it, the
+     * model embeds every (overlapping) window of text
+     */
+    COMBINED,
+
+    /**
+     * The sum of the embeddings of the sentence and the {@link Config#bufferSize()} sentences before
+     * and after it, so the model embeds every sentence once instead of every window of text
+     */
+    AGGREGATED
+}
@@ -0,0 +1,115 @@
+package jchunk.chunker.semantic;
+
+import java.util.Arrays;
+
+/**
+ * Linear time selection of the k-th smallest value of a primitive array (introselect: quickselect
+ * with a median of three pivot, falling back to sorting the remaining range if the partitions keep
+ * being unbalanced). Values are ordered as {@link Double#compare(double, double)} does, so the
+ * result is the same as picking the value from a sorted copy of the array.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+final class Percentiles {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private Percentiles() {}
+
+    /**
+     * Computes the nearest rank percentile of the values.
+     *
+     * @param values the values, they are not modified
+     * @param percentile the percentile, between 0 and 100 (both exclusive)
+     * @return the value at rank {@code ceil(percentile / 100 * n)} of the sorted values
+     */
+    static double percentile(double[] values, int percentile) {
+        assert values != null : "The list of distances cannot be null";
+        assert percentile > 0 && percentile < 100 : "The percentile must be greater than 0 and less than 100";
+
+        var rank = (int) Math.ceil(percentile / 100.0 * values.length);
+        return select(values.clone(), rank - 1);
+    }
+
+    /**
+     * Moves the k-th smallest value of the array to position k, leaving the smaller values before it
+     * and the greater ones after it.
+     *
+     * @param values the values, they are reordered in place
+     * @param k the zero based rank of the value to select
+     * @return the k-th smallest value
+     */
+    static double select(double[] values, int k) {
+        assert k >= 0 && k < values.length : "The rank must be within the values";
+
+        int left = 0;
+        int right = values.length - 1;
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(values.length));
+
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                Arrays.sort(values, left, right + 1);
+                return values[k];
+            }
+
+            int pivotIndex = partition(values, left, right, medianOfThree(values, left, right));
+            if (pivotIndex == k) {
+                return values[k];
+            } else if (k < pivotIndex) {
+                right = pivotIndex - 1;
+            } else {
+                left = pivotIndex + 1;
+            }
+        }
+
+        insertionSort(values, left, right);
+        return values[k];
+    }
+
+    private static int medianOfThree(double[] values, int left, int right) {
+        int middle = (left + right) >>> 1;
+        if (Double.compare(values[middle], values[left]) < 0) {
+            swap(values, middle, left);
+        }
+        if (Double.compare(values[right], values[left]) < 0) {
+            swap(values, right, left);
+        }
+        if (Double.compare(values[right], values[middle]) < 0) {
+            swap(values, right, middle);
+        }
+        return middle;
+    }
+
+    private static int partition(double[] values, int left, int right, int pivotIndex) {
+        double pivot = values[pivotIndex];
+        swap(values, pivotIndex, right);
+
+        int store = left;
+        for (int i = left; i < right; i++) {
+            if (Double.compare(values[i], pivot) < 0) {
+                swap(values, store++, i);
+            }
+        }
+
+        swap(values, store, right);
+        return store;
+    }
+
+    private static void insertionSort(double[] values, int left, int right) {
+        for (int i = left + 1; i <= right; i++) {
+            double value = values[i];
+            int j = i - 1;
+            while (j >= left && Double.compare(values[j], value) > 0) {
+                values[j + 1] = values[j];
+                j--;
+            }
+            values[j + 1] = value;
+        }
+    }
+
+    private static void swap(double[] values, int i, int j) {
+        double tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+}
@@ -0,0 +1,18 @@
+package jchunk.chunker.semantic;
+
+/**
+ * {@link SimilarityKernel} implemented with a plain loop, used when the Vector API is not available.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+final class ScalarSimilarityKernel implements SimilarityKernel {
+
+    @Override
+    public double dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        double dot = 0.0;
+        for (int i = 0; i < length; i++) {
+            dot += a[aOffset + i] * b[bOffset + i];
+        }
+        return dot;
+    }
+}
@@ -1,26 +1,46 @@
 package jchunk.chunker.semantic;
 
-import java.util.Arrays;
+import java.io.Reader;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.ChunkMetadata;
 import jchunk.chunker.core.chunk.IChunker;
 import jchunk.chunker.core.decorators.VisibleForTesting;
+import jchunk.chunker.core.pipeline.ChunkingPipeline;
+import jchunk.chunker.core.stream.ChunkStreams;
+import jchunk.chunker.core.stream.TextWindowReader;
 import jchunk.chunker.semantic.embedder.Embedder;
+import jchunk.chunker.semantic.segmenter.SentenceSegmenter;
 
 /**
  * A semantic chunker that chunks the content based on the semantic meaning
  *
+ * <p>Every chunk carries its {@link ChunkMetadata}: its length, the similarity at the break point
+ * that opened it and, when split from a whole content, the offsets of its first and last sentence
+ * in the content. Streamed chunks have no offsets.
+ *
+ * <p>Splitting a content goes through three stages: the sentence segmentation, the embedding of
+ * the sentences and the chunking by the similarities of the embeddings. {@link
+ * #pipeline(ChunkingPipeline.Builder, int)} declares them in a {@link ChunkingPipeline}, so the
+ * documents of a batch are segmented while others are being embedded.
+ *
  * @author Pablo Sanchidrian Herrera
  */
 public class SemanticChunker implements IChunker {
 
+    private static final SimilarityKernel KERNEL = SimilarityKernel.select();
+
     private final Embedder embedder;
 
     private final Config config;
 
+    private final SentenceSegmenter sentenceSegmenter;
+
     public SemanticChunker(final Embedder embedder) {
         this(embedder, Config.defaultConfig());
     }
@@ -28,16 +48,119 @@ public class SemanticChunker implements IChunker {
     public SemanticChunker(final Embedder embedder, final Config config) {
         this.embedder = embedder;
         this.config = config;
+        this.sentenceSegmenter = config.sentenceSegmenter();
     }
 
+    /**
+     * Splits the content into chunks. The sentences are kept as offsets over the content, their
+     * embeddings in a single matrix and the similarities and break points in primitive arrays, so no
+     * object is allocated per sentence besides the text handed to the embedder.
+     *
+     * @param content the content to split
+     * @return the list of chunks
+     */
     @Override
     public List<Chunk> split(String content) {
-        var sentences = splitSentences(content, config.sentenceSplittingStrategy());
-        sentences = combineSentences(sentences, config.bufferSize());
-        sentences = embedSentences(embedder, sentences);
-        var similarities = calculateSimilarities(sentences);
+        return chunk(embed(segment(content)));
+    }
+
+    /**
+     * Declares the stages of {@link #split(String)} in the pipeline: the segmentation runs on a
+     * single worker, the embedding on the given number of workers and the chunking on a single
+     * worker, each stage on its own threads.
+     *
+     * @param builder the builder of the pipeline, the stages are added after the ones already
+     *     declared
+     * @param embeddingWorkers the number of documents embedded at the same time, the embedder must
+     *     be thread safe if greater than 1
+     * @return the builder, to declare the filters and post-processors of the chunks
+     */
+    public ChunkingPipeline.ChunkBuilder pipeline(ChunkingPipeline.Builder<String> builder, int embeddingWorkers) {
+        return builder.stage(this::segment).stage(this::embed, embeddingWorkers).chunk(this::chunk);
+    }
+
+    /**
+     * Segments the content into sentences.
+     *
+     * @param content the content to segment
+     * @return the sentences of the content
+     */
+    private SentenceTable segment(String content) {
+        var sentences = SentenceTable.of(content, sentenceSegmenter);
+        assert sentences.size() > 0 : "The list of sentences cannot be empty";
+        assert config.bufferSize() < sentences.size()
+                : "The buffer size cannot be greater or equal than the input length";
+        return sentences;
+    }
+
+    /**
+     * Embeds the sentences.
+     *
+     * @param sentences the sentences of the content
+     * @return the sentences together with their embeddings
+     */
+    private Embedded embed(SentenceTable sentences) {
+        return new Embedded(sentences, embedSentences(embedder, sentences));
+    }
+
+    /**
+     * Chunks the sentences at the break points found in the similarities of their embeddings.
+     *
+     * @param embedded the sentences together with their embeddings
+     * @return the list of chunks
+     */
+    private List<Chunk> chunk(Embedded embedded) {
+        var sentences = embedded.sentences();
+        var similarities = calculateSimilarities(embedded.embeddings());
         var breakPoints = calculateBreakPoints(similarities, config.percentile());
-        return generateChunks(sentences, breakPoints);
+        if (ChunkSizeLimiter.isEnabled(config)) {
+            return generateSizedChunks(sentences, similarities, breakPoints);
+        }
+        return generateChunks(sentences, similarities, breakPoints);
+    }
+
+    /**
+     * The break points are found against a percentile of all the similarities of the content, so a
+     * region of the content is not split as in the whole content.
+     *
+     * @return {@code false}
+     */
+    @Override
+    public boolean hasLocalCuts() {
+        return false;
+    }
+
+    /**
+     * Splits the content read from the reader into chunks. The reader is consumed in windows cut at
+     * the last sentence boundary and the sentences of every window are chunked as they arrive, see
+     * {@link #streamSentences(Stream)}.
+     *
+     * @param reader the source of the content to be split, it is not closed by this method
+     * @return a lazy stream of chunks
+     */
+    @Override
+    public Stream<Chunk> stream(Reader reader) {
+        var windows = new TextWindowReader(reader, sentenceSegmenter::lastBoundary);
+        var sentences = Stream.generate(windows::next)
+                .takeWhile(Objects::nonNull)
+                .filter(window -> !window.isBlank())
+                .flatMap(window -> SentenceTable.of(window, sentenceSegmenter).sentences().stream());
+        return streamSentences(sentences);
+    }
+
+    /**
+     * Splits a stream of sentences into chunks, e.g. the sentences of a live transcription. The
+     * sentences are embedded in batches of {@link Config#embeddingBatchSize()} and every break point
+     * is decided against a threshold kept over the similarities seen so far (see {@link
+     * Config#thresholdStrategy()}), so chunks are emitted as soon as they are closed and the memory
+     * used does not depend on the length of the stream.
+     *
+     * @param sentences the sentences to be chunked, the stream is closed with the returned one
+     * @return a lazy stream of chunks
+     */
+    public Stream<Chunk> streamSentences(Stream<String> sentences) {
+        var splitter = new StreamingSemanticSplitter(sentences.iterator(), embedder, KERNEL, config);
+        return ChunkStreams.generate(splitter).onClose(sentences::close);
     }
 
     /**
@@ -48,11 +171,11 @@ public class SemanticChunker implements IChunker {
      */
     @VisibleForTesting
     List<Sentence> splitSentences(String content, SentenceSplittingStrategy splittingStrategy) {
-        var index = new AtomicInteger(0);
-        return Arrays.stream(content.split(splittingStrategy.getStrategy()))
-                .map(sentence -> Sentence.builder()
-                        .content(sentence)
-                        .index(index.getAndIncrement())
+        var sentences = SentenceTable.of(content, splittingStrategy.getSegmenter());
+        return IntStream.range(0, sentences.size())
+                .mapToObj(i -> Sentence.builder()
+                        .content(sentences.sentence(i))
+                        .index(i)
                         .build())
                 .toList();
     }
@@ -130,6 +253,22 @@ public class SemanticChunker implements IChunker {
                 .toList();
     }
 
+    /**
+     * Embed the sentences using the embedding model, as configured by {@link Config#embeddingMode()}
+     *
+     * @param sentences the sentences
+     * @return the matrix of embeddings, one row per sentence
+     */
+    @VisibleForTesting
+    EmbeddingMatrix embedSentences(final Embedder embedder, final SentenceTable sentences) {
+        return switch (config.embeddingMode()) {
+            case SENTENCE -> EmbeddingMatrix.of(embedder.embed(sentences.sentences()));
+            case COMBINED -> EmbeddingMatrix.of(embedder.embed(sentences.combined(config.bufferSize())));
+            case AGGREGATED -> EmbeddingMatrix.of(embedder.embed(sentences.sentences()))
+                    .windowSums(config.bufferSize());
+        };
+    }
+
     /**
      * Calculate the similarity between the sentences embeddings
      *
@@ -143,88 +282,176 @@ public class SemanticChunker implements IChunker {
         assert sentence2 != null : "The second sentence embedding cannot be null";
         assert sentence1.length == sentence2.length : "The sentence embeddings must have the same size";
 
-        double dotProduct = 0.0;
-        double sentence1Norm = 0.0;
-        double sentence2Norm = 0.0;
-        for (int i = 0; i < sentence1.length; i++) {
-            dotProduct += sentence1[i] * sentence2[i];
-            sentence1Norm += Math.pow(sentence1[i], 2);
-            sentence2Norm += Math.pow(sentence2[i], 2);
-        }
-
-        return dotProduct / (Math.sqrt(sentence1Norm) * Math.sqrt(sentence2Norm));
+        double dotProduct = KERNEL.dot(sentence1, sentence2);
+        return dotProduct / (Math.sqrt(KERNEL.dot(sentence1, sentence1)) * Math.sqrt(KERNEL.dot(sentence2, sentence2)));
     }
 
     /**
-     * Calculate the similarity between the sentences embeddings
+     * Calculate the similarity between the embeddings of every pair of consecutive sentences. The
+     * norm of every embedding is computed once, so every similarity is a single dot product. The
+     * embeddings are not modified, as they may be shared (e.g. with an embeddings cache).
      *
      * @param sentences the list of sentences
-     * @return the list of similarities (List of double)
+     * @return the similarities, the i-th one is the similarity between the sentences i and i + 1
      */
     @VisibleForTesting
-    List<Double> calculateSimilarities(final List<Sentence> sentences) {
-        return IntStream.range(0, sentences.size() - 1)
-                .parallel()
-                .mapToObj(i -> {
-                    Sentence sentence1 = sentences.get(i);
-                    Sentence sentence2 = sentences.get(i + 1);
-                    return cosineSimilarity(sentence1.getEmbedding(), sentence2.getEmbedding());
-                })
-                .toList();
+    double[] calculateSimilarities(final List<Sentence> sentences) {
+        return calculateSimilarities(EmbeddingMatrix.of(
+                sentences.stream().map(Sentence::getEmbedding).toList()));
     }
 
     /**
-     * Calculate the break points indices based on the similarities and the threshold
+     * Calculate the similarity between every pair of consecutive rows of the matrix of embeddings
      *
-     * @param distances the list of cosine similarities between the sentences
-     * @return the list of break points indices
+     * @param embeddings the matrix of embeddings, one row per sentence
+     * @return the similarities, the i-th one is the similarity between the rows i and i + 1
      */
     @VisibleForTesting
-    List<Integer> calculateBreakPoints(final List<Double> distances, final int percentile) {
-        assert distances != null : "The list of distances cannot be null";
+    double[] calculateSimilarities(final EmbeddingMatrix embeddings) {
+        var n = embeddings.rows();
+        var values = embeddings.values();
+        var dimension = embeddings.dimension();
 
-        var breakpointDistanceThreshold = calculatePercentile(distances, percentile);
+        var inverseNorms = new double[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            var offset = embeddings.offset(i);
+            inverseNorms[i] = 1.0 / Math.sqrt(KERNEL.dot(values, offset, values, offset, dimension));
+        });
 
-        return IntStream.range(0, distances.size())
-                .filter(i -> distances.get(i) >= breakpointDistanceThreshold)
-                .boxed()
-                .toList();
+        var similarities = new double[Math.max(n - 1, 0)];
+        IntStream.range(0, similarities.length).parallel().forEach(i -> {
+            var dotProduct = KERNEL.dot(values, embeddings.offset(i), values, embeddings.offset(i + 1), dimension);
+            similarities[i] = dotProduct * inverseNorms[i] * inverseNorms[i + 1];
+        });
+
+        return similarities;
     }
 
-    private static Double calculatePercentile(final List<Double> distances, final int percentile) {
+    /**
+     * Calculate the break points indices based on the similarities and the threshold
+     *
+     * @param distances the cosine similarities between the sentences
+     * @return the break points indices, in ascending order
+     */
+    @VisibleForTesting
+    int[] calculateBreakPoints(final double[] distances, final int percentile) {
         assert distances != null : "The list of distances cannot be null";
-        assert percentile > 0 && percentile < 100 : "The percentile must be greater than 0 and less than 100";
 
-        var sortedDistances = distances.stream().sorted().toList();
+        var breakpointDistanceThreshold = Percentiles.percentile(distances, percentile);
 
-        var rank = (int) Math.ceil(percentile / 100.0 * distances.size());
-        return sortedDistances.get(rank - 1);
+        return IntStream.range(0, distances.length)
+                .filter(i -> distances[i] >= breakpointDistanceThreshold)
+                .toArray();
     }
 
     /**
      * Generate chunks combining the sentences based on the break points
      *
      * @param sentences the list of sentences
-     * @param breakPoints the list of break points indices
+     * @param breakPoints the break points indices
      * @return the list of chunks
      */
     @VisibleForTesting
-    List<Chunk> generateChunks(final List<Sentence> sentences, final List<Integer> breakPoints) {
+    List<Chunk> generateChunks(final List<Sentence> sentences, final int[] breakPoints) {
         assert sentences != null : "The list of sentences cannot be null";
         assert !sentences.isEmpty() : "The list of sentences cannot be empty";
         assert breakPoints != null : "The list of break points cannot be null";
 
-        var index = new AtomicInteger(0);
-
-        return IntStream.range(0, breakPoints.size() + 1)
+        return IntStream.range(0, breakPoints.length + 1)
                 .mapToObj(i -> {
-                    int start = i == 0 ? 0 : breakPoints.get(i - 1) + 1;
-                    int end = i == breakPoints.size() ? sentences.size() : breakPoints.get(i) + 1;
+                    int start = i == 0 ? 0 : breakPoints[i - 1] + 1;
+                    int end = i == breakPoints.length ? sentences.size() : breakPoints[i] + 1;
                     String content = sentences.subList(start, end).stream()
                             .map(Sentence::getContent)
                             .collect(Collectors.joining(" "));
-                    return new Chunk(index.getAndIncrement(), content);
+                    return new Chunk(i, content);
                 })
                 .toList();
     }
+
+    /**
+     * Generate chunks combining the sentences based on the break points
+     *
+     * @param sentences the sentences
+     * @param breakPoints the break points indices
+     * @return the list of chunks
+     */
+    @VisibleForTesting
+    List<Chunk> generateChunks(final SentenceTable sentences, final int[] breakPoints) {
+        return generateChunks(sentences, null, breakPoints);
+    }
+
+    /**
+     * Generate chunks combining the sentences based on the break points, describing every chunk
+     * with its offsets, its length and the similarity at the break point that opened it
+     *
+     * @param sentences the sentences
+     * @param similarities the similarities between the consecutive sentences, {@code null} if unknown
+     * @param breakPoints the break points indices
+     * @return the list of chunks
+     */
+    @VisibleForTesting
+    List<Chunk> generateChunks(final SentenceTable sentences, final double[] similarities, final int[] breakPoints) {
+        assert sentences != null : "The list of sentences cannot be null";
+        assert sentences.size() > 0 : "The list of sentences cannot be empty";
+        assert breakPoints != null : "The list of break points cannot be null";
+
+        var lengthFunction = config.lengthFunction();
+        var chunks = new ArrayList<Chunk>(breakPoints.length + 1);
+        var start = 0;
+        for (int i = 0; i <= breakPoints.length; i++) {
+            var end = i == breakPoints.length ? sentences.size() : breakPoints[i] + 1;
+            var content = sentences.join(start, end);
+            var breakSimilarity = start == 0 || similarities == null ? Float.NaN : (float) similarities[start - 1];
+            var metadata = new ChunkMetadata(
+                    sentences.start(start),
+                    sentences.end(end - 1),
+                    lengthFunction.length(content),
+                    -1,
+                    0,
+                    breakSimilarity);
+            chunks.add(new Chunk(i, content, metadata));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Generate chunks combining the sentences based on the break points, then splitting and merging
+     * them to fit the {@link Config#minChunkSize()} and {@link Config#maxChunkSize()}
+     *
+     * @param sentences the sentences
+     * @param similarities the similarities between the consecutive sentences
+     * @param breakPoints the break points indices
+     * @return the list of chunks
+     */
+    @VisibleForTesting
+    List<Chunk> generateSizedChunks(
+            final SentenceTable sentences, final double[] similarities, final int[] breakPoints) {
+        assert sentences != null : "The list of sentences cannot be null";
+        assert sentences.size() > 0 : "The list of sentences cannot be empty";
+        assert breakPoints != null : "The list of break points cannot be null";
+
+        var texts = sentences.sentences();
+        var limiter = new ChunkSizeLimiter(config, sentences);
+        var chunks = new ArrayList<Chunk>(breakPoints.length + 1);
+        var start = 0;
+        for (int i = 0; i <= breakPoints.length; i++) {
+            var end = i == breakPoints.length ? sentences.size() : breakPoints[i] + 1;
+            var leading = start == 0 ? Double.NaN : similarities[start - 1];
+            limiter.add(texts.subList(start, end), start, similarities, start, leading, chunks::add);
+            start = end;
+        }
+        limiter.finish(chunks::add);
+        return chunks;
+    }
+
+    /**
+     * The sentences of a content together with their embeddings, handed from the embedding stage to
+     * the chunking stage.
+     *
+     * @param sentences the sentences
+     * @param embeddings the embeddings, one row per sentence
+     */
+    private record Embedded(SentenceTable sentences, EmbeddingMatrix embeddings) {}
 }
@@ -1,19 +1,28 @@
 package jchunk.chunker.semantic;
 
+import jchunk.chunker.semantic.segmenter.DelimiterSentenceSegmenter;
+import jchunk.chunker.semantic.segmenter.PunctuationSentenceSegmenter;
+import jchunk.chunker.semantic.segmenter.SentenceSegmenter;
+
 /**
- * Enum to represent the different strategies to split the sentences
+ * Enum to represent the different strategies to split the sentences. Every strategy is described by
+ * a regex, and implemented by a {@link SentenceSegmenter} producing the same sentences as splitting
+ * the content with the regex.
  *
  * @author Pablo Sanchidrian Herrera
  */
 public enum SentenceSplittingStrategy {
-    DEFAULT("(?<=[.?!])\\s+"),
-    LINE_BREAK("\n"),
-    PARAGRAPH("\n\n");
+    DEFAULT("(?<=[.?!])\\s+", new PunctuationSentenceSegmenter()),
+    LINE_BREAK("\n", new DelimiterSentenceSegmenter("\n")),
+    PARAGRAPH("\n\n", new DelimiterSentenceSegmenter("\n\n"));
 
     private final String strategy;
 
-    SentenceSplittingStrategy(String strategy) {
+    private final SentenceSegmenter segmenter;
+
+    SentenceSplittingStrategy(String strategy, SentenceSegmenter segmenter) {
         this.strategy = strategy;
+        this.segmenter = segmenter;
     }
 
     @Override
@@ -24,4 +33,8 @@ public enum SentenceSplittingStrategy {
     public String getStrategy() {
         return this.strategy;
     }
+
+    public SentenceSegmenter getSegmenter() {
+        return this.segmenter;
+    }
 }
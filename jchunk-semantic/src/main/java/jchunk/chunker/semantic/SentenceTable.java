@@ -0,0 +1,127 @@
+package jchunk.chunker.semantic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import jchunk.chunker.semantic.segmenter.SentenceSegmenter;
+
+/**
+ * Columnar representation of the sentences of a content: the sentences are kept as {@code [start,
+ * end)} offsets over the content in primitive int arrays, so no object is allocated per sentence.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+final class SentenceTable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final String source;
+
+    private int[] starts = new int[INITIAL_CAPACITY];
+
+    private int[] ends = new int[INITIAL_CAPACITY];
+
+    private int size = 0;
+
+    private SentenceTable(String source) {
+        this.source = source;
+    }
+
+    /**
+     * Splits the content into sentences.
+     *
+     * @param content the content to split
+     * @param segmenter the segmenter finding the sentences
+     * @return the sentences of the content
+     */
+    static SentenceTable of(String content, SentenceSegmenter segmenter) {
+        var table = new SentenceTable(content);
+        segmenter.segment(content, table::add);
+        return table;
+    }
+
+    private void add(int start, int end) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param i the index of the sentence
+     * @return the offset of the start of the sentence in the content
+     */
+    int start(int i) {
+        return starts[i];
+    }
+
+    /**
+     * @param i the index of the sentence
+     * @return the offset of the end of the sentence in the content
+     */
+    int end(int i) {
+        return ends[i];
+    }
+
+    /**
+     * @param i the index of the sentence
+     * @return the content of the sentence
+     */
+    String sentence(int i) {
+        return source.substring(starts[i], ends[i]);
+    }
+
+    /** {@return the contents of the sentences} */
+    List<String> sentences() {
+        var sentences = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            sentences.add(sentence(i));
+        }
+        return sentences;
+    }
+
+    /**
+     * Combines every sentence with the sentences around it.
+     *
+     * @param bufferSize the number of sentences to combine before and after every sentence
+     * @return the combined sentences, one per sentence
+     */
+    List<String> combined(int bufferSize) {
+        var combined = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            combined.add(join(Math.max(0, i - bufferSize), Math.min(size, i + bufferSize + 1)));
+        }
+        return combined;
+    }
+
+    /**
+     * Joins the contents of a range of sentences with a single space, copying them straight from the
+     * source.
+     *
+     * @param from the index of the first sentence, inclusive
+     * @param to the index of the last sentence, exclusive
+     * @return the joined sentences
+     */
+    String join(int from, int to) {
+        var length = to - from - 1;
+        for (int i = from; i < to; i++) {
+            length += ends[i] - starts[i];
+        }
+
+        var builder = new StringBuilder(Math.max(length, 0));
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                builder.append(' ');
+            }
+            builder.append(source, starts[i], ends[i]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package jchunk.chunker.semantic;
+
+/**
+ * Kernel computing the dot product of two embeddings, the building block of the cosine similarity.
+ *
+ * <p>{@link #select()} picks the SIMD kernel built on the incubating Vector API when the {@code
+ * jdk.incubator.vector} module is available (the JVM is started with {@code --add-modules
+ * jdk.incubator.vector}), and a scalar loop otherwise.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+interface SimilarityKernel {
+
+    String VECTOR_MODULE = "jdk.incubator.vector";
+
+    String VECTOR_KERNEL = "jchunk.chunker.semantic.VectorSimilarityKernel";
+
+    /**
+     * @param a the first embedding
+     * @param b the second embedding, of the same dimension as the first one
+     * @return the dot product of the embeddings
+     */
+    default double dot(float[] a, float[] b) {
+        return dot(a, 0, b, 0, a.length);
+    }
+
+    /**
+     * Computes the dot product of two embeddings stored in larger arrays, e.g. two rows of an {@link
+     * EmbeddingMatrix}.
+     *
+     * @param a the array holding the first embedding
+     * @param aOffset the offset of the first embedding in its array
+     * @param b the array holding the second embedding
+     * @param bOffset the offset of the second embedding in its array
+     * @param length the dimension of the embeddings
+     * @return the dot product of the embeddings
+     */
+    double dot(float[] a, int aOffset, float[] b, int bOffset, int length);
+
+    /** {@return the fastest kernel available in the running JVM} */
+    static SimilarityKernel select() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                return (SimilarityKernel)
+                        Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // the scalar kernel is used instead
+            }
+        }
+        return new ScalarSimilarityKernel();
+    }
+}
@@ -0,0 +1,144 @@
+package jchunk.chunker.semantic;
+
+import java.util.Arrays;
+
+/**
+ * Approximate percentile of a stream of values computed with the P² algorithm (Jain and Chlamtac),
+ * which keeps five markers whose heights are adjusted with a piecewise parabolic interpolation as
+ * the values arrive. It uses constant memory and time per value, so the percentile can be tracked
+ * without keeping all the values. While fewer than five values have been seen the percentile is
+ * exact.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+final class StreamingPercentile {
+
+    private static final int MARKERS = 5;
+
+    private final double p;
+
+    private final double[] heights = new double[MARKERS];
+
+    private final double[] positions = new double[MARKERS];
+
+    private final double[] desiredPositions;
+
+    private final double[] increments;
+
+    private long count = 0;
+
+    /**
+     * @param percentile the percentile to track, between 0 and 100 (both exclusive)
+     */
+    StreamingPercentile(int percentile) {
+        assert percentile > 0 && percentile < 100 : "The percentile must be greater than 0 and less than 100";
+
+        this.p = percentile / 100.0;
+        this.desiredPositions = new double[] {1, 1 + 2 * p, 1 + 4 * p, 3 + 2 * p, 5};
+        this.increments = new double[] {0, p / 2, p, (1 + p) / 2, 1};
+    }
+
+    /**
+     * Adds a value to the stream.
+     *
+     * @param value the value
+     */
+    void add(double value) {
+        if (count < MARKERS) {
+            heights[(int) count++] = value;
+            if (count == MARKERS) {
+                Arrays.sort(heights);
+                for (int i = 0; i < MARKERS; i++) {
+                    positions[i] = i + 1;
+                }
+            }
+            return;
+        }
+
+        int cell;
+        if (value < heights[0]) {
+            heights[0] = value;
+            cell = 0;
+        } else if (value >= heights[MARKERS - 1]) {
+            heights[MARKERS - 1] = value;
+            cell = MARKERS - 2;
+        } else {
+            cell = 0;
+            while (value >= heights[cell + 1]) {
+                cell++;
+            }
+        }
+
+        for (int i = cell + 1; i < MARKERS; i++) {
+            positions[i]++;
+        }
+        for (int i = 0; i < MARKERS; i++) {
+            desiredPositions[i] += increments[i];
+        }
+        count++;
+
+        for (int i = 1; i < MARKERS - 1; i++) {
+            adjust(i);
+        }
+    }
+
+    /**
+     * Adds the values to the stream.
+     *
+     * @param values the values
+     */
+    void addAll(double[] values) {
+        for (double value : values) {
+            add(value);
+        }
+    }
+
+    /** {@return the number of values seen} */
+    long count() {
+        return count;
+    }
+
+    /** {@return the estimated percentile of the values seen, NaN if no value has been seen} */
+    double percentile() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (count < MARKERS) {
+            var seen = Arrays.copyOf(heights, (int) count);
+            Arrays.sort(seen);
+            return seen[(int) Math.ceil(p * count) - 1];
+        }
+        return heights[2];
+    }
+
+    private void adjust(int i) {
+        double delta = desiredPositions[i] - positions[i];
+        if ((delta >= 1 && positions[i + 1] - positions[i] > 1)
+                || (delta <= -1 && positions[i - 1] - positions[i] < -1)) {
+            int direction = delta > 0 ? 1 : -1;
+            double height = parabolic(i, direction);
+            if (heights[i - 1] < height && height < heights[i + 1]) {
+                heights[i] = height;
+            } else {
+                heights[i] = linear(i, direction);
+            }
+            positions[i] += direction;
+        }
+    }
+
+    private double parabolic(int i, int d) {
+        return heights[i]
+                + d
+                        / (positions[i + 1] - positions[i - 1])
+                        * ((positions[i] - positions[i - 1] + d)
+                                        * (heights[i + 1] - heights[i])
+                                        / (positions[i + 1] - positions[i])
+                                + (positions[i + 1] - positions[i] - d)
+                                        * (heights[i] - heights[i - 1])
+                                        / (positions[i] - positions[i - 1]));
+    }
+
+    private double linear(int i, int d) {
+        return heights[i] + d * (heights[i + d] - heights[i]) / (positions[i + d] - positions[i]);
+    }
+}
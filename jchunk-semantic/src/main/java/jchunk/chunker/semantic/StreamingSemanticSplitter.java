@@ -0,0 +1,400 @@
+package jchunk.chunker.semantic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.stream.ChunkStreams;
+import jchunk.chunker.semantic.embedder.Embedder;
+
+/**
+ * Source of semantic chunks that consumes the sentences incrementally. Sentences are embedded in
+ * micro-batches and the similarity of every sentence with the previous one is compared against a
+ * threshold kept over the similarities seen so far (see {@link ThresholdStrategy}), so a chunk is
+ * emitted as soon as the break point closing it is found.
+ *
+ * <p>With the {@link EmbeddingMode#COMBINED} and {@link EmbeddingMode#AGGREGATED} modes a sentence is
+ * compared once the {@link Config#bufferSize()} sentences after it are known.
+ *
+ * <p>Until {@link Config#thresholdWindow()} similarities are known the break points are not
+ * decided, then they are decided with the exact percentile of those similarities. Contents shorter
+ * than the window are therefore chunked exactly as {@link SemanticChunker#split(String)} does.
+ *
+ * <p>The chunks closed by the break points go through a {@link ChunkSizeLimiter}, which holds the
+ * last two back when a minimum chunk size is configured.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+final class StreamingSemanticSplitter implements ChunkStreams.ChunkSource {
+
+    private final Iterator<String> sentences;
+
+    private final Embedder embedder;
+
+    private final SimilarityKernel kernel;
+
+    private final Config config;
+
+    private final Threshold threshold;
+
+    private final List<String> batch;
+
+    private final NeighbourWindow<String> combinedWindow;
+
+    private final NeighbourWindow<Embedded> aggregatedWindow;
+
+    private final List<String> readySentences = new ArrayList<>();
+
+    private final List<String> readyTexts = new ArrayList<>();
+
+    private final List<float[]> readyEmbeddings = new ArrayList<>();
+
+    private double[] aggregatedSum;
+
+    private final List<String> undecidedSentences = new ArrayList<>();
+
+    private double[] undecidedSimilarities = new double[16];
+
+    private final ChunkSizeLimiter limiter;
+
+    private List<String> chunkSentences = new ArrayList<>();
+
+    private double[] chunkSimilarities = new double[16];
+
+    private double chunkLeadingSimilarity = Double.NaN;
+
+    private int chunkFirstSentence = 0;
+
+    private int sentenceCount = 0;
+
+    private int sentencesRead = 0;
+
+    private float[] previous;
+
+    private double previousInverseNorm;
+
+    private boolean warmedUp = false;
+
+    StreamingSemanticSplitter(Iterator<String> sentences, Embedder embedder, SimilarityKernel kernel, Config config) {
+        this.sentences = sentences;
+        this.embedder = embedder;
+        this.kernel = kernel;
+        this.config = config;
+        this.batch = new ArrayList<>(config.embeddingBatchSize());
+        this.limiter = new ChunkSizeLimiter(config);
+        this.threshold = switch (config.thresholdStrategy()) {
+            case SLIDING_WINDOW -> new SlidingWindowThreshold(config.thresholdWindow(), config.percentile());
+            case RUNNING_ESTIMATE -> new RunningThreshold(config.percentile());};
+        this.combinedWindow =
+                new NeighbourWindow<>(config.bufferSize(), sentence -> {}, sentence -> {}, (sentence, window) -> {
+                    readySentences.add(sentence);
+                    readyTexts.add(String.join(" ", window));
+                });
+        this.aggregatedWindow = new NeighbourWindow<>(
+                config.bufferSize(), this::addToSum, this::subtractFromSum, (sentence, window) -> {
+                    readySentences.add(sentence.sentence());
+                    readyEmbeddings.add(sumAsFloats());
+                });
+    }
+
+    @Override
+    public boolean advance(Consumer<Chunk> sink) {
+        batch.clear();
+        var firstBatch = sentencesRead == 0;
+        while (batch.size() < config.embeddingBatchSize() && sentences.hasNext()) {
+            batch.add(sentences.next());
+            sentencesRead++;
+        }
+
+        if (batch.isEmpty()) {
+            finish(sink);
+            return false;
+        }
+
+        if (firstBatch && !sentences.hasNext() && batch.size() <= config.bufferSize()) {
+            // not enough sentences to be compared, no need to embed them (earlier sentences may still
+            // be waiting in the neighbour windows, so this only holds for the first batch)
+            batch.forEach(sentence -> append(sentence, Double.NaN));
+            finish(sink);
+            return false;
+        }
+
+        switch (config.embeddingMode()) {
+            case SENTENCE -> {
+                readySentences.addAll(batch);
+                readyEmbeddings.addAll(embedder.embed(batch));
+            }
+            case COMBINED -> batch.forEach(combinedWindow::add);
+            case AGGREGATED -> {
+                var embeddings = embedder.embed(batch);
+                for (int i = 0; i < batch.size(); i++) {
+                    aggregatedWindow.add(new Embedded(batch.get(i), embeddings.get(i)));
+                }
+            }
+        }
+        acceptReady(sink);
+        return true;
+    }
+
+    /**
+     * Compares the sentences whose embeddings (or window texts to embed) are ready.
+     *
+     * @param sink the consumer of the generated chunks
+     */
+    private void acceptReady(Consumer<Chunk> sink) {
+        if (!readyTexts.isEmpty()) {
+            readyEmbeddings.addAll(embedder.embed(readyTexts));
+            readyTexts.clear();
+        }
+
+        for (int i = 0; i < readySentences.size(); i++) {
+            accept(readySentences.get(i), readyEmbeddings.get(i), sink);
+        }
+        readySentences.clear();
+        readyEmbeddings.clear();
+    }
+
+    private void addToSum(Embedded sentence) {
+        var embedding = sentence.embedding();
+        if (aggregatedSum == null) {
+            aggregatedSum = new double[embedding.length];
+        }
+        for (int j = 0; j < embedding.length; j++) {
+            aggregatedSum[j] += embedding[j];
+        }
+    }
+
+    private void subtractFromSum(Embedded sentence) {
+        var embedding = sentence.embedding();
+        for (int j = 0; j < embedding.length; j++) {
+            aggregatedSum[j] -= embedding[j];
+        }
+    }
+
+    private float[] sumAsFloats() {
+        var sum = new float[aggregatedSum.length];
+        for (int j = 0; j < sum.length; j++) {
+            sum[j] = (float) aggregatedSum[j];
+        }
+        return sum;
+    }
+
+    /**
+     * Compares the sentence with the previous one, deciding whether a chunk ends before it.
+     *
+     * @param sentence the sentence
+     * @param embedding the embedding of the sentence
+     * @param sink the consumer of the generated chunks
+     */
+    private void accept(String sentence, float[] embedding, Consumer<Chunk> sink) {
+        var inverseNorm = 1.0 / Math.sqrt(kernel.dot(embedding, embedding));
+
+        if (previous == null) {
+            append(sentence, Double.NaN);
+        } else {
+            var similarity = kernel.dot(previous, embedding) * previousInverseNorm * inverseNorm;
+            threshold.add(similarity);
+
+            if (warmedUp) {
+                decide(similarity, sentence, threshold.value(), sink);
+            } else {
+                addUndecided(similarity, sentence);
+                if (undecidedSentences.size() >= config.thresholdWindow()) {
+                    decideUndecided(sink);
+                    warmedUp = true;
+                }
+            }
+        }
+
+        previous = embedding;
+        previousInverseNorm = inverseNorm;
+    }
+
+    private void addUndecided(double similarity, String sentence) {
+        var size = undecidedSentences.size();
+        if (size == undecidedSimilarities.length) {
+            undecidedSimilarities = Arrays.copyOf(undecidedSimilarities, size * 2);
+        }
+        undecidedSimilarities[size] = similarity;
+        undecidedSentences.add(sentence);
+    }
+
+    /**
+     * Decides the pending break points using the exact percentile of their similarities.
+     *
+     * @param sink the consumer of the generated chunks
+     */
+    private void decideUndecided(Consumer<Chunk> sink) {
+        var size = undecidedSentences.size();
+        var similarities = Arrays.copyOf(undecidedSimilarities, size);
+        var value = Percentiles.percentile(similarities, config.percentile());
+
+        for (int i = 0; i < size; i++) {
+            decide(similarities[i], undecidedSentences.get(i), value, sink);
+        }
+        undecidedSentences.clear();
+    }
+
+    private void decide(double similarity, String sentence, double threshold, Consumer<Chunk> sink) {
+        if (similarity >= threshold) {
+            emit(sink);
+        }
+        append(sentence, similarity);
+    }
+
+    /**
+     * Appends the sentence to the current chunk.
+     *
+     * @param sentence the sentence
+     * @param similarity the similarity with the previous sentence, {@link Double#NaN} if unknown
+     */
+    private void append(String sentence, double similarity) {
+        var size = chunkSentences.size();
+        if (size == 0) {
+            chunkLeadingSimilarity = similarity;
+            chunkFirstSentence = sentenceCount;
+        } else {
+            if (size > chunkSimilarities.length) {
+                chunkSimilarities = Arrays.copyOf(chunkSimilarities, size * 2);
+            }
+            chunkSimilarities[size - 1] = similarity;
+        }
+        chunkSentences.add(sentence);
+        sentenceCount++;
+    }
+
+    private void emit(Consumer<Chunk> sink) {
+        limiter.add(chunkSentences, chunkFirstSentence, chunkSimilarities, 0, chunkLeadingSimilarity, sink);
+        chunkSentences = new ArrayList<>();
+    }
+
+    private void finish(Consumer<Chunk> sink) {
+        combinedWindow.drain();
+        aggregatedWindow.drain();
+        acceptReady(sink);
+
+        if (!undecidedSentences.isEmpty()) {
+            decideUndecided(sink);
+        }
+        if (!chunkSentences.isEmpty()) {
+            emit(sink);
+        }
+        limiter.finish(sink);
+    }
+
+    /**
+     * A sentence and its embedding.
+     *
+     * @param sentence the sentence
+     * @param embedding the embedding of the sentence
+     */
+    private record Embedded(String sentence, float[] embedding) {}
+
+    /**
+     * Window over the sentences around the next sentence to be compared, which is ready once the
+     * {@code radius} sentences after it are known (or the stream ends). Only the sentences still
+     * needed by the next windows are kept.
+     */
+    private static final class NeighbourWindow<T> {
+
+        private final int radius;
+
+        private final Consumer<T> onEnter;
+
+        private final Consumer<T> onLeave;
+
+        private final BiConsumer<T, List<T>> onReady;
+
+        private final List<T> items = new ArrayList<>();
+
+        private int center = 0;
+
+        NeighbourWindow(int radius, Consumer<T> onEnter, Consumer<T> onLeave, BiConsumer<T, List<T>> onReady) {
+            this.radius = radius;
+            this.onEnter = onEnter;
+            this.onLeave = onLeave;
+            this.onReady = onReady;
+        }
+
+        void add(T item) {
+            items.add(item);
+            onEnter.accept(item);
+            if (items.size() - 1 - center >= radius) {
+                advance();
+            }
+        }
+
+        /** Releases the sentences waiting for the sentences after them, as no more will come. */
+        void drain() {
+            while (center < items.size()) {
+                advance();
+            }
+        }
+
+        private void advance() {
+            onReady.accept(items.get(center), items);
+            center++;
+            if (center > radius) {
+                onLeave.accept(items.removeFirst());
+                center--;
+            }
+        }
+    }
+
+    /** Break point threshold computed over the similarities seen so far. */
+    private interface Threshold {
+
+        void add(double similarity);
+
+        double value();
+    }
+
+    /** Exact percentile of the last similarities. */
+    private static final class SlidingWindowThreshold implements Threshold {
+
+        private final double[] window;
+
+        private final int percentile;
+
+        private long count = 0;
+
+        SlidingWindowThreshold(int size, int percentile) {
+            this.window = new double[size];
+            this.percentile = percentile;
+        }
+
+        @Override
+        public void add(double similarity) {
+            window[(int) (count++ % window.length)] = similarity;
+        }
+
+        @Override
+        public double value() {
+            var values = count >= window.length ? window : Arrays.copyOf(window, (int) count);
+            return Percentiles.percentile(values, percentile);
+        }
+    }
+
+    /** Running estimate of the percentile of all the similarities. */
+    private static final class RunningThreshold implements Threshold {
+
+        private final StreamingPercentile estimate;
+
+        RunningThreshold(int percentile) {
+            this.estimate = new StreamingPercentile(percentile);
+        }
+
+        @Override
+        public void add(double similarity) {
+            estimate.add(similarity);
+        }
+
+        @Override
+        public double value() {
+            return estimate.percentile();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package jchunk.chunker.semantic;
+
+/**
+ * Enum to represent the different ways of computing the break point threshold while streaming, when
+ * the similarities of the whole content are not known in advance
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public enum ThresholdStrategy {
+
+    /** Exact percentile of the similarities of the last sentences, the window size is configurable */
+    SLIDING_WINDOW,
+
+    /** Approximate percentile of all the similarities seen, estimated in constant memory */
+    RUNNING_ESTIMATE
+}
@@ -0,0 +1,34 @@
+package jchunk.chunker.semantic;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link SimilarityKernel} implemented with the incubating Vector API, it multiplies and accumulates
+ * as many floats per instruction as the preferred species of the CPU holds. It must only be loaded
+ * through {@link SimilarityKernel#select()}, which checks that the module is available.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+final class VectorSimilarityKernel implements SimilarityKernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public double dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        var accumulator = FloatVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            var va = FloatVector.fromArray(SPECIES, a, aOffset + i);
+            var vb = FloatVector.fromArray(SPECIES, b, bOffset + i);
+            accumulator = va.fma(vb, accumulator);
+        }
+
+        double dot = accumulator.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            dot += a[aOffset + i] * b[bOffset + i];
+        }
+        return dot;
+    }
+}
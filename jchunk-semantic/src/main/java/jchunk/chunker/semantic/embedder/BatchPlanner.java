@@ -0,0 +1,50 @@
+package jchunk.chunker.semantic.embedder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Groups texts into model batches. Texts are sorted by their number of tokens, so texts of similar
+ * length share a batch and the padding of every batch is minimal, and then batches are filled while
+ * they stay within the size and tokens limits.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+final class BatchPlanner {
+
+    private BatchPlanner() {}
+
+    /**
+     * @param lengths the number of tokens of every text
+     * @param maxBatchSize the maximum number of texts of a batch
+     * @param maxTokensPerBatch the maximum number of tokens of a batch, once padded to its longest
+     *     text
+     * @return the positions of the texts of every batch
+     */
+    static List<int[]> plan(int[] lengths, int maxBatchSize, int maxTokensPerBatch) {
+        int[] order = IntStream.range(0, lengths.length)
+                .boxed()
+                .sorted(Comparator.comparingInt(i -> lengths[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        List<int[]> batches = new ArrayList<>();
+        int batchStart = 0;
+        for (int i = 1; i <= order.length; i++) {
+            int batchSize = i - batchStart;
+            boolean full = i == order.length
+                    || batchSize == maxBatchSize
+                    || (long) (batchSize + 1) * lengths[order[i]] > maxTokensPerBatch;
+
+            if (full) {
+                batches.add(Arrays.copyOfRange(order, batchStart, i));
+                batchStart = i;
+            }
+        }
+
+        return batches;
+    }
+}
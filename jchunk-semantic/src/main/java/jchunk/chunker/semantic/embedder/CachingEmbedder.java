@@ -0,0 +1,179 @@
+package jchunk.chunker.semantic.embedder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link Embedder} decorator that caches the embeddings of the delegate, keyed by the hash of the
+ * embedded text.
+ *
+ * <p>The embeddings are kept in memory in a least recently used cache bounded by {@code
+ * maximumSize} entries. Optionally, every computed embedding is also written to a memory-mapped
+ * file, so a new instance using the same file does not compute them again. Only the texts missing
+ * from both tiers are sent to the delegate, in a single call.
+ *
+ * <p>The returned embeddings are shared with the cache and must not be modified.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public class CachingEmbedder implements Embedder, AutoCloseable {
+
+    private final Embedder delegate;
+
+    private final Map<ContentHash, float[]> cache;
+
+    private final MappedEmbeddingStore store;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private CachingEmbedder(Embedder delegate, int maximumSize, Path persistentStore) {
+        this.delegate = delegate;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ContentHash, float[]> eldest) {
+                return size() > maximumSize;
+            }
+        };
+        this.store =
+                persistentStore == null ? null : new MappedEmbeddingStore(persistentStore, delegate.getDimension());
+    }
+
+    @Override
+    public List<float[]> embed(List<String> texts) {
+        var embeddings = new float[texts.size()][];
+        Map<ContentHash, List<Integer>> missing = new LinkedHashMap<>();
+
+        for (int i = 0; i < texts.size(); i++) {
+            var key = ContentHash.of(texts.get(i));
+            var embedding = lookup(key);
+
+            if (embedding != null) {
+                hits.increment();
+                embeddings[i] = embedding;
+            } else {
+                misses.increment();
+                missing.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            var missingTexts = missing.values().stream()
+                    .map(positions -> texts.get(positions.getFirst()))
+                    .toList();
+            var computed = delegate.embed(missingTexts).iterator();
+
+            for (var entry : missing.entrySet()) {
+                var embedding = computed.next();
+                save(entry.getKey(), embedding);
+                entry.getValue().forEach(position -> embeddings[position] = embedding);
+            }
+        }
+
+        return Arrays.asList(embeddings);
+    }
+
+    @Override
+    public int getDimension() {
+        return delegate.getDimension();
+    }
+
+    private float[] lookup(ContentHash key) {
+        float[] embedding;
+        synchronized (cache) {
+            embedding = cache.get(key);
+        }
+
+        if (embedding == null && store != null) {
+            embedding = store.get(key);
+            if (embedding != null) {
+                synchronized (cache) {
+                    cache.put(key, embedding);
+                }
+            }
+        }
+
+        return embedding;
+    }
+
+    private void save(ContentHash key, float[] embedding) {
+        synchronized (cache) {
+            cache.put(key, embedding);
+        }
+
+        if (store != null) {
+            store.put(key, embedding);
+        }
+    }
+
+    /** {@return the hit and miss counters of the cache} */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum());
+    }
+
+    /** Closes the persistent store, the delegate is left open. */
+    @Override
+    public void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    /**
+     * Counters of the cache lookups.
+     *
+     * @param hitCount the number of texts found in the cache (either in memory or in the persistent
+     *     store)
+     * @param missCount the number of texts sent to the delegate
+     */
+    public record Stats(long hitCount, long missCount) {
+
+        /** {@return the ratio of lookups that were hits, 0 if there were no lookups} */
+        public double hitRate() {
+            long total = hitCount + missCount;
+            return total == 0 ? 0.0 : (double) hitCount / total;
+        }
+    }
+
+    public static Builder builder(Embedder delegate) {
+        return new Builder(delegate);
+    }
+
+    public static class Builder {
+
+        private final Embedder delegate;
+
+        private int maximumSize = 10_000;
+
+        private Path persistentStore;
+
+        private Builder(Embedder delegate) {
+            this.delegate = delegate;
+        }
+
+        /** Sets the maximum number of embeddings kept in memory. */
+        public Builder maximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /** Persists the embeddings to the given file, which is created if it does not exist. */
+        public Builder persistentStore(Path persistentStore) {
+            this.persistentStore = persistentStore;
+            return this;
+        }
+
+        public CachingEmbedder build() {
+            assert delegate != null : "The delegate embedder cannot be null";
+            assert maximumSize > 0 : "Maximum size must be greater than 0";
+
+            return new CachingEmbedder(delegate, maximumSize, persistentStore);
+        }
+    }
+}
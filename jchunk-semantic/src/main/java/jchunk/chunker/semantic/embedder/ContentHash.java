@@ -0,0 +1,27 @@
+package jchunk.chunker.semantic.embedder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 128 bit hash of a text (the first half of its SHA-256 digest), used to key the cached
+ * embeddings without holding the texts.
+ *
+ * @param high the most significant bits of the hash
+ * @param low the least significant bits of the hash
+ * @author Pablo Sanchidrian Herrera
+ */
+record ContentHash(long high, long low) {
+
+    static ContentHash of(String text) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            var buffer = ByteBuffer.wrap(digest);
+            return new ContentHash(buffer.getLong(), buffer.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package jchunk.chunker.semantic.embedder;
+
+/**
+ * Configuration for the {@link JChunkEmbedder}
+ *
+ * @param maxBatchSize the maximum number of texts sent to the model in a single run
+ * @param maxTokensPerBatch the maximum number of tokens (padding included) of a single run, a text
+ *     longer than it is run on its own
+ * @param maxConcurrentRuns the maximum number of model runs executed at the same time, the batches
+ *     of a single call included, across all the threads using the embedder
+ * @param intraOpThreads the number of threads used by every model run, 0 to use the ONNX Runtime
+ *     default
+ * @param normalize whether to scale the embeddings to unit length
+ * @author Pablo Sanchidrian Herrera
+ */
+public record EmbedderConfig(
+        int maxBatchSize, int maxTokensPerBatch, int maxConcurrentRuns, int intraOpThreads, boolean normalize) {
+
+    /**
+     * @return the default config
+     */
+    public static EmbedderConfig defaultConfig() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private int maxBatchSize = 32;
+
+        private int maxTokensPerBatch = 8192;
+
+        private int maxConcurrentRuns = Runtime.getRuntime().availableProcessors();
+
+        private int intraOpThreads = 0;
+
+        private boolean normalize = false;
+
+        public Builder maxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        public Builder maxTokensPerBatch(int maxTokensPerBatch) {
+            this.maxTokensPerBatch = maxTokensPerBatch;
+            return this;
+        }
+
+        public Builder maxConcurrentRuns(int maxConcurrentRuns) {
+            this.maxConcurrentRuns = maxConcurrentRuns;
+            return this;
+        }
+
+        public Builder intraOpThreads(int intraOpThreads) {
+            this.intraOpThreads = intraOpThreads;
+            return this;
+        }
+
+        public Builder normalize(boolean normalize) {
+            this.normalize = normalize;
+            return this;
+        }
+
+        public EmbedderConfig build() {
+            assert maxBatchSize > 0 : "Max batch size must be greater than 0";
+            assert maxTokensPerBatch > 0 : "Max tokens per batch must be greater than 0";
+            assert maxConcurrentRuns > 0 : "Max concurrent runs must be greater than 0";
+            assert intraOpThreads >= 0 : "Intra op threads must be greater than or equal to 0";
+
+            return new EmbedderConfig(maxBatchSize, maxTokensPerBatch, maxConcurrentRuns, intraOpThreads, normalize);
+        }
+    }
+}
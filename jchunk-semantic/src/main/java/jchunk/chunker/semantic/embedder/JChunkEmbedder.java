@@ -1,15 +1,19 @@
 package jchunk.chunker.semantic.embedder;
 
+import ai.djl.huggingface.tokenizers.Encoding;
 import ai.djl.huggingface.tokenizers.HuggingFaceTokenizer;
-import ai.djl.ndarray.NDArray;
-import ai.djl.ndarray.NDManager;
-import ai.djl.ndarray.types.DataType;
-import ai.djl.ndarray.types.Shape;
 import ai.onnxruntime.*;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +24,15 @@ import org.slf4j.LoggerFactory;
  * <p>Loads its tokenizer and model from the classpath and applies mean pooling on the last hidden
  * states.
  *
+ * <p>Texts are sent to the model in batches of texts with a similar number of tokens, bounded by
+ * the {@link EmbedderConfig}, and every batch is only padded to its own longest text. The batches
+ * of a single call are run concurrently on the threads of the embedder, and the number of model
+ * runs executed at the same time is bounded across all the threads using the embedder.
+ *
+ * <p>The tensors are written to and read from reusable direct buffers (one set per concurrent
+ * run), which the model uses without copies, and the pooling is done in a single loop over the
+ * output.
+ *
  * <p><i>Inspired by <a href="https://spring.io/projects/spring-ai">Spring AI</a> default Embedding Model impl</i>
  *
  * @author Pablo Sanchidrian Herrera
@@ -37,31 +50,57 @@ public class JChunkEmbedder implements Embedder, AutoCloseable {
     private final OrtSession ortSession;
     private final Set<String> modelInputs;
     private final String outputName;
+    private final int hiddenSize;
+    private final EmbedderConfig config;
+    private final Semaphore runPermits;
+    private final Queue<TensorBuffers> bufferPool = new ConcurrentLinkedQueue<>();
+    private final ExecutorService runner;
 
     public JChunkEmbedder() throws IOException, OrtException {
-        this(DEFAULT_TOKENIZER_PATH, DEFAULT_MODEL_PATH);
+        this(EmbedderConfig.defaultConfig());
+    }
+
+    public JChunkEmbedder(EmbedderConfig config) throws IOException, OrtException {
+        this(DEFAULT_TOKENIZER_PATH, DEFAULT_MODEL_PATH, config);
     }
 
     public JChunkEmbedder(String tokenizerResource, String modelResource) throws IOException, OrtException {
+        this(tokenizerResource, modelResource, EmbedderConfig.defaultConfig());
+    }
+
+    public JChunkEmbedder(String tokenizerResource, String modelResource, EmbedderConfig config)
+            throws IOException, OrtException {
+        this.config = config;
+        this.runPermits = new Semaphore(config.maxConcurrentRuns());
+        this.runner = Executors.newFixedThreadPool(
+                config.maxConcurrentRuns(),
+                Thread.ofPlatform().name("jchunk-embedder-", 0).daemon().factory());
+
         try (InputStream tokStream = loadResource(tokenizerResource);
                 InputStream modelStream = loadResource(modelResource)) {
 
             this.tokenizer = HuggingFaceTokenizer.newInstance(tokStream, Map.of());
             this.ortEnv = OrtEnvironment.getEnvironment();
 
+            var sessionOptions = new OrtSession.SessionOptions();
+            if (config.intraOpThreads() > 0) {
+                sessionOptions.setIntraOpNumThreads(config.intraOpThreads());
+            }
+
             byte[] modelBytes = modelStream.readAllBytes();
-            this.ortSession = ortEnv.createSession(modelBytes, new OrtSession.SessionOptions());
+            this.ortSession = ortEnv.createSession(modelBytes, sessionOptions);
             this.modelInputs = ortSession.getInputNames();
 
             Map<String, NodeInfo> outputs = ortSession.getOutputInfo();
             this.outputName = outputs.containsKey(DEFAULT_OUTPUT_NAME)
                     ? DEFAULT_OUTPUT_NAME
                     : outputs.keySet().iterator().next();
+            this.hiddenSize = resolveHiddenSize();
         }
     }
 
-    @Override
-    public int getDimension() {
+    /** {@return the embedding dimension declared by the model output, or -1 if it is not fixed} */
+    private int resolveHiddenSize() {
         try {
             TensorInfo tInfo =
                     (TensorInfo) ortSession.getOutputInfo().get(outputName).getInfo();
@@ -72,32 +111,130 @@ public class JChunkEmbedder implements Embedder, AutoCloseable {
         } catch (Exception e) {
             log.warn("Unable to infer embedding dimension directly, running fallback embedding", e);
         }
-        return embed("a").length;
+        return -1;
+    }
+
+    @Override
+    public int getDimension() {
+        return hiddenSize > 0 ? hiddenSize : embed("a").length;
     }
 
     @Override
-    @SuppressWarnings("java:S112")
     public List<float[]> embed(List<String> texts) {
         if (texts == null || texts.isEmpty()) {
             throw new IllegalArgumentException("Input text list must not be null or empty");
         }
 
         var encodings = tokenizer.batchEncode(texts);
-        long[][] inputIds = new long[encodings.length][];
-        long[][] attentionMask = new long[encodings.length][];
-        long[][] tokenTypeIds = new long[encodings.length][];
-
+        int[] lengths = new int[encodings.length];
         for (int i = 0; i < encodings.length; i++) {
-            inputIds[i] = encodings[i].getIds();
-            attentionMask[i] = encodings[i].getAttentionMask();
-            long[] typeIds = encodings[i].getTypeIds();
-            tokenTypeIds[i] = (typeIds != null && typeIds.length > 0) ? typeIds : new long[inputIds[i].length];
+            lengths[i] = tokenCount(encodings[i]);
         }
 
-        try (OnnxTensor idsTensor = OnnxTensor.createTensor(ortEnv, inputIds);
-                OnnxTensor maskTensor = OnnxTensor.createTensor(ortEnv, attentionMask);
-                OnnxTensor typesTensor = OnnxTensor.createTensor(ortEnv, tokenTypeIds);
-                NDManager manager = NDManager.newBaseManager()) {
+        float[][] vectors = new float[texts.size()][];
+        var batches = BatchPlanner.plan(lengths, config.maxBatchSize(), config.maxTokensPerBatch());
+        if (batches.size() == 1) {
+            collect(vectors, batches.getFirst(), embedBatch(encodings, lengths, batches.getFirst()));
+            return Arrays.asList(vectors);
+        }
+
+        var runs = new ArrayList<Future<List<float[]>>>(batches.size());
+        try {
+            for (int[] batch : batches) {
+                runs.add(runner.submit(() -> embedBatch(encodings, lengths, batch)));
+            }
+            for (int b = 0; b < batches.size(); b++) {
+                collect(vectors, batches.get(b), runs.get(b).get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the model", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("ONNX inference failed", e.getCause());
+        } finally {
+            runs.forEach(run -> run.cancel(true));
+        }
+
+        return Arrays.asList(vectors);
+    }
+
+    /** Puts the embeddings of a batch at the positions of its texts. */
+    private static void collect(float[][] vectors, int[] batch, List<float[]> batchVectors) {
+        for (int i = 0; i < batch.length; i++) {
+            vectors[batch[i]] = batchVectors.get(i);
+        }
+    }
+
+    /**
+     * Embeds a batch of encoded texts, waiting for a permit if there are already {@code
+     * maxConcurrentRuns} runs in progress.
+     *
+     * @param encodings the encodings of all the texts
+     * @param lengths the number of tokens of every text, without padding
+     * @param batch the positions of the texts of the batch, sorted by length
+     * @return the embeddings of the batch, in the batch order
+     */
+    private List<float[]> embedBatch(Encoding[] encodings, int[] lengths, int[] batch) {
+        try {
+            runPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to run the model", e);
+        }
+
+        var buffers = Objects.requireNonNullElseGet(bufferPool.poll(), TensorBuffers::new);
+        try {
+            return embedBatch(encodings, lengths, batch, buffers);
+        } finally {
+            bufferPool.offer(buffers);
+            runPermits.release();
+        }
+    }
+
+    /**
+     * Embeds a batch of encoded texts, padding them to the longest one of the batch.
+     *
+     * @param encodings the encodings of all the texts
+     * @param lengths the number of tokens of every text, without padding
+     * @param batch the positions of the texts of the batch, sorted by length
+     * @param buffers the buffers of the tensors
+     * @return the embeddings of the batch, in the batch order
+     */
+    @SuppressWarnings("java:S112")
+    private List<float[]> embedBatch(Encoding[] encodings, int[] lengths, int[] batch, TensorBuffers buffers) {
+        int rows = batch.length;
+        int sequenceLength = lengths[batch[rows - 1]];
+        int tokens = rows * sequenceLength;
+        long[] shape = {rows, sequenceLength};
+
+        buffers.reserve(tokens, hiddenSize > 0 ? tokens * hiddenSize : 0);
+        LongBuffer inputIds = buffers.inputIds();
+        LongBuffer attentionMask = buffers.attentionMask();
+        LongBuffer tokenTypeIds = buffers.tokenTypeIds();
+
+        for (int i = 0; i < rows; i++) {
+            var encoding = encodings[batch[i]];
+            int length = lengths[batch[i]];
+            long[] ids = encoding.getIds();
+            long[] mask = encoding.getAttentionMask();
+            long[] typeIds = encoding.getTypeIds();
+            boolean hasTypeIds = typeIds != null && typeIds.length >= length;
+
+            for (int t = 0; t < sequenceLength; t++) {
+                int token = i * sequenceLength + t;
+                boolean padding = t >= length;
+                inputIds.put(token, padding ? 0 : ids[t]);
+                attentionMask.put(token, padding ? 0 : mask[t]);
+                tokenTypeIds.put(token, padding || !hasTypeIds ? 0 : typeIds[t]);
+            }
+        }
+
+        try (OnnxTensor idsTensor = OnnxTensor.createTensor(ortEnv, inputIds.slice(0, tokens), shape);
+                OnnxTensor maskTensor = OnnxTensor.createTensor(ortEnv, attentionMask.slice(0, tokens), shape);
+                OnnxTensor typesTensor = OnnxTensor.createTensor(ortEnv, tokenTypeIds.slice(0, tokens), shape)) {
 
             Map<String, OnnxTensor> allInputs = Map.of(
                     "input_ids", idsTensor,
@@ -106,18 +243,31 @@ public class JChunkEmbedder implements Embedder, AutoCloseable {
 
             Map<String, OnnxTensor> acceptedInputs = filterInputs(allInputs, modelInputs);
 
+            if (hiddenSize > 0) {
+                FloatBuffer hiddenStates = buffers.hiddenStates();
+                long[] outputShape = {rows, sequenceLength, hiddenSize};
+
+                try (OnnxTensor outputTensor = OnnxTensor.createTensor(
+                                ortEnv, hiddenStates.slice(0, tokens * hiddenSize), outputShape);
+                        OrtSession.Result ignored =
+                                ortSession.run(acceptedInputs, Set.of(), Map.of(outputName, outputTensor))) {
+                    return Pooling.meanPool(
+                            hiddenStates, attentionMask, rows, sequenceLength, hiddenSize, config.normalize());
+                }
+            }
+
             try (OrtSession.Result result = ortSession.run(acceptedInputs)) {
                 OnnxValue outputVal = result.get(outputName)
                         .orElseThrow(() -> new IllegalStateException("Model output not found: " + outputName));
 
-                float[][][] tokenEmbeddings = (float[][][]) outputVal.getValue();
-                NDArray pooled = meanPool(toNDArray(tokenEmbeddings, manager), manager.create(attentionMask));
-
-                List<float[]> vectors = new ArrayList<>(texts.size());
-                for (int i = 0; i < pooled.getShape().get(0); i++) {
-                    vectors.add(pooled.get(i).toFloatArray());
-                }
-                return vectors;
+                FloatBuffer hiddenStates = ((OnnxTensor) outputVal).getFloatBuffer();
+                return Pooling.meanPool(
+                        hiddenStates,
+                        attentionMask,
+                        rows,
+                        sequenceLength,
+                        hiddenStates.capacity() / tokens,
+                        config.normalize());
             }
 
         } catch (OrtException e) {
@@ -125,37 +275,22 @@ public class JChunkEmbedder implements Embedder, AutoCloseable {
         }
     }
 
+    /** {@return the number of tokens of the encoding, without the trailing padding} */
+    private static int tokenCount(Encoding encoding) {
+        long[] attentionMask = encoding.getAttentionMask();
+        int length = encoding.getIds().length;
+        while (length > 0 && attentionMask[length - 1] == 0) {
+            length--;
+        }
+        return length;
+    }
+
     private static Map<String, OnnxTensor> filterInputs(Map<String, OnnxTensor> provided, Set<String> accepted) {
         return provided.entrySet().stream()
                 .filter(e -> accepted.contains(e.getKey()))
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
     }
 
-    private static NDArray toNDArray(float[][][] data, NDManager manager) {
-        var d0 = data.length;
-        var d1 = data[0].length;
-        var d2 = data[0][0].length;
-
-        var buf = FloatBuffer.allocate(d0 * d1 * d2);
-
-        Arrays.stream(data).flatMap(Arrays::stream).forEach(buf::put);
-
-        buf.rewind();
-        return manager.create(buf, new Shape(d0, d1, d2));
-    }
-
-    private static NDArray meanPool(NDArray tokenEmbeddings, NDArray attentionMask) {
-        var maskExpanded = attentionMask
-                .expandDims(-1)
-                .broadcast(tokenEmbeddings.getShape())
-                .toType(DataType.FLOAT32, false);
-
-        var sumEmbeddings = tokenEmbeddings.mul(maskExpanded).sum(new int[] {1});
-        var sumMask = maskExpanded.sum(new int[] {1}).clip(1e-9f, Float.MAX_VALUE);
-
-        return sumEmbeddings.div(sumMask);
-    }
-
     private static InputStream loadResource(String path) throws IOException {
         InputStream in = JChunkEmbedder.class.getClassLoader().getResourceAsStream(path);
 
@@ -168,6 +303,7 @@ public class JChunkEmbedder implements Embedder, AutoCloseable {
 
     @Override
     public void close() {
+        runner.shutdownNow();
         try {
             ortSession.close();
             ortEnv.close();
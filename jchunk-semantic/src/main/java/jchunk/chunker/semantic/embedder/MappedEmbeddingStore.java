@@ -0,0 +1,166 @@
+package jchunk.chunker.semantic.embedder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Persistent store of embeddings backed by a memory-mapped file.
+ *
+ * <p>The file holds a header ({@code magic, version, dimension, count}) followed by fixed size
+ * records ({@code hash high, hash low, dimension floats}). Records are only appended, and the count
+ * is updated after the record is written, so an interrupted write is ignored the next time the
+ * file is opened. The mapped region grows by doubling and is limited to 2GB.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+final class MappedEmbeddingStore implements AutoCloseable {
+
+    private static final int MAGIC = 0x4A43484B;
+
+    private static final int VERSION = 1;
+
+    private static final int COUNT_OFFSET = 12;
+
+    private static final int HEADER_SIZE = 16;
+
+    private static final int KEY_SIZE = 2 * Long.BYTES;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Path path;
+
+    private final FileChannel channel;
+
+    private final int dimension;
+
+    private final int recordSize;
+
+    private final Map<ContentHash, Integer> index = new HashMap<>();
+
+    private MappedByteBuffer buffer;
+
+    private int count;
+
+    MappedEmbeddingStore(Path path, int dimension) {
+        assert dimension > 0 : "The dimension must be greater than 0";
+
+        this.path = path;
+        this.dimension = dimension;
+        this.recordSize = KEY_SIZE + dimension * Float.BYTES;
+
+        try {
+            this.channel = FileChannel.open(
+                    path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            if (channel.size() == 0) {
+                map(INITIAL_CAPACITY);
+                buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, dimension).putInt(COUNT_OFFSET, 0);
+            } else {
+                map((int) ((channel.size() - HEADER_SIZE) / recordSize));
+                load();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open the embedding store " + path, e);
+        }
+    }
+
+    private void load() {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not an embedding store: " + path);
+        }
+        if (buffer.getInt(8) != dimension) {
+            throw new IllegalStateException(String.format(
+                    "The embedding store %s holds embeddings of dimension %d, expected %d",
+                    path, buffer.getInt(8), dimension));
+        }
+
+        count = buffer.getInt(COUNT_OFFSET);
+        for (int i = 0; i < count; i++) {
+            int offset = recordOffset(i);
+            index.put(new ContentHash(buffer.getLong(offset), buffer.getLong(offset + Long.BYTES)), i);
+        }
+    }
+
+    /**
+     * @param key the hash of the embedded text
+     * @return a copy of the stored embedding, or {@code null} if there is none
+     */
+    synchronized float[] get(ContentHash key) {
+        Integer position = index.get(key);
+        if (position == null) {
+            return null;
+        }
+
+        var embedding = new float[dimension];
+        buffer.slice(recordOffset(position) + KEY_SIZE, dimension * Float.BYTES)
+                .asFloatBuffer()
+                .get(embedding);
+        return embedding;
+    }
+
+    /**
+     * Stores the embedding, unless there is already one for the key.
+     *
+     * @param key the hash of the embedded text
+     * @param embedding the embedding
+     */
+    synchronized void put(ContentHash key, float[] embedding) {
+        assert embedding.length == dimension : "The embedding dimension does not match the store dimension";
+
+        if (index.containsKey(key)) {
+            return;
+        }
+
+        if (count == capacity()) {
+            map(capacity() * 2);
+        }
+
+        int offset = recordOffset(count);
+        buffer.putLong(offset, key.high()).putLong(offset + Long.BYTES, key.low());
+        buffer.slice(offset + KEY_SIZE, dimension * Float.BYTES).asFloatBuffer().put(embedding);
+
+        index.put(key, count);
+        buffer.putInt(COUNT_OFFSET, ++count);
+    }
+
+    synchronized int size() {
+        return count;
+    }
+
+    private int capacity() {
+        return (buffer.capacity() - HEADER_SIZE) / recordSize;
+    }
+
+    private int recordOffset(int position) {
+        return HEADER_SIZE + position * recordSize;
+    }
+
+    private void map(int records) {
+        long size = HEADER_SIZE + (long) Math.max(records, 1) * recordSize;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The embedding store " + path + " is full");
+        }
+
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map the embedding store " + path, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close the embedding store " + path, e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package jchunk.chunker.semantic.embedder;
+
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pooling of the token embeddings produced by the model into a single embedding per text.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+final class Pooling {
+
+    private static final float MIN_DIVISOR = 1e-9f;
+
+    private Pooling() {}
+
+    /**
+     * Averages the embeddings of the tokens of every text, ignoring the padding tokens.
+     *
+     * @param hiddenStates the {@code [rows, sequenceLength, hiddenSize]} token embeddings, row major
+     * @param attentionMask the {@code [rows, sequenceLength]} attention mask, row major
+     * @param rows the number of texts
+     * @param sequenceLength the number of tokens of every text (padding included)
+     * @param hiddenSize the dimension of the embeddings
+     * @param normalize whether to scale the embeddings to unit length
+     * @return the embedding of every text
+     */
+    static List<float[]> meanPool(
+            FloatBuffer hiddenStates,
+            LongBuffer attentionMask,
+            int rows,
+            int sequenceLength,
+            int hiddenSize,
+            boolean normalize) {
+
+        List<float[]> embeddings = new ArrayList<>(rows);
+
+        for (int row = 0; row < rows; row++) {
+            var embedding = new float[hiddenSize];
+            int tokens = 0;
+
+            for (int t = 0; t < sequenceLength; t++) {
+                int token = row * sequenceLength + t;
+                if (attentionMask.get(token) == 0) {
+                    continue;
+                }
+
+                tokens++;
+                int offset = token * hiddenSize;
+                for (int d = 0; d < hiddenSize; d++) {
+                    embedding[d] += hiddenStates.get(offset + d);
+                }
+            }
+
+            float scale = 1.0f / Math.max(tokens, MIN_DIVISOR);
+            if (normalize) {
+                // the unit vector of the sum is the unit vector of the mean, so the division is skipped
+                float norm = 0.0f;
+                for (float value : embedding) {
+                    norm += value * value;
+                }
+                scale = 1.0f / Math.max((float) Math.sqrt(norm), MIN_DIVISOR);
+            }
+
+            for (int d = 0; d < hiddenSize; d++) {
+                embedding[d] *= scale;
+            }
+            embeddings.add(embedding);
+        }
+
+        return embeddings;
+    }
+}
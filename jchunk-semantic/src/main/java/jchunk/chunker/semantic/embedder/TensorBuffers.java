@@ -0,0 +1,74 @@
+package jchunk.chunker.semantic.embedder;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Reusable direct buffers holding the input and output tensors of a model run, so the model reads
+ * and writes them without copies. The buffers only grow, to the next power of two of the requested
+ * size.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+final class TensorBuffers {
+
+    private LongBuffer inputIds = allocateLongs(0);
+
+    private LongBuffer attentionMask = allocateLongs(0);
+
+    private LongBuffer tokenTypeIds = allocateLongs(0);
+
+    private FloatBuffer hiddenStates = allocateFloats(0);
+
+    /**
+     * Makes sure the buffers can hold a run of the given size.
+     *
+     * @param tokens the number of tokens of the batch (padding included)
+     * @param hiddenStates the number of floats of the output of the batch
+     */
+    void reserve(int tokens, int hiddenStates) {
+        if (inputIds.capacity() < tokens) {
+            int capacity = nextPowerOfTwo(tokens);
+            inputIds = allocateLongs(capacity);
+            attentionMask = allocateLongs(capacity);
+            tokenTypeIds = allocateLongs(capacity);
+        }
+        if (this.hiddenStates.capacity() < hiddenStates) {
+            this.hiddenStates = allocateFloats(nextPowerOfTwo(hiddenStates));
+        }
+    }
+
+    LongBuffer inputIds() {
+        return inputIds;
+    }
+
+    LongBuffer attentionMask() {
+        return attentionMask;
+    }
+
+    LongBuffer tokenTypeIds() {
+        return tokenTypeIds;
+    }
+
+    FloatBuffer hiddenStates() {
+        return hiddenStates;
+    }
+
+    private static int nextPowerOfTwo(int size) {
+        return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+
+    private static LongBuffer allocateLongs(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * Long.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asLongBuffer();
+    }
+
+    private static FloatBuffer allocateFloats(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * Float.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+    }
+}
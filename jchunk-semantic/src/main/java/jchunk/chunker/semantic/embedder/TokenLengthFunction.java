@@ -0,0 +1,89 @@
+package jchunk.chunker.semantic.embedder;
+
+import ai.djl.huggingface.tokenizers.HuggingFaceTokenizer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import jchunk.chunker.core.length.LengthFunction;
+
+/**
+ * {@link LengthFunction} counting the tokens of a text with the HuggingFace tokenizer of the
+ * embedding model, so chunks can be sized in the same unit the model is limited by.
+ *
+ * <p>The tokenizer is loaded from the same resource used by the {@link JChunkEmbedder}, but without
+ * the truncation, padding and special tokens the model input needs, so the count is the number of
+ * tokens the text itself adds to a model input.
+ *
+ * <p>The counts are kept in a least recently used cache bounded by {@code maximumSize} texts, as
+ * the same sentence is usually measured more than once while chunks are being merged.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public class TokenLengthFunction implements LengthFunction, AutoCloseable {
+
+    private static final String DEFAULT_TOKENIZER_PATH = "onnx/tokenizer.json";
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private static final Map<String, String> COUNTING_OPTIONS =
+            Map.of("truncation", "false", "padding", "false", "addSpecialTokens", "false");
+
+    private final HuggingFaceTokenizer tokenizer;
+
+    private final Map<String, Integer> cache;
+
+    public TokenLengthFunction() throws IOException {
+        this(DEFAULT_TOKENIZER_PATH, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public TokenLengthFunction(String tokenizerResource, int maximumSize) throws IOException {
+        assert maximumSize >= 0 : "Maximum size must be greater than or equal to 0";
+
+        try (InputStream tokStream = loadResource(tokenizerResource)) {
+            this.tokenizer = HuggingFaceTokenizer.newInstance(tokStream, COUNTING_OPTIONS);
+        }
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    @Override
+    public int length(CharSequence text, int start, int end) {
+        if (start == end) {
+            return 0;
+        }
+
+        var slice = text.subSequence(start, end).toString();
+        synchronized (cache) {
+            var cached = cache.get(slice);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        int count = tokenizer.encode(slice).getIds().length;
+        synchronized (cache) {
+            cache.put(slice, count);
+        }
+        return count;
+    }
+
+    private static InputStream loadResource(String path) throws IOException {
+        InputStream in = TokenLengthFunction.class.getClassLoader().getResourceAsStream(path);
+
+        if (in == null) {
+            throw new IOException("Resource not found in classpath: " + path);
+        }
+
+        return in;
+    }
+
+    @Override
+    public void close() {
+        tokenizer.close();
+    }
+}
@@ -0,0 +1,56 @@
+package jchunk.chunker.semantic.segmenter;
+
+/**
+ * {@link SentenceSegmenter} splitting the text around a literal delimiter (e.g. a line break),
+ * producing the same sentences as {@link String#split(String)} without going through the regex
+ * engine.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public final class DelimiterSentenceSegmenter implements SentenceSegmenter {
+
+    private final String delimiter;
+
+    /**
+     * @param delimiter the delimiter between sentences, matched literally
+     */
+    public DelimiterSentenceSegmenter(String delimiter) {
+        assert delimiter != null && !delimiter.isEmpty() : "The delimiter cannot be null nor empty";
+        this.delimiter = delimiter;
+    }
+
+    @Override
+    public void segment(CharSequence text, SpanConsumer consumer) {
+        var spans = new SplitSpans(consumer);
+        var match = indexOf(text, 0);
+        while (match >= 0) {
+            spans.separator(match, match + delimiter.length());
+            match = indexOf(text, match + delimiter.length());
+        }
+        spans.finish(text.length());
+    }
+
+    private int indexOf(CharSequence text, int from) {
+        if (text instanceof String string) {
+            return string.indexOf(delimiter, from);
+        }
+
+        var first = delimiter.charAt(0);
+        var last = text.length() - delimiter.length();
+        for (int i = from; i <= last; i++) {
+            if (text.charAt(i) == first && matchesAt(text, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matchesAt(CharSequence text, int position) {
+        for (int j = 1; j < delimiter.length(); j++) {
+            if (text.charAt(position + j) != delimiter.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,39 @@
+package jchunk.chunker.semantic.segmenter;
+
+/**
+ * {@link SentenceSegmenter} splitting the text at the whitespace following a {@code .}, {@code ?}
+ * or {@code !}. It is a hand-written scan producing the same sentences as {@code
+ * text.split("(?<=[.?!])\\s+")}, without the cost of the regex lookbehind.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public final class PunctuationSentenceSegmenter implements SentenceSegmenter {
+
+    @Override
+    public void segment(CharSequence text, SpanConsumer consumer) {
+        var spans = new SplitSpans(consumer);
+        var length = text.length();
+
+        for (int i = 1; i < length; i++) {
+            if (isWhitespace(text.charAt(i)) && isTerminator(text.charAt(i - 1))) {
+                var end = i + 1;
+                while (end < length && isWhitespace(text.charAt(end))) {
+                    end++;
+                }
+                spans.separator(i, end);
+                i = end;
+            }
+        }
+
+        spans.finish(length);
+    }
+
+    private static boolean isTerminator(char c) {
+        return c == '.' || c == '?' || c == '!';
+    }
+
+    /** Same characters as the {@code \s} regex class. */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
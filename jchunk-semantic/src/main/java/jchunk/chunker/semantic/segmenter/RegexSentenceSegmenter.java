@@ -0,0 +1,39 @@
+package jchunk.chunker.semantic.segmenter;
+
+import java.util.regex.Pattern;
+
+/**
+ * {@link SentenceSegmenter} splitting the text around the matches of a regex, producing the same
+ * sentences as {@link String#split(String)}.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public final class RegexSentenceSegmenter implements SentenceSegmenter {
+
+    private final Pattern separator;
+
+    /**
+     * @param separator the regex matching the separators between sentences
+     */
+    public RegexSentenceSegmenter(String separator) {
+        this(Pattern.compile(separator));
+    }
+
+    /**
+     * @param separator the pattern matching the separators between sentences
+     */
+    public RegexSentenceSegmenter(Pattern separator) {
+        assert separator != null : "The separator cannot be null";
+        this.separator = separator;
+    }
+
+    @Override
+    public void segment(CharSequence text, SpanConsumer consumer) {
+        var spans = new SplitSpans(consumer);
+        var matcher = separator.matcher(text);
+        while (matcher.find()) {
+            spans.separator(matcher.start(), matcher.end());
+        }
+        spans.finish(text.length());
+    }
+}
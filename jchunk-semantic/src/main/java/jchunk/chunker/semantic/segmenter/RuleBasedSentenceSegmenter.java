@@ -0,0 +1,186 @@
+package jchunk.chunker.semantic.segmenter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Rule-based {@link SentenceSegmenter} written as a single left to right scan that does not
+ * allocate. A sentence ends at:
+ *
+ * <ul>
+ *   <li>a run of {@code .}, {@code ?}, {@code !} or {@code …}, optionally followed by closing quotes
+ *       or brackets, when whitespace follows it (so decimals such as {@code 3.14}, urls or {@code
+ *       e.g.} never end a sentence). A single period does not end a sentence after a known
+ *       abbreviation (e.g. {@code Dr.}), after an initial (e.g. {@code J. R. R. Tolkien}) or when
+ *       the next word starts in lower case.
+ *   <li>a CJK full stop, exclamation or question mark ({@code 。！？．｡}), optionally followed by
+ *       closing quotes or brackets, whitespace is not required after it.
+ * </ul>
+ *
+ * <p>The sentences do not include the whitespace around them, blank sentences are skipped.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public final class RuleBasedSentenceSegmenter implements SentenceSegmenter {
+
+    /** Abbreviations, in lower case and without their final period, recognized by default. */
+    public static final List<String> DEFAULT_ABBREVIATIONS = List.of(
+            "mr", "mrs", "ms", "dr", "prof", "sr", "jr", "st", "mt", "rev", "gen", "col", "lt", "sgt", "capt", "gov",
+            "sen", "rep", "vs", "etc", "e.g", "i.e", "cf", "al", "approx", "inc", "ltd", "co", "corp", "dept", "est",
+            "fig", "figs", "no", "nos", "vol", "vols", "p", "pp", "ed", "eds", "jan", "feb", "mar", "apr", "jun", "jul",
+            "aug", "sep", "sept", "oct", "nov", "dec", "a.m", "p.m", "u.s", "u.k", "ph.d");
+
+    private static final String CLOSERS = "\"')]}»”’」』）】";
+
+    private final String[][] abbreviationsByLength;
+
+    public RuleBasedSentenceSegmenter() {
+        this(DEFAULT_ABBREVIATIONS);
+    }
+
+    /**
+     * @param abbreviations the abbreviations that do not end a sentence, without their final period
+     *     and matched ignoring case
+     */
+    public RuleBasedSentenceSegmenter(Collection<String> abbreviations) {
+        assert abbreviations != null : "The abbreviations cannot be null";
+
+        var maxLength = abbreviations.stream().mapToInt(String::length).max().orElse(0);
+        this.abbreviationsByLength = new String[maxLength + 1][];
+        for (int length = 0; length <= maxLength; length++) {
+            final var size = length;
+            abbreviationsByLength[length] = abbreviations.stream()
+                    .filter(abbreviation -> abbreviation.length() == size)
+                    .map(abbreviation -> abbreviation.toLowerCase(Locale.ROOT))
+                    .distinct()
+                    .toArray(String[]::new);
+        }
+    }
+
+    @Override
+    public void segment(CharSequence text, SpanConsumer consumer) {
+        var length = text.length();
+        var start = skipWhitespace(text, 0);
+        var i = start;
+
+        while (i < length) {
+            var c = text.charAt(i);
+
+            if (isCjkTerminator(c)) {
+                var end = skipClosers(text, skipTerminators(text, i));
+                emit(text, start, end, consumer);
+                start = skipWhitespace(text, end);
+                i = start;
+            } else if (isTerminator(c)) {
+                var terminatorsEnd = skipTerminators(text, i);
+                var end = skipClosers(text, terminatorsEnd);
+                var next = skipWhitespace(text, end);
+                if (next == end || next == length) {
+                    i = end;
+                } else if (c == '.' && terminatorsEnd == i + 1 && !endsSentence(text, start, i, next)) {
+                    i = next;
+                } else {
+                    emit(text, start, end, consumer);
+                    start = next;
+                    i = next;
+                }
+            } else {
+                i++;
+            }
+        }
+
+        emit(text, start, length, consumer);
+    }
+
+    /**
+     * Decides whether a single period ends the sentence.
+     *
+     * @param text the text
+     * @param sentenceStart the start of the current sentence
+     * @param period the position of the period
+     * @param next the position of the first character after the whitespace following the period
+     * @return whether the period ends the sentence
+     */
+    private boolean endsSentence(CharSequence text, int sentenceStart, int period, int next) {
+        if (Character.isLowerCase(text.charAt(next))) {
+            return false;
+        }
+
+        var wordStart = period;
+        while (wordStart > sentenceStart
+                && (Character.isLetter(text.charAt(wordStart - 1)) || text.charAt(wordStart - 1) == '.')) {
+            wordStart--;
+        }
+
+        var wordLength = period - wordStart;
+        if (wordLength == 1 && Character.isUpperCase(text.charAt(wordStart))) {
+            return false;
+        }
+
+        return !isAbbreviation(text, wordStart, wordLength);
+    }
+
+    private boolean isAbbreviation(CharSequence text, int start, int length) {
+        if (length == 0 || length >= abbreviationsByLength.length) {
+            return false;
+        }
+
+        for (String abbreviation : abbreviationsByLength[length]) {
+            if (regionMatchesIgnoreCase(text, start, abbreviation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionMatchesIgnoreCase(CharSequence text, int start, String lowerCase) {
+        for (int j = 0; j < lowerCase.length(); j++) {
+            if (Character.toLowerCase(text.charAt(start + j)) != lowerCase.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void emit(CharSequence text, int start, int end, SpanConsumer consumer) {
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (start < end) {
+            consumer.accept(start, end);
+        }
+    }
+
+    private static int skipWhitespace(CharSequence text, int from) {
+        var i = from;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipTerminators(CharSequence text, int from) {
+        var i = from;
+        while (i < text.length() && (isTerminator(text.charAt(i)) || isCjkTerminator(text.charAt(i)))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipClosers(CharSequence text, int from) {
+        var i = from;
+        while (i < text.length() && CLOSERS.indexOf(text.charAt(i)) >= 0) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isTerminator(char c) {
+        return c == '.' || c == '?' || c == '!' || c == '…';
+    }
+
+    private static boolean isCjkTerminator(char c) {
+        return c == '。' || c == '！' || c == '？' || c == '．' || c == '｡';
+    }
+}
@@ -0,0 +1,45 @@
+package jchunk.chunker.semantic.segmenter;
+
+/**
+ * Splits a text into sentences, described as {@code [start, end)} offsets over the text so that no
+ * sentence has to be copied (or allocated at all) while segmenting.
+ *
+ * <p>Implementations must be stateless (or thread-safe) and report the sentences from left to
+ * right, without overlapping.
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+public interface SentenceSegmenter {
+
+    /**
+     * Finds the sentences of the text.
+     *
+     * @param text the text to segment
+     * @param consumer the consumer of the {@code [start, end)} offsets of every sentence
+     */
+    void segment(CharSequence text, SpanConsumer consumer);
+
+    /**
+     * Finds the last position where the text can be cut without breaking a sentence, i.e. the start
+     * of its last sentence. Used to read a content in windows.
+     *
+     * @param text the text to look into
+     * @return the cut position, or -1 if the text holds a single sentence
+     */
+    default int lastBoundary(CharSequence text) {
+        var boundary = new int[] {-1, 0};
+        segment(text, (start, end) -> {
+            if (boundary[1]++ > 0) {
+                boundary[0] = start;
+            }
+        });
+        return boundary[0] > 0 ? boundary[0] : -1;
+    }
+
+    /** Receives the {@code [start, end)} offsets of the sentences. */
+    @FunctionalInterface
+    interface SpanConsumer {
+
+        void accept(int start, int end);
+    }
+}
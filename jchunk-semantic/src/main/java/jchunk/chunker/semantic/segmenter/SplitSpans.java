@@ -0,0 +1,72 @@
+package jchunk.chunker.semantic.segmenter;
+
+import java.util.Arrays;
+
+/**
+ * Turns the separators found in a text into the sentences {@link String#split(String)} would
+ * return: a zero-width separator at the beginning is ignored, a text without separators is a single
+ * sentence, and the trailing empty sentences are dropped (empty sentences are held back until a
+ * non-empty one follows them).
+ *
+ * @author Pablo Sanchidrian Herrera
+ */
+final class SplitSpans {
+
+    private final SentenceSegmenter.SpanConsumer consumer;
+
+    private int start = 0;
+
+    private boolean matched = false;
+
+    private int[] pendingEmpty = new int[0];
+
+    private int pendingCount = 0;
+
+    SplitSpans(SentenceSegmenter.SpanConsumer consumer) {
+        this.consumer = consumer;
+    }
+
+    /**
+     * Reports a separator, which must be found after the previous one.
+     *
+     * @param separatorStart the start of the separator
+     * @param separatorEnd the end of the separator
+     */
+    void separator(int separatorStart, int separatorEnd) {
+        if (separatorEnd == 0) {
+            return;
+        }
+        span(start, separatorStart);
+        start = separatorEnd;
+        matched = true;
+    }
+
+    /**
+     * Reports the end of the text, emitting its last sentence.
+     *
+     * @param length the length of the text
+     */
+    void finish(int length) {
+        if (!matched) {
+            consumer.accept(0, length);
+            return;
+        }
+        span(start, length);
+    }
+
+    private void span(int spanStart, int spanEnd) {
+        if (spanStart == spanEnd) {
+            if (pendingCount == pendingEmpty.length) {
+                pendingEmpty = Arrays.copyOf(pendingEmpty, Math.max(4, pendingCount * 2));
+            }
+            pendingEmpty[pendingCount++] = spanStart;
+            return;
+        }
+
+        for (int i = 0; i < pendingCount; i++) {
+            consumer.accept(pendingEmpty[i], pendingEmpty[i]);
+        }
+        pendingCount = 0;
+        consumer.accept(spanStart, spanEnd);
+    }
+}
@@ -0,0 +1,101 @@
+package jchunk.chunker.semantic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import jchunk.chunker.core.chunk.Chunk;
+import org.junit.jupiter.api.Test;
+
+class ChunkSizeLimiterTest {
+
+    @Test
+    void testOversizedSegmentIsSplitAtTheLowestSimilarities() {
+        // given
+        var limiter = new ChunkSizeLimiter(Config.builder().maxChunkSize(5).build());
+        var chunks = new ArrayList<Chunk>();
+
+        // when
+        limiter.add(
+                List.of("a1", "b2", "c3", "d4", "e5"),
+                0,
+                new double[] {0.9, 0.1, 0.8, 0.2},
+                0,
+                Double.NaN,
+                chunks::add);
+        limiter.finish(chunks::add);
+
+        // then
+        assertThat(chunks).extracting(Chunk::content).containsExactly("a1 b2", "c3 d4", "e5");
+        assertThat(chunks).extracting(Chunk::id).containsExactly(0, 1, 2);
+        assertThat(chunks)
+                .extracting(chunk -> chunk.metadata().breakSimilarity())
+                .containsExactly(Float.NaN, 0.1f, 0.2f);
+        assertThat(chunks).extracting(chunk -> chunk.metadata().length()).containsExactly(5, 5, 2);
+    }
+
+    @Test
+    void testSingleSentenceLongerThanTheMaximumIsKept() {
+        // given
+        var limiter = new ChunkSizeLimiter(Config.builder().maxChunkSize(5).build());
+        var chunks = new ArrayList<Chunk>();
+
+        // when
+        limiter.add(List.of("a long sentence", "b2"), 0, new double[] {0.5}, 0, Double.NaN, chunks::add);
+        limiter.finish(chunks::add);
+
+        // then
+        assertThat(chunks).extracting(Chunk::content).containsExactly("a long sentence", "b2");
+    }
+
+    @Test
+    void testShortSegmentIsMergedWithTheMoreSimilarNeighbour() {
+        // given
+        var limiter = new ChunkSizeLimiter(
+                Config.builder().minChunkSize(5).maxChunkSize(100).build());
+        var chunks = new ArrayList<Chunk>();
+
+        // when
+        limiter.add(List.of("first chunk"), 0, new double[0], 0, Double.NaN, chunks::add);
+        limiter.add(List.of("x"), 0, new double[0], 0, 0.2, chunks::add);
+        limiter.add(List.of("second chunk"), 0, new double[0], 0, 0.9, chunks::add);
+        limiter.add(List.of("y"), 0, new double[0], 0, 0.7, chunks::add);
+        limiter.finish(chunks::add);
+
+        // then
+        assertThat(chunks).extracting(Chunk::content).containsExactly("first chunk", "x second chunk y");
+    }
+
+    @Test
+    void testShortSegmentIsNotMergedBeyondTheMaximum() {
+        // given
+        var limiter = new ChunkSizeLimiter(
+                Config.builder().minChunkSize(3).maxChunkSize(6).build());
+        var chunks = new ArrayList<Chunk>();
+
+        // when
+        limiter.add(List.of("abcdef"), 0, new double[0], 0, Double.NaN, chunks::add);
+        limiter.add(List.of("x"), 0, new double[0], 0, 0.9, chunks::add);
+        limiter.add(List.of("ghij"), 0, new double[0], 0, 0.1, chunks::add);
+        limiter.finish(chunks::add);
+
+        // then
+        assertThat(chunks).extracting(Chunk::content).containsExactly("abcdef", "x ghij");
+    }
+
+    @Test
+    void testSegmentsAreEmittedAsIsWithoutLimits() {
+        // given
+        var limiter = new ChunkSizeLimiter(Config.defaultConfig());
+        var chunks = new ArrayList<Chunk>();
+
+        // when
+        limiter.add(List.of("a", "b"), 0, new double[] {0.5}, 0, Double.NaN, chunks::add);
+        limiter.add(List.of("c"), 0, new double[0], 0, 0.5, chunks::add);
+
+        // then
+        assertThat(chunks)
+                .usingRecursiveFieldByFieldElementComparatorOnFields("id", "content")
+                .containsExactly(new Chunk(0, "a b"), new Chunk(1, "c"));
+    }
+}
@@ -0,0 +1,35 @@
+package jchunk.chunker.semantic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ConfigTest {
+
+    @Test
+    void testDefaultConfig() {
+        Config config = Config.defaultConfig();
+
+        assertThat(config.sentenceSplittingStrategy()).isEqualTo(SentenceSplittingStrategy.DEFAULT);
+        assertThat(config.percentile()).isEqualTo(95);
+        assertThat(config.bufferSize()).isEqualTo(1);
+        assertThat(config.thresholdStrategy()).isEqualTo(ThresholdStrategy.SLIDING_WINDOW);
+        assertThat(config.thresholdWindow()).isEqualTo(64);
+        assertThat(config.embeddingBatchSize()).isEqualTo(32);
+    }
+
+    @Test
+    void testConfigWithTheSplittingStrategyPercentileAndBufferSize() {
+        Config config = new Config(SentenceSplittingStrategy.LINE_BREAK, 80, 2);
+
+        assertThat(config.sentenceSplittingStrategy()).isEqualTo(SentenceSplittingStrategy.LINE_BREAK);
+        assertThat(config.sentenceSegmenter()).isSameAs(SentenceSplittingStrategy.LINE_BREAK.getSegmenter());
+        assertThat(config.percentile()).isEqualTo(80);
+        assertThat(config.bufferSize()).isEqualTo(2);
+        assertThat(config)
+                .usingRecursiveComparison()
+                .ignoringFields(
+                        "sentenceSplittingStrategy", "sentenceSegmenter", "percentile", "bufferSize", "lengthFunction")
+                .isEqualTo(Config.defaultConfig());
+    }
+}
@@ -0,0 +1,49 @@
+package jchunk.chunker.semantic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class EmbeddingMatrixTest {
+
+    @Test
+    void testOfCopiesTheEmbeddingsRowByRow() {
+        // given
+        var embeddings = List.of(new float[] {1.0f, 2.0f}, new float[] {3.0f, 4.0f});
+
+        // when
+        var matrix = EmbeddingMatrix.of(embeddings);
+
+        // then
+        assertThat(matrix.rows()).isEqualTo(2);
+        assertThat(matrix.dimension()).isEqualTo(2);
+        assertThat(matrix.offset(1)).isEqualTo(2);
+        assertThat(matrix.values()).containsExactly(1.0f, 2.0f, 3.0f, 4.0f);
+    }
+
+    @Test
+    void testWindowSums() {
+        // given
+        var matrix = EmbeddingMatrix.of(
+                List.of(new float[] {1.0f}, new float[] {2.0f}, new float[] {3.0f}, new float[] {4.0f}));
+
+        // when
+        var sums = matrix.windowSums(1);
+
+        // then
+        assertThat(sums.values()).containsExactly(3.0f, 6.0f, 9.0f, 7.0f);
+    }
+
+    @Test
+    void testWindowSumsWiderThanTheMatrix() {
+        // given
+        var matrix = EmbeddingMatrix.of(List.of(new float[] {1.0f}, new float[] {2.0f}));
+
+        // when
+        var sums = matrix.windowSums(5);
+
+        // then
+        assertThat(sums.values()).containsExactly(3.0f, 3.0f);
+    }
+}
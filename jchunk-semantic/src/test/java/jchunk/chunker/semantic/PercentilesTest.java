@@ -0,0 +1,62 @@
+package jchunk.chunker.semantic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class PercentilesTest {
+
+    @Test
+    void testSelectMatchesSortedRank() {
+        // given
+        var random = new SplittableRandom(42);
+
+        for (int n : new int[] {1, 2, 15, 16, 17, 100, 10_000}) {
+            var values = random.doubles(n, -1, 1).toArray();
+            var sorted = values.clone();
+            Arrays.sort(sorted);
+
+            for (int k : new int[] {0, n / 2, n - 1}) {
+                // when
+                var selected = Percentiles.select(values.clone(), k);
+
+                // then
+                assertThat(selected).isEqualTo(sorted[k]);
+            }
+        }
+    }
+
+    @Test
+    void testSelectWithRepeatedValues() {
+        // given
+        var values = new double[100_000];
+        Arrays.fill(values, 0.5);
+        values[42] = 0.1;
+        values[4242] = Double.NaN;
+
+        // when
+        var smallest = Percentiles.select(values.clone(), 0);
+        var median = Percentiles.select(values.clone(), values.length / 2);
+        var greatest = Percentiles.select(values.clone(), values.length - 1);
+
+        // then
+        assertThat(smallest).isEqualTo(0.1);
+        assertThat(median).isEqualTo(0.5);
+        assertThat(greatest).isNaN();
+    }
+
+    @Test
+    void testPercentileDoesNotModifyTheValues() {
+        // given
+        var values = new double[] {75.0, 10.0, 45.0, 30.0, 60.0};
+
+        // when
+        var percentile = Percentiles.percentile(values, 50);
+
+        // then
+        assertThat(percentile).isEqualTo(45.0);
+        assertThat(values).containsExactly(75.0, 10.0, 45.0, 30.0, 60.0);
+    }
+}
@@ -4,13 +4,26 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.within;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 
+import java.io.StringReader;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import jchunk.chunker.core.batch.ChunkingResult;
+import jchunk.chunker.core.batch.Document;
 import jchunk.chunker.core.chunk.Chunk;
+import jchunk.chunker.core.chunk.ChunkMetadata;
+import jchunk.chunker.core.incremental.IncrementalChunker;
+import jchunk.chunker.core.incremental.TextEdit;
+import jchunk.chunker.core.pipeline.ChunkingPipeline;
 import jchunk.chunker.semantic.embedder.Embedder;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mockito;
 
@@ -233,12 +246,37 @@ class SemanticChunkerTest {
         assertThat(result).isNaN();
     }
 
+    @Test
+    void testCalculateSimilaritiesOfEmbeddingMatrix() {
+        // given
+        var sentences = List.of(
+                Sentence.builder().embedding(new float[] {1.0f, 2.0f, 3.0f}).build(),
+                Sentence.builder().embedding(new float[] {2.0f, 4.0f, 6.0f}).build(),
+                Sentence.builder().embedding(new float[] {0.0f, 1.0f, 0.0f}).build());
+        var embeddings = EmbeddingMatrix.of(
+                sentences.stream().map(Sentence::getEmbedding).toList());
+
+        // when
+        var similarities = semanticChunker.calculateSimilarities(embeddings);
+
+        // then
+        assertThat(similarities).hasSize(2);
+        assertThat(similarities[0]).isCloseTo(1.0, within(1e-6));
+        assertThat(similarities[1])
+                .isCloseTo(
+                        semanticChunker.cosineSimilarity(
+                                new float[] {2.0f, 4.0f, 6.0f}, new float[] {0.0f, 1.0f, 0.0f}),
+                        within(1e-6));
+        assertThat(semanticChunker.calculateSimilarities(sentences)).isEqualTo(similarities);
+    }
+
     @Test
     void testGetIndicesAboveThreshold() {
         // given
         var percentile = 95;
-        var distances = List.of(10.0, 15.0, 20.0, 25.0, 30.0, 35.0, 40.0, 45.0, 50.0, 55.0, 60.0, 65.0, 70.0, 75.0);
-        var expectedIndices = List.of(13);
+        var distances =
+                new double[] {10.0, 15.0, 20.0, 25.0, 30.0, 35.0, 40.0, 45.0, 50.0, 55.0, 60.0, 65.0, 70.0, 75.0};
+        var expectedIndices = new int[] {13};
 
         // when
         var actualIndices = semanticChunker.calculateBreakPoints(distances, percentile);
@@ -261,7 +299,7 @@ class SemanticChunkerTest {
                 Sentence.builder().index(7).content("unit").build(),
                 Sentence.builder().index(8).content("tests.").build());
 
-        var breakPoints = List.of(2, 4, 6);
+        var breakPoints = new int[] {2, 4, 6};
 
         var expectedChunks = List.of(
                 new Chunk(0, "This is a"),
@@ -282,6 +320,245 @@ class SemanticChunkerTest {
         }
     }
 
+    @Test
+    void streamTest() {
+        // given
+        Mockito.when(embeddingModel.embed(Mockito.anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream()
+                    .map(text -> new float[] {text.length(), text.startsWith("I") ? 1.0f : 0.0f})
+                    .toList();
+        });
+        var content = "This is a test sentence. How are u? I am fine thanks. I am a test sentence! sure";
+
+        // when
+        var chunks = semanticChunker.stream(new StringReader(content)).toList();
+
+        // then
+        assertThat(chunks).isNotEmpty().containsExactlyElementsOf(withoutOffsets(semanticChunker.split(content)));
+    }
+
+    @Test
+    void streamSingleSentenceTest() {
+        // when
+        var chunks =
+                semanticChunker.stream(new StringReader("Just one sentence.")).toList();
+
+        // then
+        assertThat(chunks)
+                .usingRecursiveFieldByFieldElementComparatorOnFields("id", "content")
+                .containsExactly(new Chunk(0, "Just one sentence."));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideStreamingScenarios")
+    void streamMatchesSplitForEveryEmbeddingMode(
+            EmbeddingMode embeddingMode, int embeddingBatchSize, int bufferSize, String content) {
+        // given
+        Mockito.when(embeddingModel.embed(Mockito.anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream()
+                    .map(text -> new float[] {
+                        text.length(), text.chars().filter(c -> c == 'a').count()
+                    })
+                    .toList();
+        });
+        var config = Config.builder()
+                .embeddingMode(embeddingMode)
+                .bufferSize(bufferSize)
+                .percentile(80)
+                .embeddingBatchSize(embeddingBatchSize)
+                .build();
+        var chunker = new SemanticChunker(embeddingModel, config);
+
+        // when
+        var streamed = chunker.stream(new StringReader(content)).toList();
+
+        // then
+        assertThat(streamed).isNotEmpty().containsExactlyElementsOf(withoutOffsets(chunker.split(content)));
+    }
+
+    @Test
+    void splitEmbedsTheCombinedSentencesInCombinedMode() {
+        // given
+        Mockito.when(embeddingModel.embed(Mockito.anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream().map(text -> new float[] {text.length(), 1.0f}).toList();
+        });
+        var config = Config.builder().embeddingMode(EmbeddingMode.COMBINED).build();
+        var chunker = new SemanticChunker(embeddingModel, config);
+
+        // when
+        chunker.split("One. Two. Three.");
+
+        // then
+        Mockito.verify(embeddingModel).embed(List.of("One. Two.", "One. Two. Three.", "Two. Three."));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ThresholdStrategy.class)
+    void streamSentencesEmitsChunksBeforeTheEndOfTheStream(ThresholdStrategy thresholdStrategy) {
+        // given
+        Mockito.when(embeddingModel.embed(Mockito.anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream()
+                    .map(text -> text.equals("x") ? new float[] {1.0f, 0.0f} : new float[] {0.0f, 1.0f})
+                    .toList();
+        });
+        var config = Config.builder()
+                .thresholdStrategy(thresholdStrategy)
+                .thresholdWindow(10)
+                .embeddingBatchSize(4)
+                .build();
+        var chunker = new SemanticChunker(embeddingModel, config);
+        var endless = Stream.iterate(0, i -> i + 1).map(i -> i % 5 % 2 == 0 ? "x" : "y");
+
+        // when
+        var chunks = chunker.streamSentences(endless).limit(3).toList();
+
+        // then
+        assertThat(chunks)
+                .usingRecursiveFieldByFieldElementComparatorOnFields("id", "content")
+                .containsExactly(new Chunk(0, "x y x y x"), new Chunk(1, "x y x y x"), new Chunk(2, "x y x y x"));
+    }
+
+    @Test
+    void streamSentencesEmitsTheFirstChunkOnceTheDefaultWindowIsFull() {
+        // given
+        Mockito.when(embeddingModel.embed(Mockito.anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream()
+                    .map(text -> text.equals("x") ? new float[] {1.0f, 0.0f} : new float[] {0.0f, 1.0f})
+                    .toList();
+        });
+        var config = Config.defaultConfig();
+        var read = new AtomicInteger();
+        var endless =
+                Stream.iterate(0, i -> i + 1).peek(i -> read.incrementAndGet()).map(i -> i % 5 % 2 == 0 ? "x" : "y");
+
+        // when
+        var first = semanticChunker.streamSentences(endless).findFirst();
+
+        // then
+        assertThat(first)
+                .get()
+                .usingRecursiveComparison()
+                .comparingOnlyFields("id", "content")
+                .isEqualTo(new Chunk(0, "x y x y x"));
+        assertThat(read.get()).isLessThanOrEqualTo(config.thresholdWindow() + config.embeddingBatchSize() + 1);
+    }
+
+    @Test
+    void testGenerateChunksDescribesTheChunks() {
+        // given
+        var content = "One. Two. Three. Four.";
+        var sentences = SentenceTable.of(content, SentenceSplittingStrategy.DEFAULT.getSegmenter());
+        var similarities = new double[] {0.9, 0.2, 0.8};
+        var breakPoints = new int[] {1};
+
+        // when
+        var chunks = semanticChunker.generateChunks(sentences, similarities, breakPoints);
+
+        // then
+        assertThat(chunks).extracting(Chunk::content).containsExactly("One. Two.", "Three. Four.");
+        assertThat(chunks)
+                .extracting(chunk -> content.substring(
+                        chunk.metadata().start(), chunk.metadata().end()))
+                .containsExactly("One. Two.", "Three. Four.");
+        assertThat(chunks).extracting(chunk -> chunk.metadata().length()).containsExactly(9, 12);
+        assertThat(chunks)
+                .extracting(chunk -> chunk.metadata().breakSimilarity())
+                .containsExactly(Float.NaN, 0.2f);
+    }
+
+    @Test
+    void splitAndStreamFitTheChunksInTheMaxChunkSize() {
+        // given
+        Mockito.when(embeddingModel.embed(Mockito.anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream()
+                    .map(text -> new float[] {
+                        text.length(), text.chars().filter(c -> c == 'a').count()
+                    })
+                    .toList();
+        });
+        var config = Config.builder()
+                .percentile(99)
+                .minChunkSize(20)
+                .maxChunkSize(40)
+                .embeddingBatchSize(3)
+                .build();
+        var chunker = new SemanticChunker(embeddingModel, config);
+        var content = "This is a test sentence. How are u? I am fine thanks. I am a test sentence! sure. "
+                + "A banana has a lot of a. No more. Yet another one? The last sentence at last.";
+
+        // when
+        var chunks = chunker.split(content);
+
+        // then
+        assertThat(chunks).hasSizeGreaterThan(2).allSatisfy(chunk -> assertThat(chunk.content())
+                .hasSizeLessThanOrEqualTo(40));
+        assertThat(chunker.stream(new StringReader(content)).toList())
+                .containsExactlyElementsOf(withoutOffsets(chunks));
+    }
+
+    @Test
+    void testRechunkIsTheSameAsTheSplitOfTheEditedContent() {
+        // given
+        Mockito.when(embeddingModel.embed(Mockito.anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream()
+                    .map(text -> new float[] {1, text.length() % 7})
+                    .toList();
+        });
+        var content = IntStream.range(0, 60)
+                .mapToObj(i -> "Sentence " + "x".repeat(i % 11) + " number " + i + ".")
+                .collect(Collectors.joining(" "));
+        var previous = semanticChunker.split(content);
+        var edit = TextEdit.between(content, content.replace("number 30.", "number thirty."));
+        var edited = edit.apply(content);
+
+        // when
+        var result = new IncrementalChunker(semanticChunker).rechunk(previous, edited, edit);
+
+        // then
+        var expected = semanticChunker.split(edited);
+        assertThat(result.chunks())
+                .extracting(Chunk::content)
+                .isEqualTo(expected.stream().map(Chunk::content).toList());
+        assertThat(result.chunks())
+                .extracting(Chunk::metadata)
+                .isEqualTo(expected.stream().map(Chunk::metadata).toList());
+        assertThat(result.added()).extracting(Chunk::content).anyMatch(chunk -> chunk.contains("number thirty."));
+        assertThat(result.chunks().getFirst()).isEqualTo(previous.getFirst());
+    }
+
+    @Test
+    void testPipelineChunksTheDocumentsLikeSplit() {
+        // given
+        Mockito.when(embeddingModel.embed(Mockito.anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream()
+                    .map(text -> new float[] {1, text.length() % 5})
+                    .toList();
+        });
+        var first = "This is a test sentence. How are u? I am fine thanks. I am a test sentence! sure.";
+        var second = "A banana has a lot of a. No more. Yet another one? The last sentence at last.";
+        var documents = List.of(new Document("first", first), new Document("second", second));
+
+        // when
+        Map<String, ChunkingResult> results;
+        try (var pipeline =
+                semanticChunker.pipeline(ChunkingPipeline.builder(), 2).build()) {
+            results = pipeline.splitAll(documents);
+        }
+
+        // then
+        assertThat(results.get("first")).isEqualTo(new ChunkingResult.Success("first", semanticChunker.split(first)));
+        assertThat(results.get("second"))
+                .isEqualTo(new ChunkingResult.Success("second", semanticChunker.split(second)));
+    }
+
     private static Stream<Arguments> provideCombineSentencesFailureScenarios() {
         final var nonEmptySentences = List.of(Sentence.builder().content("This").build());
         return Stream.of(
@@ -292,6 +569,18 @@ class SemanticChunkerTest {
                 Arguments.of(List.of(), 2, "The list of sentences cannot be empty"));
     }
 
+    private static Stream<Arguments> provideStreamingScenarios() {
+        var content = "This is a test sentence. How are u? I am fine thanks. I am a test sentence! sure. "
+                + "A banana has a lot of a. No more. Yet another one? The last sentence at last.";
+        return Arrays.stream(EmbeddingMode.values())
+                .flatMap(mode -> Stream.of(
+                        Arguments.of(mode, 3, 2, content),
+                        Arguments.of(mode, 1, 1, content),
+                        Arguments.of(mode, 2, 2, content),
+                        Arguments.of(mode, 1, 1, "First sentence here. Second one."),
+                        Arguments.of(mode, 1, 2, "First sentence here. Second one. Third one.")));
+    }
+
     private static Stream<Arguments> provideVectorScenarios() {
         return Stream.of(
                 Arguments.of(new float[] {1.0f, 2.0f, 3.0f}, new float[] {1.0f, 2.0f, 3.0f}, 1.0, false),
@@ -302,4 +591,22 @@ class SemanticChunkerTest {
 
     // @formatter:on
 
+    /** {@return the chunks without their offsets, as the streamed chunks come} */
+    private static List<Chunk> withoutOffsets(List<Chunk> chunks) {
+        return chunks.stream()
+                .map(chunk -> {
+                    var metadata = chunk.metadata();
+                    return new Chunk(
+                            chunk.id(),
+                            chunk.content(),
+                            new ChunkMetadata(
+                                    -1,
+                                    -1,
+                                    metadata.length(),
+                                    metadata.level(),
+                                    metadata.overlap(),
+                                    metadata.breakSimilarity()));
+                })
+                .toList();
+    }
 }
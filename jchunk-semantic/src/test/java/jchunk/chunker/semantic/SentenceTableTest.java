@@ -0,0 +1,62 @@
+package jchunk.chunker.semantic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class SentenceTableTest {
+
+    @ParameterizedTest
+    @MethodSource("provideSplitScenarios")
+    void testSplitMatchesStringSplit(String content, SentenceSplittingStrategy strategy) {
+        // given
+        var expected = Arrays.asList(content.split(strategy.getStrategy()));
+
+        // when
+        var table = SentenceTable.of(content, strategy.getSegmenter());
+
+        // then
+        assertThat(table.sentences()).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideSplitScenarios")
+    void testJoinMatchesJoiningTheSentences(String content, SentenceSplittingStrategy strategy) {
+        // given
+        var table = SentenceTable.of(content, strategy.getSegmenter());
+
+        // when
+        var joined = table.join(0, table.size());
+
+        // then
+        assertThat(joined).isEqualTo(String.join(" ", table.sentences()));
+    }
+
+    @Test
+    void testCombined() {
+        // given
+        var table = SentenceTable.of("One. Two. Three. Four.", SentenceSplittingStrategy.DEFAULT.getSegmenter());
+
+        // when
+        var combined = table.combined(1);
+
+        // then
+        assertThat(combined).containsExactly("One. Two.", "One. Two. Three.", "Two. Three. Four.", "Three. Four.");
+    }
+
+    private static Stream<Arguments> provideSplitScenarios() {
+        return Stream.of(
+                Arguments.of(
+                        "This is a test sentence. How are u? I am fine thanks.", SentenceSplittingStrategy.DEFAULT),
+                Arguments.of("No separator at all", SentenceSplittingStrategy.DEFAULT),
+                Arguments.of("", SentenceSplittingStrategy.DEFAULT),
+                Arguments.of("\nleading\n\ntrailing\n\n", SentenceSplittingStrategy.LINE_BREAK),
+                Arguments.of("\n\n\n", SentenceSplittingStrategy.LINE_BREAK),
+                Arguments.of("first\n\nsecond\n\n\nthird", SentenceSplittingStrategy.PARAGRAPH));
+    }
+}
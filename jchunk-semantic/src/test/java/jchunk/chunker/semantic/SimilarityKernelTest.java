@@ -0,0 +1,43 @@
+package jchunk.chunker.semantic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class SimilarityKernelTest {
+
+    @Test
+    void testSelectUsesVectorKernelWhenModuleIsAvailable() {
+        // when
+        var kernel = SimilarityKernel.select();
+
+        // then
+        assertThat(kernel).isInstanceOf(VectorSimilarityKernel.class);
+    }
+
+    @Test
+    void testVectorKernelMatchesScalarKernel() {
+        // given
+        var random = new SplittableRandom(42);
+        var scalar = new ScalarSimilarityKernel();
+        var vector = new VectorSimilarityKernel();
+
+        for (int dimension : new int[] {1, 3, 8, 17, 384, 1027}) {
+            var a = new float[dimension];
+            var b = new float[dimension];
+            for (int i = 0; i < dimension; i++) {
+                a[i] = (float) random.nextDouble(-1, 1);
+                b[i] = (float) random.nextDouble(-1, 1);
+            }
+
+            // when
+            double expected = scalar.dot(a, b);
+            double actual = vector.dot(a, b);
+
+            // then
+            assertThat(actual).isCloseTo(expected, within(1e-3));
+        }
+    }
+}
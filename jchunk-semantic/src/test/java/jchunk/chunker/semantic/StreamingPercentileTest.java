@@ -0,0 +1,46 @@
+package jchunk.chunker.semantic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class StreamingPercentileTest {
+
+    @Test
+    void testExactWithFewValues() {
+        // given
+        var percentile = new StreamingPercentile(50);
+
+        // when
+        percentile.addAll(new double[] {0.9, 0.1, 0.5});
+
+        // then
+        assertThat(percentile.count()).isEqualTo(3);
+        assertThat(percentile.percentile()).isEqualTo(0.5);
+    }
+
+    @Test
+    void testNaNWithoutValues() {
+        // when
+        var percentile = new StreamingPercentile(95);
+
+        // then
+        assertThat(percentile.percentile()).isNaN();
+    }
+
+    @Test
+    void testApproximatesThePercentileOfALongStream() {
+        // given
+        var random = new SplittableRandom(42);
+        var values = random.doubles(100_000).toArray();
+        var percentile = new StreamingPercentile(95);
+
+        // when
+        percentile.addAll(values);
+
+        // then
+        assertThat(percentile.percentile()).isCloseTo(Percentiles.percentile(values, 95), within(0.01));
+    }
+}
@@ -0,0 +1,38 @@
+package jchunk.chunker.semantic.embedder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class BatchPlannerTest {
+
+    @Test
+    void testTextsOfSimilarLengthShareABatch() {
+        // given
+        int[] lengths = {50, 3, 48, 4, 5, 49};
+
+        // when
+        List<int[]> batches = BatchPlanner.plan(lengths, 3, 1000);
+
+        // then
+        assertThat(batches).containsExactly(new int[] {1, 3, 4}, new int[] {2, 5, 0});
+    }
+
+    @Test
+    void testBatchesStayWithinTheTokensLimit() {
+        // given
+        int[] lengths = {10, 10, 10, 30, 100};
+
+        // when
+        List<int[]> batches = BatchPlanner.plan(lengths, 32, 60);
+
+        // then
+        assertThat(batches).containsExactly(new int[] {0, 1, 2}, new int[] {3}, new int[] {4});
+    }
+
+    @Test
+    void testNoTextsProduceNoBatches() {
+        assertThat(BatchPlanner.plan(new int[0], 8, 100)).isEmpty();
+    }
+}
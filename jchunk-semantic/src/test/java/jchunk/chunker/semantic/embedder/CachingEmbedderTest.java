@@ -0,0 +1,89 @@
+package jchunk.chunker.semantic.embedder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+class CachingEmbedderTest {
+
+    private final Embedder delegate;
+
+    CachingEmbedderTest() {
+        this.delegate = Mockito.mock(Embedder.class);
+        when(delegate.getDimension()).thenReturn(2);
+        when(delegate.embed(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream()
+                    .map(text -> new float[] {text.length(), text.charAt(0)})
+                    .toList();
+        });
+    }
+
+    @Test
+    void testOnlyMissingTextsAreEmbedded() {
+        // given
+        var embedder = CachingEmbedder.builder(delegate).build();
+        embedder.embed(List.of("header", "body"));
+
+        // when
+        List<float[]> result = embedder.embed(List.of("header", "footer", "footer", "body"));
+
+        // then
+        assertThat(result)
+                .containsExactly(
+                        new float[] {6, 'h'}, new float[] {6, 'f'}, new float[] {6, 'f'}, new float[] {4, 'b'});
+        verify(delegate).embed(List.of("header", "body"));
+        verify(delegate).embed(List.of("footer"));
+        assertThat(embedder.stats()).isEqualTo(new CachingEmbedder.Stats(2, 4));
+        assertThat(embedder.stats().hitRate()).isEqualTo(2.0 / 6);
+    }
+
+    @Test
+    void testLeastRecentlyUsedEmbeddingIsEvicted() {
+        // given
+        var embedder = CachingEmbedder.builder(delegate).maximumSize(2).build();
+        embedder.embed(List.of("a", "b"));
+        embedder.embed("a");
+
+        // when
+        embedder.embed("c");
+        embedder.embed(List.of("a", "b"));
+
+        // then
+        verify(delegate).embed(List.of("a", "b"));
+        verify(delegate).embed(List.of("c"));
+        verify(delegate).embed(List.of("b"));
+    }
+
+    @Test
+    void testPersistentStoreSurvivesRestarts(@TempDir Path directory) {
+        // given
+        var file = directory.resolve("embeddings.bin");
+        try (var embedder =
+                CachingEmbedder.builder(delegate).persistentStore(file).build()) {
+            for (int i = 0; i < 2000; i++) {
+                embedder.embed("text " + i);
+            }
+        }
+        Mockito.clearInvocations(delegate);
+
+        // when
+        List<float[]> result;
+        try (var embedder =
+                CachingEmbedder.builder(delegate).persistentStore(file).build()) {
+            result = embedder.embed(List.of("text 0", "text 1999"));
+        }
+
+        // then
+        assertThat(result).containsExactly(new float[] {6, 't'}, new float[] {9, 't'});
+        verify(delegate, never()).embed(anyList());
+    }
+}
@@ -0,0 +1,44 @@
+package jchunk.chunker.semantic.embedder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class EmbedderConfigTest {
+
+    @Test
+    void testDefaultConfig() {
+        EmbedderConfig config = EmbedderConfig.defaultConfig();
+
+        assertThat(config.maxBatchSize()).isEqualTo(32);
+        assertThat(config.maxTokensPerBatch()).isEqualTo(8192);
+        assertThat(config.maxConcurrentRuns()).isEqualTo(Runtime.getRuntime().availableProcessors());
+        assertThat(config.intraOpThreads()).isZero();
+        assertThat(config.normalize()).isFalse();
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideInvalidConfig")
+    void testInvalidConfig(EmbedderConfig.Builder invalidConfigToBuild, String expectedMessage) {
+        assertThatThrownBy(invalidConfigToBuild::build)
+                .isInstanceOf(AssertionError.class)
+                .hasMessage(expectedMessage);
+    }
+
+    private static Stream<Arguments> provideInvalidConfig() {
+        return Stream.of(
+                Arguments.of(EmbedderConfig.builder().maxBatchSize(0), "Max batch size must be greater than 0"),
+                Arguments.of(
+                        EmbedderConfig.builder().maxTokensPerBatch(0), "Max tokens per batch must be greater than 0"),
+                Arguments.of(
+                        EmbedderConfig.builder().maxConcurrentRuns(0), "Max concurrent runs must be greater than 0"),
+                Arguments.of(
+                        EmbedderConfig.builder().intraOpThreads(-1),
+                        "Intra op threads must be greater than or equal to 0"));
+    }
+}
@@ -2,6 +2,8 @@ package jchunk.chunker.semantic.embedder;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.stream.IntStream;
+import org.assertj.core.data.Offset;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.DisplayNameGenerator;
 import org.junit.jupiter.api.Test;
@@ -18,4 +20,22 @@ class JChunkEmbedderTest {
 
         assertThat(embedding).hasSize(DEFAULT_EMBEDDER_DIM);
     }
+
+    @Test
+    void batches_of_a_single_call_are_embedded_like_every_text_on_its_own() throws Exception {
+        var config =
+                EmbedderConfig.builder().maxBatchSize(2).maxConcurrentRuns(3).build();
+        var texts = IntStream.range(0, 9)
+                .mapToObj(i -> "sentence " + "number ".repeat(i) + i)
+                .toList();
+
+        try (var embedder = new JChunkEmbedder(config)) {
+            var embeddings = embedder.embed(texts);
+
+            assertThat(embeddings).hasSameSizeAs(texts);
+            for (int i = 0; i < texts.size(); i++) {
+                assertThat(embeddings.get(i)).containsExactly(embedder.embed(texts.get(i)), Offset.offset(1e-4f));
+            }
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package jchunk.chunker.semantic.embedder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PoolingTest {
+
+    // two texts of three tokens and two dimensions, the last token of the second one is padding
+    private static final FloatBuffer HIDDEN_STATES = FloatBuffer.wrap(new float[] {
+        1, 2, 3, 4, 5, 6,
+        2, 0, 4, 0, 100, 100
+    });
+
+    private static final LongBuffer ATTENTION_MASK = LongBuffer.wrap(new long[] {1, 1, 1, 1, 1, 0});
+
+    @Test
+    void testMeanPoolIgnoresPadding() {
+        // when
+        List<float[]> embeddings = Pooling.meanPool(HIDDEN_STATES, ATTENTION_MASK, 2, 3, 2, false);
+
+        // then
+        assertThat(embeddings).containsExactly(new float[] {3, 4}, new float[] {3, 0});
+    }
+
+    @Test
+    void testMeanPoolWithNormalization() {
+        // when
+        List<float[]> embeddings = Pooling.meanPool(HIDDEN_STATES, ATTENTION_MASK, 2, 3, 2, true);
+
+        // then
+        assertThat(embeddings.get(0)).containsExactly(new float[] {0.6f, 0.8f}, within(1e-6f));
+        assertThat(embeddings.get(1)).containsExactly(new float[] {1, 0}, within(1e-6f));
+    }
+}
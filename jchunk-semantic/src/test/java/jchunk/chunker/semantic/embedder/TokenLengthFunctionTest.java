@@ -0,0 +1,60 @@
+package jchunk.chunker.semantic.embedder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class TokenLengthFunctionTest {
+
+    private static TokenLengthFunction tokens;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        tokens = new TokenLengthFunction();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        tokens.close();
+    }
+
+    @Test
+    void testCountsTokensWithoutSpecialTokens() {
+        // given
+        var text = "hello world";
+
+        // when
+        int length = tokens.length(text);
+
+        // then
+        assertThat(length).isEqualTo(2);
+    }
+
+    @Test
+    void testLongTextIsNotTruncated() {
+        // given
+        var text = "word ".repeat(500);
+
+        // when
+        int length = tokens.length(text);
+
+        // then
+        assertThat(length).isEqualTo(500);
+    }
+
+    @Test
+    void testMeasuresAPieceOfTheText() {
+        // given
+        var text = "ignored hello world ignored";
+
+        // when
+        int length = tokens.length(text, 8, 19);
+
+        // then
+        assertThat(length).isEqualTo(tokens.length("hello world"));
+        assertThat(tokens.length(text, 8, 8)).isZero();
+    }
+}
@@ -0,0 +1,59 @@
+package jchunk.chunker.semantic.segmenter;
+
+import static jchunk.chunker.semantic.segmenter.SentenceSegmenterTest.segment;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class RuleBasedSentenceSegmenterTest {
+
+    private final SentenceSegmenter segmenter = new RuleBasedSentenceSegmenter();
+
+    @ParameterizedTest
+    @MethodSource("provideScenarios")
+    void testSegment(String text, List<String> expected) {
+        // when
+        var sentences = segment(segmenter, text);
+
+        // then
+        assertThat(sentences).isEqualTo(expected);
+    }
+
+    @Test
+    void testCustomAbbreviations() {
+        // given
+        var custom = new RuleBasedSentenceSegmenter(List.of("Approx"));
+
+        // when
+        var sentences = segment(custom, "It weighs approx. Ten kilos. Mr. Smith agrees.");
+
+        // then
+        assertThat(sentences).containsExactly("It weighs approx. Ten kilos.", "Mr.", "Smith agrees.");
+    }
+
+    private static Stream<Arguments> provideScenarios() {
+        return Stream.of(
+                Arguments.of(
+                        "This is a test sentence. How are u? I am fine thanks!",
+                        List.of("This is a test sentence.", "How are u?", "I am fine thanks!")),
+                Arguments.of(
+                        "Dr. Smith paid $3.50 for it. Then he left.",
+                        List.of("Dr. Smith paid $3.50 for it.", "Then he left.")),
+                Arguments.of(
+                        "J. R. R. Tolkien wrote it, e.g. The Hobbit. Read it.",
+                        List.of("J. R. R. Tolkien wrote it, e.g. The Hobbit.", "Read it.")),
+                Arguments.of(
+                        "He said \"stop.\" She did not. Wait... what?! Yes.",
+                        List.of("He said \"stop.\"", "She did not.", "Wait...", "what?!", "Yes.")),
+                Arguments.of("It was 5 p.m. and late. ok", List.of("It was 5 p.m. and late. ok")),
+                Arguments.of("今日は晴れです。明日は雨？「はい！」次へ", List.of("今日は晴れです。", "明日は雨？", "「はい！」", "次へ")),
+                Arguments.of("  padded.   sentences  ", List.of("padded.   sentences")),
+                Arguments.of("   ", List.of()),
+                Arguments.of("No terminator", List.of("No terminator")));
+    }
+}
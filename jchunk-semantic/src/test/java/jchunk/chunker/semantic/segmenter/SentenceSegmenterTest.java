@@ -0,0 +1,73 @@
+package jchunk.chunker.semantic.segmenter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class SentenceSegmenterTest {
+
+    private static final String ALPHABET = "ab .?!\n\t\r";
+
+    @ParameterizedTest
+    @MethodSource("provideSegmenters")
+    void testSegmentMatchesStringSplit(String regex, SentenceSegmenter segmenter) {
+        // given
+        var random = new SplittableRandom(42);
+
+        for (int i = 0; i < 2_000; i++) {
+            var text = randomText(random, random.nextInt(0, 40));
+            var expected = Arrays.asList(text.split(regex));
+
+            // when
+            var sentences = segment(segmenter, text);
+
+            // then
+            assertThat(sentences).as("segmenting %s", text.translateEscapes()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void testLastBoundaryIsTheStartOfTheLastSentence() {
+        // given
+        var segmenter = new PunctuationSentenceSegmenter();
+
+        // when
+        var boundary = segmenter.lastBoundary("One. Two. Three");
+        var noBoundary = segmenter.lastBoundary("Just one sentence.");
+
+        // then
+        assertThat(boundary).isEqualTo(10);
+        assertThat(noBoundary).isEqualTo(-1);
+    }
+
+    static List<String> segment(SentenceSegmenter segmenter, String text) {
+        var sentences = new ArrayList<String>();
+        segmenter.segment(text, (start, end) -> sentences.add(text.substring(start, end)));
+        return sentences;
+    }
+
+    private static String randomText(SplittableRandom random, int length) {
+        var builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return builder.toString();
+    }
+
+    private static Stream<Arguments> provideSegmenters() {
+        return Stream.of(
+                Arguments.of("(?<=[.?!])\\s+", new PunctuationSentenceSegmenter()),
+                Arguments.of("\n", new DelimiterSentenceSegmenter("\n")),
+                Arguments.of("\n\n", new DelimiterSentenceSegmenter("\n\n")),
+                Arguments.of("[.?!]\\s*", new RegexSentenceSegmenter("[.?!]\\s*")),
+                Arguments.of("\\b", new RegexSentenceSegmenter("\\b")));
+    }
+}